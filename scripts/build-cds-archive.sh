@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Builds a class-data sharing archive for the packaged jar, see "Fast startup" in the README.
+#
+#   scripts/build-cds-archive.sh [jar] [output directory]
+#
+# The jar is unpacked, started once with the fast-startup profile to record the classes loaded
+# while serving a create and a redirect, and the archive is dumped from that list.
+set -euo pipefail
+
+JAR=$(realpath "${1:-$(ls target/url-shortener-*.jar | head -n 1)}")
+OUT=${2:-target/cds}
+PORT=${CDS_TRAINING_PORT:-18080}
+MAIN_CLASS=io.github.korzepadawid.urlshortener.UrlShortenerApplication
+
+rm -rf "$OUT"
+mkdir -p "$OUT/app"
+OUT=$(realpath "$OUT")
+(cd "$OUT/app" && jar -xf "$JAR")
+# Classes loaded from directories can't be archived, the application's own are packed in a jar.
+jar -cf "$OUT/app/application.jar" -C "$OUT/app/BOOT-INF/classes" .
+CLASSPATH="$OUT/app/application.jar$(printf ':%s' "$OUT"/app/BOOT-INF/lib/*.jar)"
+
+java -XX:DumpLoadedClassList="$OUT/classes.lst" -cp "$CLASSPATH" "$MAIN_CLASS" \
+  --server.port="$PORT" --spring.profiles.active=fast-startup \
+  --spring.jpa.hibernate.ddl-auto=create-drop --url-shortener.startup.scheduler-delay=0s \
+  > "$OUT/training.log" 2>&1 &
+PID=$!
+trap 'kill "$PID" 2> /dev/null || true' EXIT
+
+for _ in $(seq 1 600); do
+  curl -sf "http://localhost:$PORT/actuator/health" > /dev/null && break
+  kill -0 "$PID" 2> /dev/null || { echo "Training run failed, see $OUT/training.log" >&2; exit 1; }
+  sleep 0.1
+done
+CODE=$(curl -sf -X POST -H 'Content-Type: application/json' \
+  -d '{"url": "https://www.example.org/"}' "http://localhost:$PORT/api/v1/urls" \
+  | sed -n 's|.*"shortUrl":"/\([^"]*\)".*|\1|p')
+curl -s -o /dev/null "http://localhost:$PORT/$CODE"
+kill "$PID"
+wait "$PID" || true
+
+java -Xshare:dump -XX:SharedClassListFile="$OUT/classes.lst" \
+  -XX:SharedArchiveFile="$OUT/app.jsa" -cp "$CLASSPATH" > "$OUT/dump.log" 2>&1
+printf -- '-cp %s\n-XX:SharedArchiveFile=%s\n' "$CLASSPATH" "$OUT/app.jsa" > "$OUT/jvm.args"
+
+echo "Recorded $(wc -l < "$OUT/classes.lst") classes in $OUT/app.jsa, start with:"
+echo "  java @$OUT/jvm.args $MAIN_CLASS --spring.profiles.active=fast-startup"
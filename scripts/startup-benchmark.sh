@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+# Measures the time from launch to the first served redirect and the resident memory of the idle
+# process, see "Fast startup" in the README.
+#
+#   scripts/startup-benchmark.sh [runs] [java arguments...]
+#
+# Java arguments default to "-jar target/url-shortener-<version>.jar". Each run reads the same
+# H2 file database, seeded once with a single url. PROFILES (fast-startup), DDL_AUTO (none),
+# IDLE_SECONDS (10) and PORT (18081) can be set in the environment.
+set -euo pipefail
+
+RUNS=${1:-5}
+shift || true
+if [ $# -eq 0 ]; then
+  set -- -jar "$(ls target/url-shortener-*.jar | head -n 1)"
+fi
+PROFILES=${PROFILES:-fast-startup}
+DDL_AUTO=${DDL_AUTO:-none}
+IDLE_SECONDS=${IDLE_SECONDS:-10}
+PORT=${PORT:-18081}
+OUT=$(realpath -m target/startup-benchmark)
+DATASOURCE_URL="jdbc:h2:file:$OUT/urls"
+
+PID=
+trap 'if [ -n "$PID" ]; then kill "$PID" 2> /dev/null || true; fi' EXIT
+
+# Starts the application in the background with the given extra arguments, sets PID.
+launch() {
+  java "$@" --server.port="$PORT" --spring.datasource.url="$DATASOURCE_URL" \
+    > "$OUT/run.log" 2>&1 &
+  PID=$!
+}
+
+stop() {
+  kill "$PID"
+  wait "$PID" || true
+  PID=
+}
+
+median() {
+  sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+launch "$@" --spring.jpa.hibernate.ddl-auto=update
+until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+  kill -0 "$PID" 2> /dev/null || { echo "Seeding failed, see $OUT/run.log" >&2; exit 1; }
+  sleep 0.1
+done
+CODE=$(curl -sf -X POST -H 'Content-Type: application/json' \
+  -d '{"url": "https://www.example.org/"}' "http://localhost:$PORT/api/v1/urls" \
+  | sed -n 's|.*"shortUrl":"/\([^"]*\)".*|\1|p')
+stop
+
+printf '%-4s %22s %14s\n' run time-to-redirect-ms idle-rss-mib
+for run in $(seq 1 "$RUNS"); do
+  start=$(date +%s%N)
+  launch "$@" --spring.profiles.active="$PROFILES" --spring.jpa.hibernate.ddl-auto="$DDL_AUTO"
+  until [[ $(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/$CODE") == 30* ]]; do
+    kill -0 "$PID" 2> /dev/null || { echo "Run $run failed, see $OUT/run.log" >&2; exit 1; }
+    sleep 0.01
+  done
+  elapsed_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+  sleep "$IDLE_SECONDS"
+  rss_mib=$(( $(ps -o rss= -p "$PID") / 1024 ))
+  stop
+  printf '%-4s %22s %14s\n' "$run" "$elapsed_ms" "$rss_mib" | tee -a "$OUT/results.txt"
+done
+
+printf '%-4s %22s %14s\n' median \
+  "$(awk '{ print $2 }' "$OUT/results.txt" | median)" \
+  "$(awk '{ print $3 }' "$OUT/results.txt" | median)"
@@ -0,0 +1,50 @@
+package io.github.korzepadawid.urlshortener.benchmarks;
+
+import io.github.korzepadawid.urlshortener.services.Base62Service;
+import io.github.korzepadawid.urlshortener.services.Base62ServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Base62Benchmark {
+
+  @Param({"1", "4", "7", "11"})
+  private int codeLength;
+
+  private Base62Service base62Service;
+  private long id;
+  private String code;
+
+  @Setup
+  public void setUp() {
+    base62Service = new Base62ServiceImpl(new SimpleMeterRegistry());
+    id = codeLength == 11 ? Long.MAX_VALUE : (long) Math.pow(62, codeLength) - 1;
+    code = base62Service.encode(id);
+  }
+
+  @Benchmark
+  public String encode() {
+    return base62Service.encode(id);
+  }
+
+  @Benchmark
+  public long decode() {
+    return base62Service.decodeLong(code);
+  }
+}
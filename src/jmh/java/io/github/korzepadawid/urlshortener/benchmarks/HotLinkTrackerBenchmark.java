@@ -0,0 +1,41 @@
+package io.github.korzepadawid.urlshortener.benchmarks;
+
+import io.github.korzepadawid.urlshortener.config.HotLinkProperties;
+import io.github.korzepadawid.urlshortener.hotlinks.HotLinkTracker;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Redirect-path cost of hit counting with all cores hammering either a single hot url or a wide
+ * range of urls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class HotLinkTrackerBenchmark {
+
+  @Param({"1", "10000"})
+  private int distinctUrls;
+
+  private final HotLinkTracker hotLinkTracker = new HotLinkTracker(new HotLinkProperties());
+
+  @Benchmark
+  public void record() {
+    hotLinkTracker.record(ThreadLocalRandom.current().nextInt(distinctUrls));
+  }
+}
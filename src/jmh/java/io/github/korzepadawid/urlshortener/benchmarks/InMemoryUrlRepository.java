@@ -0,0 +1,99 @@
+package io.github.korzepadawid.urlshortener.benchmarks;
+
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Map-backed repository, so service benchmarks measure the application code instead of JDBC.
+ */
+class InMemoryUrlRepository implements UrlRepository {
+
+  private final Map<Long, Url> urls = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final UUID storeId = UUID.randomUUID();
+
+  @Override
+  public Url save(Url url) {
+    if (url.getId() == null) {
+      url.setId(sequence.incrementAndGet());
+    }
+    urls.put(url.getId(), url);
+    return url;
+  }
+
+  @Override
+  public <S extends Url> Iterable<S> saveAll(Iterable<S> urls) {
+    urls.forEach(this::save);
+    return urls;
+  }
+
+  @Override
+  public Optional<Url> findByDedupKey(String dedupKey) {
+    return urls.values().stream()
+        .filter(candidate -> dedupKey.equals(candidate.getDedupKey()))
+        .findFirst();
+  }
+
+  @Override
+  public List<Url> findByDedupKeyIn(Collection<String> dedupKeys) {
+    return urls.values().stream()
+        .filter(candidate -> dedupKeys.contains(candidate.getDedupKey()))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Optional<Url> findById(Long id) {
+    return Optional.ofNullable(urls.get(id));
+  }
+
+  @Override
+  public List<Long> findExpiredIds(LocalDateTime expiringAt, Pageable pageable) {
+    return urls.values().stream()
+        .filter(url -> url.getExpiringAt() != null && url.getExpiringAt().isBefore(expiringAt))
+        .map(Url::getId)
+        .limit(pageable.getPageSize())
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public int deleteUrlsByIdIn(Collection<Long> ids) {
+    int deleted = 0;
+    for (Long id : ids) {
+      deleted += urls.remove(id) == null ? 0 : 1;
+    }
+    return deleted;
+  }
+
+  @Override
+  public long countByExpiringAtBefore(LocalDateTime expiringAt) {
+    return urls.values().stream()
+        .filter(url -> url.getExpiringAt() != null && url.getExpiringAt().isBefore(expiringAt))
+        .count();
+  }
+
+  @Override
+  public UUID getStoreId() {
+    return storeId;
+  }
+
+  @Override
+  public List<Url> findLiveUrlsAfter(Long afterId, LocalDateTime now, Pageable pageable) {
+    return urls.values().stream()
+        .filter(url -> url.getId() > afterId)
+        .filter(url -> url.getExpiringAt() == null || url.getExpiringAt().isAfter(now))
+        .sorted(Comparator.comparing(Url::getId))
+        .limit(pageable.getPageSize())
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,66 @@
+package io.github.korzepadawid.urlshortener.benchmarks;
+
+import io.github.korzepadawid.urlshortener.caches.LongLinkMap;
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookups in the off-heap link map next to a {@code HashMap<Long, Url>} holding the same urls.
+ * Run with {@code -prof gc} to compare allocations, the heap footprint shows up in GC logs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LongLinkMapBenchmark {
+
+  @Param({"1000000"})
+  private int urls;
+
+  private LongLinkMap longLinkMap;
+  private Map<Long, Url> hashMap;
+
+  @Setup
+  public void setUp() {
+    longLinkMap = new LongLinkMap(urls, 16 * 1024 * 1024);
+    hashMap = new HashMap<>();
+    LocalDateTime expiringAt = LocalDateTime.now().plusYears(1);
+    for (long id = 1; id <= urls; id++) {
+      Url url = Url.builder()
+          .id(id)
+          .url("https://www.nytimes.com/section/" + id)
+          .expiringAt(expiringAt)
+          .build();
+      longLinkMap.put(url);
+      hashMap.put(id, url);
+    }
+  }
+
+  @Benchmark
+  public Optional<Url> longLinkMapGet() {
+    return longLinkMap.get(ThreadLocalRandom.current().nextLong(1, urls + 1));
+  }
+
+  @Benchmark
+  public Url hashMapGet() {
+    return hashMap.get(ThreadLocalRandom.current().nextLong(1, urls + 1));
+  }
+}
@@ -0,0 +1,84 @@
+package io.github.korzepadawid.urlshortener.benchmarks;
+
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.storage.UrlLog;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookups and appends of the embedded url log, to compare with the JPA storage's repository
+ * timings ({@code spring_data_repository_invocations_seconds}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UrlLogBenchmark {
+
+  @Param({"100000"})
+  private int urls;
+
+  @Param({"false", "true"})
+  private boolean syncWrites;
+
+  private final AtomicLong appended = new AtomicLong();
+  private Path directory;
+  private UrlLog urlLog;
+
+  @Setup
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("url-log");
+    urlLog = UrlLog.open(directory, 64L * 1024 * 1024, syncWrites);
+    for (int i = 0; i < urls; i++) {
+      urlLog.put(newUrl("https://www.nytimes.com/section/" + i));
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    urlLog.close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public Optional<Url> get() {
+    return urlLog.get(ThreadLocalRandom.current().nextLong(1, urls + 1));
+  }
+
+  @Benchmark
+  public boolean put() {
+    return urlLog.put(newUrl("https://www.nytimes.com/new/" + appended.incrementAndGet()));
+  }
+
+  private static Url newUrl(String address) {
+    return Url.builder()
+        .url(address)
+        .createdAt(LocalDateTime.now())
+        .dedupKey(Url.dedupKeyOf(address, null, null))
+        .build();
+  }
+}
@@ -0,0 +1,48 @@
+package io.github.korzepadawid.urlshortener.benchmarks;
+
+import io.github.korzepadawid.urlshortener.api.v1.mappers.UrlMapper;
+import io.github.korzepadawid.urlshortener.api.v1.mappers.UrlMapperImpl;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.services.Base62ServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UrlMapperBenchmark {
+
+  private UrlMapper urlMapper;
+  private Url url;
+
+  @Setup
+  public void setUp() {
+    urlMapper = new UrlMapperImpl(new Base62ServiceImpl(new SimpleMeterRegistry()));
+    url = Url.builder()
+        .id(13943437364L)
+        .url("https://www.nytimes.com/")
+        .createdAt(LocalDateTime.now())
+        .expiringAt(LocalDateTime.now().plusYears(1))
+        .build();
+  }
+
+  @Benchmark
+  public UrlReadDto convertUrlToUrlReadDto() {
+    return urlMapper.convertUrlToUrlReadDto(url);
+  }
+}
@@ -0,0 +1,45 @@
+package io.github.korzepadawid.urlshortener.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.config.JacksonDateTimeConfig;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UrlReadDtoSerializationBenchmark {
+
+  private ObjectMapper objectMapper;
+  private UrlReadDto urlReadDto;
+
+  @Setup
+  public void setUp() {
+    objectMapper = new ObjectMapper().registerModule(new JacksonDateTimeConfig().module());
+    urlReadDto = UrlReadDto.builder()
+        .shortUrl("/fdDf12")
+        .longUrl("https://www.nytimes.com/")
+        .expiringAt(LocalDateTime.now().plusYears(1))
+        .build();
+  }
+
+  @Benchmark
+  public byte[] writeValueAsBytes() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(urlReadDto);
+  }
+}
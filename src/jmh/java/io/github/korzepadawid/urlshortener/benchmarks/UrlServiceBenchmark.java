@@ -0,0 +1,97 @@
+package io.github.korzepadawid.urlshortener.benchmarks;
+
+import io.github.korzepadawid.urlshortener.api.v1.mappers.UrlMapperImpl;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.caches.LinkIndex;
+import io.github.korzepadawid.urlshortener.caches.LiveUrlFilter;
+import io.github.korzepadawid.urlshortener.caches.UrlCache;
+import io.github.korzepadawid.urlshortener.config.LinkIndexProperties;
+import io.github.korzepadawid.urlshortener.config.LiveUrlFilterProperties;
+import io.github.korzepadawid.urlshortener.config.UrlCacheProperties;
+import io.github.korzepadawid.urlshortener.config.UrlExpiryProperties;
+import io.github.korzepadawid.urlshortener.config.UrlReplicaProperties;
+import io.github.korzepadawid.urlshortener.config.UrlSnapshotProperties;
+import io.github.korzepadawid.urlshortener.config.WriteBehindProperties;
+import io.github.korzepadawid.urlshortener.expiry.UrlExpiryTracker;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.replicas.ReplicaRouting;
+import io.github.korzepadawid.urlshortener.services.Base62Service;
+import io.github.korzepadawid.urlshortener.services.Base62ServiceImpl;
+import io.github.korzepadawid.urlshortener.services.UrlLookup;
+import io.github.korzepadawid.urlshortener.services.UrlService;
+import io.github.korzepadawid.urlshortener.services.UrlServiceImpl;
+import io.github.korzepadawid.urlshortener.snapshots.UrlSnapshots;
+import io.github.korzepadawid.urlshortener.storage.UrlStoreIdentity;
+import io.github.korzepadawid.urlshortener.writebehind.UrlWriteBehind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UrlServiceBenchmark {
+
+  @Param({"true", "false"})
+  private boolean cached;
+
+  private UrlService urlService;
+  private String encodedId;
+
+  @Setup
+  public void setUp() {
+    UrlCacheProperties cacheProperties = new UrlCacheProperties();
+    if (!cached) {
+      cacheProperties.setMaximumSize(DataSize.ofBytes(0));
+    }
+
+    Base62Service base62Service = new Base62ServiceImpl(new SimpleMeterRegistry());
+    InMemoryUrlRepository urlRepository = new InMemoryUrlRepository();
+    UrlCache urlCache = new UrlCache(cacheProperties);
+    UrlExpiryTracker urlExpiryTracker = new UrlExpiryTracker(urlCache, new UrlExpiryProperties());
+    UrlWriteBehind urlWriteBehind =
+        new UrlWriteBehind(null, null, urlRepository, null, null, new WriteBehindProperties());
+    urlService = new UrlServiceImpl(urlRepository, base62Service,
+        new UrlMapperImpl(base62Service), urlExpiryTracker,
+        new UrlLookup(urlCache, urlExpiryTracker,
+            new LiveUrlFilter(new LiveUrlFilterProperties()),
+            new UrlSnapshots(urlRepository, new UrlSnapshotProperties(),
+                new UrlStoreIdentity(urlRepository)),
+            new LinkIndex(urlRepository, new LinkIndexProperties()),
+            urlWriteBehind),
+        urlWriteBehind,
+        new ReplicaRouting(new UrlReplicaProperties()));
+
+    Url url = urlRepository.save(Url.builder()
+        .url("https://www.nytimes.com/")
+        .expiringAt(LocalDateTime.now().plusYears(1))
+        .build());
+    encodedId = base62Service.encode(url.getId().longValue());
+  }
+
+  @Benchmark
+  public UrlReadDto getUrl() {
+    return urlService.getUrl(encodedId);
+  }
+
+  @Benchmark
+  public Optional<Url> findRedirectUrl() {
+    return urlService.findRedirectUrl(encodedId);
+  }
+}
@@ -0,0 +1,75 @@
+package io.github.korzepadawid.urlshortener.api.v1.controllers;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.config.RedirectProperties;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import javax.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * {@code Cache-Control} and {@code Expires} headers of redirects and url lookups. Urls don't
+ * change once created, so responses stay fresh until the url expires: permanent redirects of
+ * urls which never expire for {@code permanent-max-age}, everything else for at most
+ * {@code max-age}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheHeaders {
+
+  private final RedirectProperties redirectProperties;
+
+  public void write(HttpServletResponse response, boolean permanent, LocalDateTime expiringAt) {
+    Duration maxAge = maxAge(permanent, expiringAt);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(maxAge).getHeaderValue());
+    response.setDateHeader(HttpHeaders.EXPIRES, System.currentTimeMillis() + maxAge.toMillis());
+  }
+
+  public <B extends ResponseEntity.HeadersBuilder<B>> B apply(B builder, boolean permanent,
+      LocalDateTime expiringAt) {
+    Duration maxAge = maxAge(permanent, expiringAt);
+    return builder.cacheControl(cacheControl(maxAge))
+        .headers(headers -> headers.setExpires(System.currentTimeMillis() + maxAge.toMillis()));
+  }
+
+  /**
+   * Spring answers {@code 304 Not Modified} on its own when the request's
+   * {@code If-None-Match} matches the tag of the url.
+   */
+  public ResponseEntity<Object> entity(UrlReadDto urlReadDto) {
+    return apply(ResponseEntity.ok(), false, urlReadDto.getExpiringAt())
+        .eTag(eTag(urlReadDto))
+        .body(urlReadDto);
+  }
+
+  static String eTag(UrlReadDto urlReadDto) {
+    String representation = urlReadDto.getLongUrl() + '\n' + urlReadDto.getShortUrl() + '\n'
+        + urlReadDto.getExpiringAt() + '\n' + urlReadDto.getRedirectType();
+    return '"' + DigestUtils.md5DigestAsHex(representation.getBytes(StandardCharsets.UTF_8))
+        + '"';
+  }
+
+  Duration maxAge(boolean permanent, LocalDateTime expiringAt) {
+    Duration maxAge = permanent
+        ? redirectProperties.getPermanentMaxAge()
+        : redirectProperties.getMaxAge();
+    if (expiringAt == null) {
+      return maxAge;
+    }
+    Duration untilExpiry = Duration.between(LocalDateTime.now(), expiringAt);
+    if (untilExpiry.isNegative()) {
+      return Duration.ZERO;
+    }
+    return untilExpiry.compareTo(maxAge) < 0 ? untilExpiry : maxAge;
+  }
+
+  private static CacheControl cacheControl(Duration maxAge) {
+    return CacheControl.maxAge(maxAge).cachePublic();
+  }
+}
@@ -0,0 +1,32 @@
+package io.github.korzepadawid.urlshortener.api.v1.controllers;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.HotLinkReadDto;
+import io.github.korzepadawid.urlshortener.services.HotLinkService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Kept apart from {@link UrlController}, under its path the listing would shadow a short code.
+ * Served by both the servlet and the reactive stack.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(HotLinkController.BASE_URL)
+public class HotLinkController {
+
+  public static final String BASE_URL = "/api/v1/hot-links";
+
+  private final HotLinkService hotLinkService;
+
+  @GetMapping
+  @ResponseStatus(HttpStatus.OK)
+  public List<HotLinkReadDto> getTop(@RequestParam(defaultValue = "10") int limit) {
+    return hotLinkService.getTopLinks(limit);
+  }
+}
@@ -1,9 +1,20 @@
 package io.github.korzepadawid.urlshortener.api.v1.controllers;
 
-import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.clicks.ClickTracker;
+import io.github.korzepadawid.urlshortener.config.RedirectProperties;
+import io.github.korzepadawid.urlshortener.hotlinks.HotLinkTracker;
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
 import io.github.korzepadawid.urlshortener.services.UrlService;
+import io.micrometer.core.annotation.Timed;
+import java.io.IOException;
+import java.util.Optional;
+import javax.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,18 +23,42 @@ import org.springframework.web.bind.annotation.RequestMapping;
 @Slf4j
 @RequiredArgsConstructor
 @Controller
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequestMapping(IndexController.BASE_URL)
 public class IndexController {
 
   public static final String BASE_URL = "";
 
   private final UrlService urlService;
+  private final RedirectProperties redirectProperties;
+  private final ClickTracker clickTracker;
+  private final HotLinkTracker hotLinkTracker;
+  private final NotFoundResponses notFoundResponses;
+  private final CacheHeaders cacheHeaders;
 
+  /**
+   * Writes the status, {@code Location} and cache headers directly, skipping DTO mapping and view
+   * resolution.
+   */
+  @Timed(value = "urlshortener.redirect", percentiles = {0.5, 0.95, 0.99}, histogram = true)
   @GetMapping("/{encodedId}")
-  public String redirectToOriginalUrl(@PathVariable String encodedId) {
-    UrlReadDto urlReadDto = urlService.getUrl(encodedId);
-    String originalUrl = urlReadDto.getLongUrl();
-    log.info("Redirecting to " + originalUrl);
-    return "redirect:" + originalUrl;
+  public void redirectToOriginalUrl(@PathVariable String encodedId,
+      HttpServletResponse response) throws IOException {
+    Optional<Url> optionalUrl = urlService.findRedirectUrl(encodedId);
+    if (optionalUrl.isEmpty()) {
+      notFoundResponses.write(response, encodedId);
+      return;
+    }
+
+    Url url = optionalUrl.get();
+    RedirectType redirectType = url.getRedirectType() != null
+        ? url.getRedirectType()
+        : redirectProperties.getDefaultType();
+    clickTracker.record(url.getId());
+    hotLinkTracker.record(url.getId());
+    log.debug("Redirecting to {}", url.getUrl());
+    response.setStatus(redirectType.getStatus());
+    response.setHeader(HttpHeaders.LOCATION, url.getUrl());
+    cacheHeaders.write(response, redirectType.isPermanent(), url.getExpiringAt());
   }
 }
@@ -0,0 +1,119 @@
+package io.github.korzepadawid.urlshortener.api.v1.controllers;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.RestException;
+import io.github.korzepadawid.urlshortener.config.JacksonDateTimeConfig;
+import io.github.korzepadawid.urlshortener.logging.RateLimitedLog;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the {@link RestException} body of an unknown short code from preserialized parts. Only
+ * the escaped code and a date cached per second are filled in, so misses stay cheaper than hits.
+ */
+@Slf4j
+@Component
+public class NotFoundResponses {
+
+  private static final byte[] MESSAGE_PREFIX =
+      "{\"message\":\"Invalid encoded id: ".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] MESSAGE_SUFFIX =
+      (". Url not found.\",\"status\":" + HttpStatus.NOT_FOUND.value() + ",\"date\":\"")
+          .getBytes(StandardCharsets.UTF_8);
+  private static final byte[] BODY_SUFFIX = "\",\"details\":null}".getBytes(StandardCharsets.UTF_8);
+  private static final DateTimeFormatter DATE_FORMATTER =
+      DateTimeFormatter.ofPattern(JacksonDateTimeConfig.DATE_PATTERN);
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final RateLimitedLog notFoundLog = new RateLimitedLog(10, Duration.ofSeconds(10));
+
+  private volatile CachedDate cachedDate = new CachedDate(Long.MIN_VALUE, new byte[0]);
+
+  public void write(HttpServletResponse response, String encodedId) throws IOException {
+    byte[] body = body(encodedId);
+    response.setStatus(HttpStatus.NOT_FOUND.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  public ResponseEntity<Object> entity(String encodedId) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(body(encodedId));
+  }
+
+  byte[] body(String encodedId) {
+    if (notFoundLog.tryAcquire()) {
+      log.info("Invalid encoded id: {}. Url not found. ({} similar messages suppressed)",
+          encodedId, notFoundLog.drainSuppressed());
+    }
+
+    byte[] date = currentDate();
+    ByteArrayOutputStream body = new ByteArrayOutputStream(
+        MESSAGE_PREFIX.length + encodedId.length() + MESSAGE_SUFFIX.length + date.length
+            + BODY_SUFFIX.length);
+    body.writeBytes(MESSAGE_PREFIX);
+    body.writeBytes(escape(encodedId).getBytes(StandardCharsets.UTF_8));
+    body.writeBytes(MESSAGE_SUFFIX);
+    body.writeBytes(date);
+    body.writeBytes(BODY_SUFFIX);
+    return body.toByteArray();
+  }
+
+  private byte[] currentDate() {
+    long epochSecond = System.currentTimeMillis() / 1000;
+    CachedDate current = cachedDate;
+    if (current.epochSecond != epochSecond) {
+      byte[] formatted = DATE_FORMATTER.format(LocalDateTime.now())
+          .getBytes(StandardCharsets.UTF_8);
+      current = new CachedDate(epochSecond, formatted);
+      cachedDate = current;
+    }
+    return current.formatted;
+  }
+
+  static String escape(String string) {
+    StringBuilder escaped = null;
+    for (int i = 0; i < string.length(); i++) {
+      char character = string.charAt(i);
+      if (character != '"' && character != '\\' && character >= 0x20) {
+        if (escaped != null) {
+          escaped.append(character);
+        }
+        continue;
+      }
+      if (escaped == null) {
+        escaped = new StringBuilder(string.length() + 8).append(string, 0, i);
+      }
+      if (character == '"' || character == '\\') {
+        escaped.append('\\').append(character);
+      } else {
+        escaped.append("\\u00")
+            .append(HEX_DIGITS[character >> 4])
+            .append(HEX_DIGITS[character & 0xf]);
+      }
+    }
+    return escaped == null ? string : escaped.toString();
+  }
+
+  private static class CachedDate {
+
+    private final long epochSecond;
+    private final byte[] formatted;
+
+    private CachedDate(long epochSecond, byte[] formatted) {
+      this.epochSecond = epochSecond;
+      this.formatted = formatted;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package io.github.korzepadawid.urlshortener.api.v1.controllers;
+
+import io.github.korzepadawid.urlshortener.clicks.ClickTracker;
+import io.github.korzepadawid.urlshortener.config.RedirectProperties;
+import io.github.korzepadawid.urlshortener.hotlinks.HotLinkTracker;
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.services.ReactiveUrlService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link IndexController}, active in the reactive profile.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Controller
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@RequestMapping(IndexController.BASE_URL)
+public class ReactiveIndexController {
+
+  private final ReactiveUrlService reactiveUrlService;
+  private final RedirectProperties redirectProperties;
+  private final ClickTracker clickTracker;
+  private final HotLinkTracker hotLinkTracker;
+  private final NotFoundResponses notFoundResponses;
+  private final CacheHeaders cacheHeaders;
+
+  @Timed(value = "urlshortener.redirect", percentiles = {0.5, 0.95, 0.99}, histogram = true)
+  @GetMapping("/{encodedId}")
+  public Mono<ResponseEntity<Object>> redirectToOriginalUrl(@PathVariable String encodedId) {
+    return reactiveUrlService.findRedirectUrl(encodedId)
+        .map(this::redirect)
+        .switchIfEmpty(Mono.fromSupplier(() -> notFoundResponses.entity(encodedId)));
+  }
+
+  private ResponseEntity<Object> redirect(Url url) {
+    RedirectType redirectType = url.getRedirectType() != null
+        ? url.getRedirectType()
+        : redirectProperties.getDefaultType();
+    clickTracker.record(url.getId());
+    hotLinkTracker.record(url.getId());
+    log.debug("Redirecting to {}", url.getUrl());
+    return cacheHeaders.apply(ResponseEntity.status(redirectType.getStatus()),
+            redirectType.isPermanent(), url.getExpiringAt())
+        .header(HttpHeaders.LOCATION, url.getUrl())
+        .build();
+  }
+}
@@ -0,0 +1,61 @@
+package io.github.korzepadawid.urlshortener.api.v1.controllers;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.ClickCountReadDto;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
+import io.github.korzepadawid.urlshortener.services.ClickService;
+import io.github.korzepadawid.urlshortener.services.ReactiveUrlService;
+import io.micrometer.core.annotation.Timed;
+import javax.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux counterpart of {@link UrlController}, active in the reactive profile. The NDJSON batch
+ * import is only served by the servlet stack.
+ */
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@RequestMapping(UrlController.BASE_URL)
+public class ReactiveUrlController {
+
+  private final ReactiveUrlService reactiveUrlService;
+  private final ClickService clickService;
+  private final NotFoundResponses notFoundResponses;
+  private final CacheHeaders cacheHeaders;
+
+  @Timed(value = "urlshortener.create", percentiles = {0.5, 0.95, 0.99}, histogram = true)
+  @PostMapping
+  @ResponseStatus(HttpStatus.CREATED)
+  public Mono<UrlReadDto> createNew(@Valid @RequestBody UrlWriteDto urlWriteDto) {
+    return reactiveUrlService.createUrl(urlWriteDto);
+  }
+
+  @Timed(value = "urlshortener.get", percentiles = {0.5, 0.95, 0.99}, histogram = true)
+  @GetMapping("/{encodedId}")
+  public Mono<ResponseEntity<Object>> getOne(@PathVariable String encodedId) {
+    return reactiveUrlService.findUrl(encodedId)
+        .map(cacheHeaders::entity)
+        .switchIfEmpty(Mono.fromSupplier(() -> notFoundResponses.entity(encodedId)));
+  }
+
+  @GetMapping("/{encodedId}/clicks")
+  @ResponseStatus(HttpStatus.OK)
+  public Mono<ClickCountReadDto> getClicks(@PathVariable String encodedId) {
+    return Mono.fromCallable(() -> clickService.getClicks(encodedId))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+}
@@ -2,24 +2,37 @@ package io.github.korzepadawid.urlshortener.api.v1.controllers;
 
 import io.github.korzepadawid.urlshortener.api.v1.models.RestException;
 import io.github.korzepadawid.urlshortener.exceptions.ResourceNotFoundException;
+import io.github.korzepadawid.urlshortener.logging.RateLimitedLog;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.codec.DecodingException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
 
 @Slf4j
 @ControllerAdvice
 public class RestControllerExceptionHandler {
 
+  private final RateLimitedLog notFoundLog = new RateLimitedLog(10, Duration.ofSeconds(10));
+  private final RateLimitedLog validationLog = new RateLimitedLog(10, Duration.ofSeconds(10));
+  private final RateLimitedLog parseLog = new RateLimitedLog(10, Duration.ofSeconds(10));
+
   @ExceptionHandler(ResourceNotFoundException.class)
   public ResponseEntity<Object> handleResourceNotFound(ResourceNotFoundException exception) {
-    log.error(exception.getLocalizedMessage());
+    if (notFoundLog.tryAcquire()) {
+      log.info("{} ({} similar messages suppressed)", exception.getLocalizedMessage(),
+          notFoundLog.drainSuppressed());
+    }
 
     HttpStatus httpStatus = HttpStatus.NOT_FOUND;
     RestException restException = new RestException(exception.getLocalizedMessage(),
@@ -30,11 +43,46 @@ public class RestControllerExceptionHandler {
 
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<Object> handleValidationErrors(MethodArgumentNotValidException exception) {
-    log.error("Validation error.");
+    return validationError(exception.getBindingResult());
+  }
+
+  @ExceptionHandler(WebExchangeBindException.class)
+  public ResponseEntity<Object> handleValidationErrors(WebExchangeBindException exception) {
+    return validationError(exception.getBindingResult());
+  }
+
+  @ExceptionHandler(HttpMessageNotReadableException.class)
+  public ResponseEntity<Object> handleHttpMessageNotReadable(
+      HttpMessageNotReadableException exception) {
+    return parseError();
+  }
+
+  /**
+   * WebFlux reports unreadable bodies and bad request parameters alike, only the former are
+   * parse errors.
+   */
+  @ExceptionHandler(ServerWebInputException.class)
+  public ResponseEntity<Object> handleServerWebInput(ServerWebInputException exception) {
+    if (exception.getCause() instanceof DecodingException) {
+      return parseError();
+    }
+
+    HttpStatus httpStatus = exception.getStatus();
+    RestException restException = new RestException(exception.getReason(),
+        httpStatus.value(), null);
+
+    return new ResponseEntity<>(restException, httpStatus);
+  }
+
+  private ResponseEntity<Object> validationError(BindingResult bindingResult) {
+    if (validationLog.tryAcquire()) {
+      log.warn("Validation error. ({} similar messages suppressed)",
+          validationLog.drainSuppressed());
+    }
 
     Map<String, String> errors = new HashMap<>();
 
-    exception.getBindingResult()
+    bindingResult
         .getAllErrors()
         .forEach(error -> errors.put(((FieldError) error).getField(), error.getDefaultMessage()));
 
@@ -45,10 +93,10 @@ public class RestControllerExceptionHandler {
     return new ResponseEntity<>(restException, httpStatus);
   }
 
-  @ExceptionHandler(HttpMessageNotReadableException.class)
-  public ResponseEntity<Object> handleHttpMessageNotReadable(
-      HttpMessageNotReadableException exception) {
-    log.error("JSON Parse error.");
+  private ResponseEntity<Object> parseError() {
+    if (parseLog.tryAcquire()) {
+      log.warn("JSON Parse error. ({} similar messages suppressed)", parseLog.drainSuppressed());
+    }
 
     HttpStatus httpStatus = HttpStatus.BAD_REQUEST;
     RestException restException = new RestException("JSON Parse error.",
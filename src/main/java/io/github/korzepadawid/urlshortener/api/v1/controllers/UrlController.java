@@ -1,11 +1,22 @@
 package io.github.korzepadawid.urlshortener.api.v1.controllers;
 
+import io.github.korzepadawid.urlshortener.api.v1.models.ClickCountReadDto;
 import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
 import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
+import io.github.korzepadawid.urlshortener.services.ClickService;
+import io.github.korzepadawid.urlshortener.services.UrlBatchService;
 import io.github.korzepadawid.urlshortener.services.UrlService;
+import io.micrometer.core.annotation.Timed;
+import java.io.IOException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,22 +27,46 @@ import org.springframework.web.bind.annotation.RestController;
 
 @RequiredArgsConstructor
 @RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequestMapping(UrlController.BASE_URL)
 public class UrlController {
 
   public static final String BASE_URL = "/api/v1/urls";
 
   private final UrlService urlService;
+  private final UrlBatchService urlBatchService;
+  private final ClickService clickService;
+  private final NotFoundResponses notFoundResponses;
+  private final CacheHeaders cacheHeaders;
 
+  @Timed(value = "urlshortener.create", percentiles = {0.5, 0.95, 0.99}, histogram = true)
   @PostMapping
   @ResponseStatus(HttpStatus.CREATED)
   public UrlReadDto createNew(@Valid @RequestBody UrlWriteDto urlWriteDto) {
     return urlService.createUrl(urlWriteDto);
   }
 
+  @PostMapping(path = "/batch",
+      consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public void createNewBatch(HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    urlBatchService.createUrls(request.getInputStream(), response.getOutputStream());
+  }
+
+  @Timed(value = "urlshortener.get", percentiles = {0.5, 0.95, 0.99}, histogram = true)
   @GetMapping("/{encodedId}")
+  public ResponseEntity<Object> getOne(@PathVariable String encodedId) {
+    return urlService.findUrl(encodedId)
+        .map(cacheHeaders::entity)
+        .orElseGet(() -> notFoundResponses.entity(encodedId));
+  }
+
+  @GetMapping("/{encodedId}/clicks")
   @ResponseStatus(HttpStatus.OK)
-  public UrlReadDto getOne(@PathVariable String encodedId) {
-    return urlService.getUrl(encodedId);
+  public ClickCountReadDto getClicks(@PathVariable String encodedId) {
+    return clickService.getClicks(encodedId);
   }
 }
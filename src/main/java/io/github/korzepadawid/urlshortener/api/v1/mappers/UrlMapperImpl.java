@@ -21,6 +21,7 @@ public class UrlMapperImpl implements UrlMapper {
     return Url.builder()
         .url(urlWriteDto.getUrl())
         .expiringAt(urlWriteDto.getExpiringAt())
+        .redirectType(urlWriteDto.getRedirectType())
         .build();
   }
 
@@ -30,9 +31,10 @@ public class UrlMapperImpl implements UrlMapper {
       return null;
     }
     return UrlReadDto.builder()
-        .shortUrl("/" + base62Service.encode(url.getId()))
+        .shortUrl("/" + base62Service.encode(url.getId().longValue()))
         .longUrl(url.getUrl())
         .expiringAt(url.getExpiringAt())
+        .redirectType(url.getRedirectType())
         .build();
   }
 }
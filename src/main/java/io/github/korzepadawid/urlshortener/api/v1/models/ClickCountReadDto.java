@@ -0,0 +1,16 @@
+package io.github.korzepadawid.urlshortener.api.v1.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+public class ClickCountReadDto {
+
+  private String shortUrl;
+  private long clicks;
+}
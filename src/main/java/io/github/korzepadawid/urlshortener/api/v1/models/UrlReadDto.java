@@ -1,5 +1,6 @@
 package io.github.korzepadawid.urlshortener.api.v1.models;
 
+import io.github.korzepadawid.urlshortener.models.RedirectType;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,4 +16,6 @@ public class UrlReadDto {
   private String longUrl;
   private String shortUrl;
   private LocalDateTime expiringAt;
+
+  private RedirectType redirectType;
 }
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import io.github.korzepadawid.urlshortener.models.RedirectType;
 import java.time.LocalDateTime;
 import javax.validation.constraints.Future;
 import javax.validation.constraints.NotBlank;
@@ -30,4 +31,6 @@ public class UrlWriteDto {
 
   @Future(message = "The expiring date must be from the future.")
   private LocalDateTime expiringAt;
+
+  private RedirectType redirectType;
 }
@@ -0,0 +1,111 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import io.github.korzepadawid.urlshortener.config.LinkIndexProperties;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Every live url held in a {@link LongLinkMap}, loaded from the database and kept up to date with
+ * urls committed by this node. Unlike {@link UrlCache} nothing is evicted, memory grows with the
+ * number of links at a fixed cost per entry.
+ */
+@Slf4j
+@Component
+public class LinkIndex {
+
+  private final UrlRepository urlRepository;
+  private final LinkIndexProperties linkIndexProperties;
+
+  private volatile LongLinkMap links;
+  private LongLinkMap rebuilding;
+
+  public LinkIndex(UrlRepository urlRepository, LinkIndexProperties linkIndexProperties) {
+    this.urlRepository = urlRepository;
+    this.linkIndexProperties = linkIndexProperties;
+    if (linkIndexProperties.isEnabled()) {
+      this.links = newMap();
+    }
+  }
+
+  public Optional<Url> find(long id) {
+    LongLinkMap current = links;
+    return current == null ? Optional.empty() : current.get(id);
+  }
+
+  public synchronized void add(Url url) {
+    if (links == null) {
+      return;
+    }
+    links.put(url);
+    if (rebuilding != null) {
+      rebuilding.put(url);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${url-shortener.link-index.rebuild-interval-millis:3600000}")
+  public void rebuild() {
+    if (!linkIndexProperties.isEnabled()) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    LongLinkMap map = newMap();
+    synchronized (this) {
+      rebuilding = map;
+    }
+
+    int pageSize = linkIndexProperties.getRebuildPageSize();
+    LocalDateTime now = LocalDateTime.now();
+    long watermark = -1;
+
+    try {
+      List<Url> urls;
+      do {
+        urls = urlRepository.findLiveUrlsAfter(watermark, now, PageRequest.of(0, pageSize));
+        synchronized (this) {
+          urls.forEach(map::put);
+        }
+        if (!urls.isEmpty()) {
+          watermark = urls.get(urls.size() - 1).getId();
+        }
+      } while (urls.size() == pageSize);
+    } catch (DataAccessException exception) {
+      synchronized (this) {
+        rebuilding = null;
+      }
+      log.warn("Could not rebuild the link index, keeping the previous one.", exception);
+      return;
+    }
+
+    synchronized (this) {
+      links = map;
+      rebuilding = null;
+    }
+
+    log.info("Rebuilt the link index with {} urls ({} bytes off-heap) in {} ms.", map.size(),
+        map.offHeapBytes(), (System.nanoTime() - start) / 1_000_000);
+  }
+
+  public int getIndexedUrls() {
+    LongLinkMap current = links;
+    return current == null ? 0 : current.size();
+  }
+
+  public long getOffHeapBytes() {
+    LongLinkMap current = links;
+    return current == null ? 0 : current.offHeapBytes();
+  }
+
+  private LongLinkMap newMap() {
+    return new LongLinkMap(linkIndexProperties.getExpectedUrls(),
+        (int) linkIndexProperties.getSlabChunkSize().toBytes());
+  }
+}
@@ -0,0 +1,34 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import io.github.korzepadawid.urlshortener.models.Url;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adds urls persisted by this node to the {@link LinkIndex} once their transaction has committed,
+ * a rolled back url must never be served.
+ */
+@Component
+public class LinkIndexListener {
+
+  private final LinkIndex linkIndex;
+
+  public LinkIndexListener(@Lazy LinkIndex linkIndex) {
+    this.linkIndex = linkIndex;
+  }
+
+  public void urlPersisted(Url url) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      linkIndex.add(url);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        linkIndex.add(url);
+      }
+    });
+  }
+}
@@ -0,0 +1,66 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.korzepadawid.urlshortener.config.LiveUrlFilterProperties;
+import io.github.korzepadawid.urlshortener.ids.SnowflakeIds;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells which ids can't belong to a live url without asking the database. Any id the id source
+ * has handed out may still be committed, by a node holding its block or retrying its write-behind
+ * queue, so only ids nobody can have been given yet are rejected outright: snowflake ids stamped
+ * further ahead than the clock skew allows. Ids the database turned out not to have are remembered
+ * for a short while, until this node persists them.
+ */
+@Component
+public class LiveUrlFilter {
+
+  private final LiveUrlFilterProperties liveUrlFilterProperties;
+  private final Cache<Long, Boolean> missingIds;
+  private final SnowflakeIds snowflakeIds;
+
+  public LiveUrlFilter(LiveUrlFilterProperties liveUrlFilterProperties) {
+    this(liveUrlFilterProperties, (SnowflakeIds) null);
+  }
+
+  @Autowired
+  public LiveUrlFilter(LiveUrlFilterProperties liveUrlFilterProperties,
+      ObjectProvider<SnowflakeIds> snowflakeIds) {
+    this(liveUrlFilterProperties, snowflakeIds.getIfAvailable());
+  }
+
+  LiveUrlFilter(LiveUrlFilterProperties liveUrlFilterProperties, SnowflakeIds snowflakeIds) {
+    this.liveUrlFilterProperties = liveUrlFilterProperties;
+    this.snowflakeIds = snowflakeIds;
+    this.missingIds = Caffeine.newBuilder()
+        .maximumSize(liveUrlFilterProperties.getNegativeCacheSize())
+        .expireAfterWrite(liveUrlFilterProperties.getNegativeCacheTtl())
+        .build();
+  }
+
+  /**
+   * False only if the id surely doesn't belong to a live url.
+   */
+  public boolean mightExist(long id) {
+    if (!liveUrlFilterProperties.isEnabled()) {
+      return true;
+    }
+    if (snowflakeIds != null && !snowflakeIds.mayHaveBeenMinted(id)) {
+      return false;
+    }
+    return missingIds.getIfPresent(id) == null;
+  }
+
+  public void markMissing(long id) {
+    if (liveUrlFilterProperties.isEnabled()) {
+      missingIds.put(id, Boolean.TRUE);
+    }
+  }
+
+  public void add(long id) {
+    missingIds.invalidate(id);
+  }
+}
@@ -0,0 +1,24 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import io.github.korzepadawid.urlshortener.models.Url;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells the {@link LiveUrlFilter} about every url persisted by this node, whichever way it was
+ * saved.
+ * Urls inserted through JPA are handed over by a Hibernate listener, see
+ * {@code UrlInsertIntegrator}.
+ */
+@Component
+public class LiveUrlFilterListener {
+
+  private final LiveUrlFilter liveUrlFilter;
+
+  public LiveUrlFilterListener(LiveUrlFilter liveUrlFilter) {
+    this.liveUrlFilter = liveUrlFilter;
+  }
+
+  public void urlPersisted(Url url) {
+    liveUrlFilter.add(url.getId());
+  }
+}
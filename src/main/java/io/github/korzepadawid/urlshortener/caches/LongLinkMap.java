@@ -0,0 +1,263 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing map from positive url ids to links, without a boxed key, entity or node per
+ * entry. Each slot takes three longs: the id, the expiry in epoch seconds and a reference into
+ * an append-only off-heap slab holding the redirect type and the url bytes. Collisions are
+ * resolved with linear probing and removals shift the following entries back, so there are no
+ * tombstones.
+ *
+ * <p>Reads are optimistic and only take the read lock when they raced a write. Space of
+ * overwritten or removed urls stays in the slab until the map is rebuilt.
+ */
+public class LongLinkMap {
+
+  private static final long EMPTY = 0;
+  private static final long NO_EXPIRY = Long.MIN_VALUE;
+  private static final float LOAD_FACTOR = 0.75f;
+  private static final int ENTRY_HEADER_BYTES = Integer.BYTES + 1;
+  private static final RedirectType[] REDIRECT_TYPES = RedirectType.values();
+
+  private final StampedLock lock = new StampedLock();
+  private final int chunkSize;
+
+  private long[] keys;
+  private long[] expiries;
+  private long[] refs;
+  private int size;
+  private int resizeThreshold;
+
+  private ByteBuffer[] chunks = new ByteBuffer[0];
+  private ByteBuffer currentChunk;
+  private long offHeapBytes;
+
+  public LongLinkMap(int expectedEntries, int chunkSize) {
+    this.chunkSize = chunkSize;
+    int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedEntries / LOAD_FACTOR)) - 1)
+        << 1;
+    allocateSlots(capacity);
+  }
+
+  public Optional<Url> get(long id) {
+    long stamp = lock.tryOptimisticRead();
+    Url url = read(id);
+    if (lock.validate(stamp)) {
+      return Optional.ofNullable(url);
+    }
+
+    stamp = lock.readLock();
+    try {
+      return Optional.ofNullable(read(id));
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  public void put(Url url) {
+    long id = url.getId();
+    if (id <= EMPTY) {
+      throw new IllegalArgumentException("Ids have to be positive.");
+    }
+    byte[] urlBytes = url.getUrl().getBytes(StandardCharsets.UTF_8);
+    long expiry = url.getExpiringAt() == null
+        ? NO_EXPIRY
+        : url.getExpiringAt().toEpochSecond(ZoneOffset.UTC);
+    byte redirectType = (byte) (url.getRedirectType() == null
+        ? 0
+        : url.getRedirectType().ordinal() + 1);
+
+    long stamp = lock.writeLock();
+    try {
+      long ref = append(redirectType, urlBytes);
+      int slot = slotOf(id, keys);
+      if (keys[slot] == EMPTY) {
+        if (size >= resizeThreshold) {
+          resize();
+          slot = slotOf(id, keys);
+        }
+        keys[slot] = id;
+        size++;
+      }
+      expiries[slot] = expiry;
+      refs[slot] = ref;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  public void remove(long id) {
+    long stamp = lock.writeLock();
+    try {
+      int slot = slotOf(id, keys);
+      if (keys[slot] == EMPTY) {
+        return;
+      }
+      int mask = keys.length - 1;
+      int next = slot;
+      while (true) {
+        next = (next + 1) & mask;
+        if (keys[next] == EMPTY) {
+          break;
+        }
+        int home = (int) mix(keys[next]) & mask;
+        // Shift back entries whose probe sequence passes through the freed slot.
+        if (((next - home) & mask) >= ((next - slot) & mask)) {
+          keys[slot] = keys[next];
+          expiries[slot] = expiries[next];
+          refs[slot] = refs[next];
+          slot = next;
+        }
+      }
+      keys[slot] = EMPTY;
+      size--;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Direct memory reserved by the slab.
+   */
+  public long offHeapBytes() {
+    return offHeapBytes;
+  }
+
+  /**
+   * Heap taken by the slot arrays.
+   */
+  public long slotBytes() {
+    return 3L * Long.BYTES * keys.length;
+  }
+
+  /**
+   * Never throws, even on state torn by a concurrent write: the optimistic read is discarded
+   * afterwards in that case.
+   */
+  private Url read(long id) {
+    long[] currentKeys = keys;
+    long[] currentExpiries = expiries;
+    long[] currentRefs = refs;
+    ByteBuffer[] currentChunks = chunks;
+    if (currentKeys.length != currentRefs.length
+        || currentKeys.length != currentExpiries.length) {
+      return null;
+    }
+
+    int mask = currentKeys.length - 1;
+    int slot = (int) mix(id) & mask;
+    for (int probes = 0; probes < currentKeys.length; probes++) {
+      long key = currentKeys[slot];
+      if (key == EMPTY) {
+        return null;
+      }
+      if (key == id) {
+        return toUrl(id, currentExpiries[slot], currentRefs[slot], currentChunks);
+      }
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  private static Url toUrl(long id, long expiry, long ref, ByteBuffer[] chunks) {
+    int chunkIndex = (int) (ref >>> 32);
+    int offset = (int) ref;
+    if (chunkIndex < 0 || chunkIndex >= chunks.length || offset < 0) {
+      return null;
+    }
+    ByteBuffer chunk = chunks[chunkIndex];
+    if (offset > chunk.capacity() - ENTRY_HEADER_BYTES) {
+      return null;
+    }
+    int length = chunk.getInt(offset);
+    byte redirectType = chunk.get(offset + Integer.BYTES);
+    int start = offset + ENTRY_HEADER_BYTES;
+    if (length < 0 || length > chunk.capacity() - start
+        || redirectType < 0 || redirectType > REDIRECT_TYPES.length) {
+      return null;
+    }
+
+    byte[] urlBytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      urlBytes[i] = chunk.get(start + i);
+    }
+    return Url.builder()
+        .id(id)
+        .url(new String(urlBytes, StandardCharsets.UTF_8))
+        .expiringAt(expiry == NO_EXPIRY
+            ? null
+            : LocalDateTime.ofEpochSecond(expiry, 0, ZoneOffset.UTC))
+        .redirectType(redirectType == 0 ? null : REDIRECT_TYPES[redirectType - 1])
+        .build();
+  }
+
+  private long append(byte redirectType, byte[] urlBytes) {
+    int entrySize = ENTRY_HEADER_BYTES + urlBytes.length;
+    if (currentChunk == null || currentChunk.remaining() < entrySize) {
+      currentChunk = ByteBuffer.allocateDirect(Math.max(chunkSize, entrySize));
+      ByteBuffer[] grown = new ByteBuffer[chunks.length + 1];
+      System.arraycopy(chunks, 0, grown, 0, chunks.length);
+      grown[chunks.length] = currentChunk;
+      chunks = grown;
+      offHeapBytes += currentChunk.capacity();
+    }
+
+    int offset = currentChunk.position();
+    currentChunk.putInt(urlBytes.length).put(redirectType).put(urlBytes);
+    return ((long) (chunks.length - 1) << 32) | offset;
+  }
+
+  private void resize() {
+    long[] oldKeys = keys;
+    long[] oldExpiries = expiries;
+    long[] oldRefs = refs;
+    allocateSlots(oldKeys.length << 1);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        int slot = slotOf(oldKeys[i], keys);
+        keys[slot] = oldKeys[i];
+        expiries[slot] = oldExpiries[i];
+        refs[slot] = oldRefs[i];
+      }
+    }
+  }
+
+  private void allocateSlots(int capacity) {
+    keys = new long[capacity];
+    expiries = new long[capacity];
+    refs = new long[capacity];
+    resizeThreshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  /**
+   * The slot holding the id, or the empty slot where it belongs.
+   */
+  private static int slotOf(long id, long[] keys) {
+    int mask = keys.length - 1;
+    int slot = (int) mix(id) & mask;
+    while (keys[slot] != EMPTY && keys[slot] != id) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Sequential ids would otherwise fill neighbouring slots and form long probe runs.
+   */
+  private static long mix(long id) {
+    long hash = id * 0x9E3779B97F4A7C15L;
+    return hash ^ (hash >>> 32);
+  }
+}
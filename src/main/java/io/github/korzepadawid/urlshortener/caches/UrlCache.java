@@ -0,0 +1,113 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.github.korzepadawid.urlshortener.config.UrlCacheProperties;
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of live urls keyed by id. Eviction is size-based (estimated bytes) with Caffeine's
+ * W-TinyLFU admission, and every entry expires no later than its url's {@code expiringAt}.
+ */
+@Component
+public class UrlCache {
+
+  private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+  private final Cache<Long, Url> cache;
+  private final Duration timeToLive;
+
+  public UrlCache(UrlCacheProperties properties) {
+    this.timeToLive = properties.getTimeToLive();
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(properties.getMaximumSize().toBytes())
+        .weigher((Long id, Url url) -> estimateSizeInBytes(url))
+        .expireAfter(new UrlExpiry())
+        .recordStats()
+        .build();
+  }
+
+  public Optional<Url> get(Long id) {
+    return Optional.ofNullable(cache.getIfPresent(id));
+  }
+
+  public void put(Url url) {
+    if (url == null || url.getId() == null || remainingNanos(url) <= 0) {
+      return;
+    }
+    cache.put(url.getId(), url);
+  }
+
+  /**
+   * Caches the url unless its id is cached already, e.g. with a fresher copy.
+   */
+  public void putIfAbsent(Url url) {
+    if (url == null || url.getId() == null || remainingNanos(url) <= 0) {
+      return;
+    }
+    cache.asMap().putIfAbsent(url.getId(), url);
+  }
+
+  /**
+   * Up to {@code limit} cached urls, those Caffeine would retain the longest first.
+   */
+  public List<Url> hottest(int limit) {
+    cache.cleanUp();
+    return cache.policy().eviction()
+        .map(eviction -> List.copyOf(eviction.hottest(limit).values()))
+        .orElseGet(List::of);
+  }
+
+  public void invalidate(Long id) {
+    cache.invalidate(id);
+  }
+
+  /**
+   * Hit, miss and eviction counters since startup.
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  static int estimateSizeInBytes(Url url) {
+    int urlLength = url.getUrl() == null ? 0 : url.getUrl().length();
+    return ENTRY_OVERHEAD_BYTES + 2 * urlLength;
+  }
+
+  private long remainingNanos(Url url) {
+    LocalDateTime expiringAt = url.getExpiringAt();
+    if (expiringAt == null) {
+      return timeToLive.toNanos();
+    }
+    Duration untilExpiry = Duration.between(LocalDateTime.now(), expiringAt);
+    if (untilExpiry.isNegative()) {
+      return 0;
+    }
+    return untilExpiry.compareTo(timeToLive) < 0 ? untilExpiry.toNanos() : timeToLive.toNanos();
+  }
+
+  private class UrlExpiry implements Expiry<Long, Url> {
+
+    @Override
+    public long expireAfterCreate(Long id, Url url, long currentTime) {
+      return remainingNanos(url);
+    }
+
+    @Override
+    public long expireAfterUpdate(Long id, Url url, long currentTime, long currentDuration) {
+      return remainingNanos(url);
+    }
+
+    @Override
+    public long expireAfterRead(Long id, Url url, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,223 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import io.github.korzepadawid.urlshortener.config.UrlCacheProperties;
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.storage.UrlStoreIdentity;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the hottest cached urls to a local file on shutdown and caches them again after the next
+ * start, so a deployed node doesn't send all of its traffic to the database at once. The file is
+ * read in the background one url at a time while requests are already served, urls expired in
+ * the meantime are skipped. The file is stamped with the id of the url store, see
+ * {@link UrlStoreIdentity}. One written against another store, e.g. before the in-memory database
+ * was recreated, is ignored. While the id can't be read the urls are restored anyway, and dropped
+ * again should the id turn out to differ.
+ */
+@Slf4j
+@Component
+public class UrlCacheWarmer {
+
+  static final int MAGIC = 0x55524C43;
+  static final int VERSION = 3;
+  private static final long NO_EXPIRY = Long.MIN_VALUE;
+  private static final long CHECK_INTERVAL_MILLIS = 1_000;
+
+  private final UrlCache urlCache;
+  private final UrlStoreIdentity urlStoreIdentity;
+  private final UrlCacheProperties.WarmRestart properties;
+
+  private volatile boolean stopped;
+  private UUID uncheckedStoreId;
+  private List<Long> uncheckedIds;
+
+  public UrlCacheWarmer(UrlCache urlCache, UrlStoreIdentity urlStoreIdentity,
+      UrlCacheProperties urlCacheProperties) {
+    this.urlCache = urlCache;
+    this.urlStoreIdentity = urlStoreIdentity;
+    this.properties = urlCacheProperties.getWarmRestart();
+  }
+
+  @EventListener(ApplicationStartedEvent.class)
+  public void startRestoring() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    Thread thread = new Thread(() -> {
+      restore();
+      try {
+        while (!stopped && !checkRestored()) {
+          Thread.sleep(CHECK_INTERVAL_MILLIS);
+        }
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      }
+    }, "url-cache-warmer");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Caches the urls of the file, hottest first, without replacing ones cached meanwhile.
+   */
+  public int restore() {
+    long start = System.nanoTime();
+    int restored = 0;
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(properties.getPath())))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        log.warn("Ignoring {}, it isn't a cache file of this version.", properties.getPath());
+        return 0;
+      }
+      UUID fileStoreId = new UUID(in.readLong(), in.readLong());
+      Optional<UUID> storeId = urlStoreIdentity.get();
+      if (storeId.isPresent() && !storeId.get().equals(fileStoreId)) {
+        log.warn("Ignoring {}, it was written against another url store.", properties.getPath());
+        return 0;
+      }
+      List<Long> restoredIds = new ArrayList<>();
+      if (storeId.isEmpty()) {
+        uncheckedStoreId = fileStoreId;
+        uncheckedIds = restoredIds;
+      }
+      LocalDateTime now = LocalDateTime.now();
+      for (int read = 0; read < properties.getMaxUrls() && !stopped; read++) {
+        Url url = readUrl(in);
+        if (url == null) {
+          break;
+        }
+        if (url.getExpiringAt() == null || url.getExpiringAt().isAfter(now)) {
+          urlCache.putIfAbsent(url);
+          restoredIds.add(url.getId());
+          restored++;
+        }
+      }
+    } catch (NoSuchFileException exception) {
+      return 0;
+    } catch (IOException | RuntimeException exception) {
+      log.warn("Could not read the cache file {}, keeping the {} urls restored so far.",
+          properties.getPath(), restored, exception);
+      return restored;
+    }
+    log.info("Restored {} cached urls in {} ms.", restored,
+        (System.nanoTime() - start) / 1_000_000);
+    return restored;
+  }
+
+  /**
+   * Drops the urls restored before the id of the url store could be read if the file turns out to
+   * have been written against another store. False while the id is still unknown.
+   */
+  boolean checkRestored() {
+    if (uncheckedIds == null) {
+      return true;
+    }
+    Optional<UUID> storeId = urlStoreIdentity.getIfKnown();
+    if (storeId.isEmpty()) {
+      return false;
+    }
+    if (!storeId.get().equals(uncheckedStoreId)) {
+      uncheckedIds.forEach(urlCache::invalidate);
+      log.warn("Dropped the {} urls restored from {}, it was written against another url store.",
+          uncheckedIds.size(), properties.getPath());
+    }
+    uncheckedIds = null;
+    return true;
+  }
+
+  @PreDestroy
+  public void save() {
+    stopped = true;
+    if (!properties.isEnabled()) {
+      return;
+    }
+    Optional<UUID> storeId = urlStoreIdentity.getIfKnown();
+    if (storeId.isEmpty()) {
+      log.warn("Not saving the cached urls, the id of the url store has never been read.");
+      return;
+    }
+    List<Url> urls = urlCache.hottest(properties.getMaxUrls());
+    Path target = properties.getPath().toAbsolutePath();
+    Path file = null;
+    try {
+      Files.createDirectories(target.getParent());
+      file = Files.createTempFile(target.getParent(), "url-cache", ".tmp");
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(file)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(storeId.get().getMostSignificantBits());
+        out.writeLong(storeId.get().getLeastSignificantBits());
+        for (Url url : urls) {
+          writeUrl(out, url);
+        }
+      }
+      Files.move(file, target, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      log.info("Saved {} cached urls to {}.", urls.size(), target);
+    } catch (IOException exception) {
+      log.warn("Could not save the cached urls to {}.", target, exception);
+      try {
+        if (file != null) {
+          Files.deleteIfExists(file);
+        }
+      } catch (IOException ignored) {
+        // Only a leftover temporary file.
+      }
+    }
+  }
+
+  private static void writeUrl(DataOutputStream out, Url url) throws IOException {
+    out.writeLong(url.getId());
+    LocalDateTime expiringAt = url.getExpiringAt();
+    out.writeLong(expiringAt == null ? NO_EXPIRY : expiringAt.toEpochSecond(ZoneOffset.UTC));
+    out.writeInt(expiringAt == null ? 0 : expiringAt.getNano());
+    out.writeByte(url.getRedirectType() == null ? -1 : url.getRedirectType().ordinal());
+    out.writeUTF(url.getUrl());
+  }
+
+  private static Url readUrl(DataInputStream in) throws IOException {
+    long id;
+    try {
+      id = in.readLong();
+    } catch (EOFException exception) {
+      return null;
+    }
+    long expiringAtSeconds = in.readLong();
+    int expiringAtNanos = in.readInt();
+    byte redirectTypeOrdinal = in.readByte();
+    String url = in.readUTF();
+    LocalDateTime expiringAt = expiringAtSeconds == NO_EXPIRY ? null
+        : LocalDateTime.ofEpochSecond(expiringAtSeconds, expiringAtNanos, ZoneOffset.UTC);
+    RedirectType redirectType = redirectTypeOrdinal < 0 ? null
+        : RedirectType.values()[redirectTypeOrdinal];
+    return Url.builder()
+        .id(id)
+        .url(url)
+        .expiringAt(expiringAt)
+        .redirectType(redirectType)
+        .dedupKey(Url.dedupKeyOf(url, expiringAt, redirectType))
+        .build();
+  }
+}
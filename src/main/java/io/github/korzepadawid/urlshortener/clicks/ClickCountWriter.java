@@ -0,0 +1,88 @@
+package io.github.korzepadawid.urlshortener.clicks;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Adds aggregated clicks to the {@code click_count} table with batched upserts: one batch of
+ * increments, then one batch of inserts for urls clicked for the first time.
+ */
+@RequiredArgsConstructor
+@Component
+public class ClickCountWriter {
+
+  private static final String UPDATE_SQL =
+      "update click_count set clicks = clicks + ? where url_id = ?";
+  private static final String INSERT_SQL =
+      "insert into click_count (url_id, clicks) values (?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  public void write(Map<Long, Long> clicksByUrlId) {
+    if (clicksByUrlId.isEmpty()) {
+      return;
+    }
+
+    List<Entry<Long, Long>> counts = new ArrayList<>(clicksByUrlId.entrySet());
+    int[] updatedRows = jdbcTemplate.batchUpdate(UPDATE_SQL, new CountSetter(counts, false));
+
+    List<Entry<Long, Long>> missingCounts = new ArrayList<>();
+    for (int i = 0; i < updatedRows.length; i++) {
+      if (updatedRows[i] == 0) {
+        missingCounts.add(counts.get(i));
+      }
+    }
+    if (missingCounts.isEmpty()) {
+      return;
+    }
+
+    try {
+      transactionTemplate.executeWithoutResult(status ->
+          jdbcTemplate.batchUpdate(INSERT_SQL, new CountSetter(missingCounts, true)));
+    } catch (DuplicateKeyException exception) {
+      // Another consumer inserted some of these rows meanwhile, the batch has been rolled back.
+      missingCounts.forEach(this::upsert);
+    }
+  }
+
+  private void upsert(Entry<Long, Long> count) {
+    if (jdbcTemplate.update(UPDATE_SQL, count.getValue(), count.getKey()) > 0) {
+      return;
+    }
+    try {
+      jdbcTemplate.update(INSERT_SQL, count.getKey(), count.getValue());
+    } catch (DuplicateKeyException exception) {
+      jdbcTemplate.update(UPDATE_SQL, count.getValue(), count.getKey());
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static class CountSetter implements BatchPreparedStatementSetter {
+
+    private final List<Entry<Long, Long>> counts;
+    private final boolean insert;
+
+    @Override
+    public void setValues(PreparedStatement ps, int i) throws SQLException {
+      Entry<Long, Long> count = counts.get(i);
+      ps.setLong(insert ? 1 : 2, count.getKey());
+      ps.setLong(insert ? 2 : 1, count.getValue());
+    }
+
+    @Override
+    public int getBatchSize() {
+      return counts.size();
+    }
+  }
+}
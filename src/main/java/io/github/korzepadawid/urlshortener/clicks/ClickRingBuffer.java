@@ -0,0 +1,86 @@
+package io.github.korzepadawid.urlshortener.clicks;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of url ids. Each slot carries a sequence number telling producers and
+ * consumers whose turn it is, so both sides only ever compete on a single CAS and never block.
+ */
+public class ClickRingBuffer {
+
+  public static final long EMPTY = -1;
+
+  private final int mask;
+  private final long[] ids;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong head = new AtomicLong();
+
+  public ClickRingBuffer(int capacity) {
+    if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two.");
+    }
+    this.mask = capacity - 1;
+    this.ids = new long[capacity];
+    this.sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Returns false instead of waiting when the buffer is full.
+   */
+  public boolean offer(long id) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) (position & mask);
+      long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          ids[index] = id;
+          // The volatile write publishes the id to the consumer reading this sequence.
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Takes the oldest id, or {@link #EMPTY} when there's none.
+   */
+  public long poll() {
+    long position = head.get();
+    while (true) {
+      int index = (int) (position & mask);
+      long difference = sequences.get(index) - (position + 1);
+      if (difference == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          long id = ids[index];
+          sequences.set(index, position + mask + 1);
+          return id;
+        }
+        position = head.get();
+      } else if (difference < 0) {
+        return EMPTY;
+      } else {
+        position = head.get();
+      }
+    }
+  }
+
+  public int size() {
+    return (int) Math.max(0, tail.get() - head.get());
+  }
+
+  public int capacity() {
+    return ids.length;
+  }
+}
@@ -0,0 +1,132 @@
+package io.github.korzepadawid.urlshortener.clicks;
+
+import io.github.korzepadawid.urlshortener.config.ClickTrackingProperties;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts redirects off the request thread. Clicks are published into a {@link ClickRingBuffer},
+ * consumer threads aggregate them per url and flush the counts once enough distinct urls were
+ * clicked or the flush interval has passed. When the buffer is full clicks are dropped, never
+ * waited for.
+ */
+@Slf4j
+@Component
+public class ClickTracker {
+
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final ClickCountWriter clickCountWriter;
+  private final ClickTrackingProperties clickTrackingProperties;
+  private final ClickRingBuffer ringBuffer;
+  private final LongAdder droppedClicks = new LongAdder();
+  private final LongAdder flushedClicks = new LongAdder();
+  private final List<Thread> consumers = new ArrayList<>();
+
+  private volatile boolean running;
+
+  public ClickTracker(ClickCountWriter clickCountWriter,
+      ClickTrackingProperties clickTrackingProperties) {
+    this.clickCountWriter = clickCountWriter;
+    this.clickTrackingProperties = clickTrackingProperties;
+    this.ringBuffer = new ClickRingBuffer(clickTrackingProperties.getBufferCapacity());
+  }
+
+  public void record(long urlId) {
+    if (!ringBuffer.offer(urlId)) {
+      droppedClicks.increment();
+    }
+  }
+
+  @PostConstruct
+  public synchronized void start() {
+    running = true;
+    for (int i = 0; i < clickTrackingProperties.getConsumerThreads(); i++) {
+      Thread consumer = new Thread(this::consume, "click-consumer-" + i);
+      consumer.setDaemon(true);
+      consumer.start();
+      consumers.add(consumer);
+    }
+  }
+
+  /**
+   * Stops the consumers after they've flushed everything published so far.
+   */
+  @PreDestroy
+  public synchronized void stop() throws InterruptedException {
+    running = false;
+    for (Thread consumer : consumers) {
+      consumer.join();
+    }
+    consumers.clear();
+  }
+
+  /**
+   * Clicks lost because the buffer was full or their flush failed.
+   */
+  public long getDroppedClicks() {
+    return droppedClicks.sum();
+  }
+
+  public long getFlushedClicks() {
+    return flushedClicks.sum();
+  }
+
+  public int getBufferedClicks() {
+    return ringBuffer.size();
+  }
+
+  private void consume() {
+    Map<Long, Long> clicksByUrlId = new HashMap<>();
+    long flushIntervalNanos = clickTrackingProperties.getFlushInterval().toNanos();
+    long lastFlushNanos = System.nanoTime();
+
+    while (running) {
+      long urlId = ringBuffer.poll();
+      if (urlId == ClickRingBuffer.EMPTY) {
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      } else {
+        clicksByUrlId.merge(urlId, 1L, Long::sum);
+      }
+
+      boolean flushDue = clicksByUrlId.size() >= clickTrackingProperties.getFlushSize()
+          || System.nanoTime() - lastFlushNanos >= flushIntervalNanos;
+      if (flushDue) {
+        flush(clicksByUrlId);
+        lastFlushNanos = System.nanoTime();
+      }
+    }
+
+    long urlId;
+    while ((urlId = ringBuffer.poll()) != ClickRingBuffer.EMPTY) {
+      clicksByUrlId.merge(urlId, 1L, Long::sum);
+    }
+    flush(clicksByUrlId);
+  }
+
+  private void flush(Map<Long, Long> clicksByUrlId) {
+    if (clicksByUrlId.isEmpty()) {
+      return;
+    }
+
+    long clicks = clicksByUrlId.values().stream().mapToLong(Long::longValue).sum();
+    try {
+      clickCountWriter.write(clicksByUrlId);
+      flushedClicks.add(clicks);
+    } catch (RuntimeException exception) {
+      // Whatever went wrong, the consumer has to keep draining the buffer.
+      droppedClicks.add(clicks);
+      log.warn("Could not flush {} clicks of {} urls", clicks, clicksByUrlId.size(), exception);
+    }
+    clicksByUrlId.clear();
+  }
+}
@@ -0,0 +1,29 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.clicks")
+public class ClickTrackingProperties {
+
+  /**
+   * Clicks waiting for the consumers, must be a power of two. Clicks beyond it are dropped.
+   */
+  private int bufferCapacity = 65_536;
+
+  private int consumerThreads = 1;
+
+  /**
+   * Distinct urls aggregated by a consumer before its counts are flushed.
+   */
+  private int flushSize = 1000;
+
+  /**
+   * Longest time aggregated counts wait for a flush.
+   */
+  private Duration flushInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,30 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.hot-links")
+public class HotLinkProperties {
+
+  /**
+   * Length of a single window, hot links are ranked over the last {@code windows} of them.
+   */
+  private long windowMillis = 10_000;
+
+  private int windows = 6;
+
+  /**
+   * Distinct urls counted exactly within a window, hits of further urls are only totalled.
+   */
+  private int maxKeysPerWindow = 100_000;
+
+  /**
+   * Counters kept for each closed window.
+   */
+  private int summarySize = 1000;
+
+  private int maxLimit = 100;
+}
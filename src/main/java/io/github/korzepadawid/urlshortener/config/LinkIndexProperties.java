@@ -0,0 +1,32 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.link-index")
+public class LinkIndexProperties {
+
+  private boolean enabled = false;
+
+  /**
+   * Urls the slot arrays are sized for up front, they double whenever three quarters are used.
+   */
+  private int expectedUrls = 1_000_000;
+
+  /**
+   * Direct memory allocated at once for url bytes.
+   */
+  private DataSize slabChunkSize = DataSize.ofMegabytes(16);
+
+  /**
+   * How often the index is rebuilt from the database, dropping expired urls and reclaiming slab
+   * space.
+   */
+  private long rebuildIntervalMillis = 3_600_000;
+
+  private int rebuildPageSize = 10_000;
+}
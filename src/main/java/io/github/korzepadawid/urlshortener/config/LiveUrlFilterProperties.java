@@ -0,0 +1,21 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.live-filter")
+public class LiveUrlFilterProperties {
+
+  private boolean enabled = true;
+
+  /**
+   * Ids known to be missing, remembered so they don't reach the database again.
+   */
+  private int negativeCacheSize = 100_000;
+
+  private Duration negativeCacheTtl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,39 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.purge")
+public class PurgeProperties {
+
+  /**
+   * Expired urls deleted per transaction.
+   */
+  private int chunkSize = 1000;
+
+  /**
+   * Upper bound of chunks per run, the rest of the backlog waits for the next run.
+   */
+  private int maxChunksPerRun = 100;
+
+  private Duration pauseBetweenChunks = Duration.ofMillis(50);
+
+  /**
+   * Average request latency above which purging backs off.
+   */
+  private Duration latencyThreshold = Duration.ofMillis(200);
+
+  /**
+   * First back-off pause, doubled on every attempt.
+   */
+  private Duration throttleBackoff = Duration.ofSeconds(1);
+
+  /**
+   * Back-off attempts before the run gives up until the next schedule.
+   */
+  private int throttleAttempts = 3;
+}
@@ -0,0 +1,29 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.redirect")
+public class RedirectProperties {
+
+  /**
+   * Used for urls created without their own redirect type.
+   */
+  private RedirectType defaultType = RedirectType.FOUND;
+
+  /**
+   * How long clients and shared caches may reuse a permanent redirect of a url which never
+   * expires.
+   */
+  private Duration permanentMaxAge = Duration.ofDays(365);
+
+  /**
+   * How long other redirects and url lookups may be reused, never past the url's expiry.
+   */
+  private Duration maxAge = Duration.ofHours(1);
+}
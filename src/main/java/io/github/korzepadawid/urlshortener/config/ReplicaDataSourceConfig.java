@@ -0,0 +1,65 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.korzepadawid.urlshortener.replicas.ReplicaRoutingDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the main datasource with one routing read-only transactions to the replicas of
+ * {@code url-shortener.replicas}. Writes, purges and reads outside of read-only transactions stay
+ * on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "url-shortener.replicas", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+    return dataSourceProperties.initializeDataSourceBuilder()
+        .type(HikariDataSource.class)
+        .build();
+  }
+
+  @Bean
+  public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+      UrlReplicaProperties urlReplicaProperties) {
+    List<UrlReplicaProperties.Replica> databases = urlReplicaProperties.getDatabases();
+    if (databases.isEmpty()) {
+      throw new IllegalStateException(
+          "At least one replica has to be configured in url-shortener.replicas.databases.");
+    }
+    List<HikariDataSource> replicas = new ArrayList<>();
+    for (int i = 0; i < databases.size(); i++) {
+      HikariDataSource replica = DataSourceBuilder.create()
+          .type(HikariDataSource.class)
+          .url(databases.get(i).getUrl())
+          .username(databases.get(i).getUsername())
+          .password(databases.get(i).getPassword())
+          .build();
+      replica.setPoolName("url-replica-" + i);
+      replica.setMaximumPoolSize(databases.get(i).getMaximumPoolSize());
+      replica.setReadOnly(true);
+      replicas.add(replica);
+    }
+    return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+}
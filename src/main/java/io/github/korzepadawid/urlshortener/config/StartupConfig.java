@@ -0,0 +1,38 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import io.github.korzepadawid.urlshortener.UrlShortenerApplication;
+import io.github.korzepadawid.urlshortener.schedulers.DeferredTaskScheduler;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+
+/**
+ * Startup behaviour, see the {@code fast-startup} profile. With
+ * {@code spring.main.lazy-initialization} only the request handlers with their services and the
+ * scheduled jobs (excluded by Boot itself) are created up front, everything else on first use.
+ */
+@Configuration
+public class StartupConfig {
+
+  private static final String BASE_PACKAGE = UrlShortenerApplication.class.getPackageName();
+
+  @Bean
+  public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder taskSchedulerBuilder,
+      StartupProperties startupProperties) {
+    return taskSchedulerBuilder.configure(
+        new DeferredTaskScheduler(startupProperties.getSchedulerDelay()));
+  }
+
+  @Bean
+  public static LazyInitializationExcludeFilter hotPathExcludeFilter() {
+    return (beanName, beanDefinition, beanType) -> beanType != null
+        && beanType.getName().startsWith(BASE_PACKAGE)
+        && (AnnotatedElementUtils.hasAnnotation(beanType, Controller.class)
+        || AnnotatedElementUtils.hasAnnotation(beanType, ControllerAdvice.class));
+  }
+}
@@ -0,0 +1,18 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.startup")
+public class StartupProperties {
+
+  /**
+   * How long scheduled jobs (snapshot and index rebuilds, purges, ...) wait after startup before
+   * their first run.
+   */
+  private Duration schedulerDelay = Duration.ZERO;
+}
@@ -0,0 +1,16 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.batch")
+public class UrlBatchProperties {
+
+  /**
+   * Number of urls validated, deduplicated and inserted in one transaction.
+   */
+  private int chunkSize = 500;
+}
@@ -0,0 +1,43 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.cache")
+public class UrlCacheProperties {
+
+  /**
+   * Upper bound of the estimated heap used by cached urls.
+   */
+  private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+  /**
+   * Longest time an url stays cached, even if it never expires.
+   */
+  private Duration timeToLive = Duration.ofHours(1);
+
+  private WarmRestart warmRestart = new WarmRestart();
+
+  @Getter
+  @Setter
+  public static class WarmRestart {
+
+    /**
+     * Whether the hottest cached urls are written on shutdown and cached again on startup.
+     */
+    private boolean enabled = false;
+
+    private Path path = Path.of("data", "url-cache.bin");
+
+    /**
+     * Most urls written to and read from the file.
+     */
+    private int maxUrls = 100_000;
+  }
+}
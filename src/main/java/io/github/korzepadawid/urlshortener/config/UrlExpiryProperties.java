@@ -0,0 +1,26 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.expiry")
+public class UrlExpiryProperties {
+
+  /**
+   * Resolution of the timing wheel, urls are evicted at most one tick after they expire.
+   */
+  private long tickMillis = 1000;
+
+  /**
+   * Upper bound of urls waiting for their expiry, the rest is left to the periodic purge scan.
+   */
+  private int maxTrackedUrls = 1_000_000;
+
+  /**
+   * Upper bound of expired ids waiting to be deleted from the database.
+   */
+  private int maxPendingPurges = 100_000;
+}
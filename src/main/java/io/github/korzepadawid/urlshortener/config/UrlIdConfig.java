@@ -0,0 +1,41 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import io.github.korzepadawid.urlshortener.ids.FeistelPermutation;
+import io.github.korzepadawid.urlshortener.ids.SnowflakeIds;
+import io.github.korzepadawid.urlshortener.ids.SnowflakeReservation;
+import io.github.korzepadawid.urlshortener.ids.UrlIdGenerator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UrlIdConfig {
+
+  @Bean
+  @ConditionalOnProperty(prefix = "url-shortener.ids", name = "strategy", havingValue = "snowflake")
+  public SnowflakeIds snowflakeIds(UrlIdProperties urlIdProperties,
+      UrlStorageProperties urlStorageProperties) {
+    if (urlStorageProperties.getType() != UrlStorageProperties.Type.JPA) {
+      throw new IllegalStateException("Snowflake ids need the jpa url storage.");
+    }
+    if (urlIdProperties.getNodeId() == null) {
+      throw new IllegalStateException(
+          "Snowflake ids need a node id in url-shortener.ids.node-id.");
+    }
+    FeistelPermutation permutation = urlIdProperties.getPermutationKey() == null ? null
+        : new FeistelPermutation(SnowflakeIds.ID_BITS, urlIdProperties.getPermutationKey());
+    return new SnowflakeIds(urlIdProperties.getNodeId(), urlIdProperties.getNodeBits(),
+        urlIdProperties.getSequenceBits(), urlIdProperties.getEpoch(),
+        urlIdProperties.getMaxClockSkew(), permutation, System::currentTimeMillis,
+        new SnowflakeReservation(urlIdProperties.getReservationPath()));
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer urlIdHibernatePropertiesCustomizer(
+      ObjectProvider<SnowflakeIds> snowflakeIds) {
+    return properties -> snowflakeIds.ifAvailable(ids ->
+        properties.put(UrlIdGenerator.SNOWFLAKE_IDS_SETTING, ids));
+  }
+}
@@ -0,0 +1,64 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.ids")
+public class UrlIdProperties {
+
+  private Strategy strategy = Strategy.SEQUENCE;
+
+  /**
+   * Id of this node with {@link Strategy#SNOWFLAKE}, unique among the nodes sharing a database.
+   */
+  private Integer nodeId;
+
+  private int nodeBits = 10;
+
+  /**
+   * Ids a node can mint per millisecond, as a power of two.
+   */
+  private int sequenceBits = 12;
+
+  /**
+   * Start of the timestamps, they last for about 34 years with the default bits. Can't be changed
+   * once urls have been created.
+   */
+  private Instant epoch = Instant.parse("2021-01-01T00:00:00Z");
+
+  /**
+   * Key of the permutation scrambling minted ids, none if not set. Can't be changed once urls have
+   * been created.
+   */
+  private Long permutationKey;
+
+  /**
+   * Most the clocks of two nodes are apart.
+   */
+  private Duration maxClockSkew = Duration.ofSeconds(5);
+
+  /**
+   * File keeping the time up to which this node may have minted ids, so a restart doesn't reissue
+   * them. Has to survive restarts of the node.
+   */
+  private Path reservationPath = Path.of("data", "snowflake-ids.reservation");
+
+  public enum Strategy {
+
+    /**
+     * Ids are taken from the database sequence in blocks.
+     */
+    SEQUENCE,
+
+    /**
+     * Every node mints ids on its own from its clock and node id.
+     */
+    SNOWFLAKE
+  }
+}
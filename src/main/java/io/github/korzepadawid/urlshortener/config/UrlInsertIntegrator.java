@@ -0,0 +1,63 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import io.github.korzepadawid.urlshortener.caches.LinkIndexListener;
+import io.github.korzepadawid.urlshortener.caches.LiveUrlFilterListener;
+import io.github.korzepadawid.urlshortener.models.Url;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Hands urls inserted through JPA to the cache layer, the way {@code @PostPersist} listeners
+ * would, without the entity depending on the caches.
+ */
+class UrlInsertIntegrator implements Integrator, PostInsertEventListener {
+
+  private final LiveUrlFilterListener liveUrlFilterListener;
+  private final LinkIndexListener linkIndexListener;
+
+  UrlInsertIntegrator(LiveUrlFilterListener liveUrlFilterListener,
+      LinkIndexListener linkIndexListener) {
+    this.liveUrlFilterListener = liveUrlFilterListener;
+    this.linkIndexListener = linkIndexListener;
+  }
+
+  @Override
+  public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+      SessionFactoryServiceRegistry serviceRegistry) {
+    serviceRegistry.getService(EventListenerRegistry.class)
+        .appendListeners(EventType.POST_INSERT, this);
+  }
+
+  @Override
+  public void disintegrate(SessionFactoryImplementor sessionFactory,
+      SessionFactoryServiceRegistry serviceRegistry) {
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    if (event.getEntity() instanceof Url) {
+      Url url = (Url) event.getEntity();
+      liveUrlFilterListener.urlPersisted(url);
+      linkIndexListener.urlPersisted(url);
+    }
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return false;
+  }
+
+  // Still abstract in Hibernate 5.4, superseded by the correctly spelled method above.
+  @Override
+  @SuppressWarnings("deprecation")
+  public boolean requiresPostCommitHanding(EntityPersister persister) {
+    return false;
+  }
+}
@@ -0,0 +1,23 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import io.github.korzepadawid.urlshortener.caches.LinkIndexListener;
+import io.github.korzepadawid.urlshortener.caches.LiveUrlFilterListener;
+import java.util.List;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+public class UrlInsertListenerConfig {
+
+  @Bean
+  public HibernatePropertiesCustomizer urlInsertHibernatePropertiesCustomizer(
+      LiveUrlFilterListener liveUrlFilterListener, LinkIndexListener linkIndexListener) {
+    UrlInsertIntegrator integrator =
+        new UrlInsertIntegrator(liveUrlFilterListener, linkIndexListener);
+    return properties -> properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+        (IntegratorProvider) () -> List.of(integrator));
+  }
+}
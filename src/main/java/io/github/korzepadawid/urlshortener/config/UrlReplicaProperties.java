@@ -0,0 +1,36 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.replicas")
+public class UrlReplicaProperties {
+
+  /**
+   * Whether read-only transactions of the main datasource are sent to the replicas.
+   */
+  private boolean enabled = false;
+
+  /**
+   * Read replicas of the main datasource, used in turns.
+   */
+  private List<Replica> databases = new ArrayList<>();
+
+  @Getter
+  @Setter
+  public static class Replica {
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private int maximumPoolSize = 10;
+  }
+}
@@ -0,0 +1,42 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.sharding")
+public class UrlShardingProperties {
+
+  /**
+   * Low bits of every id holding its shard, limits the number of shards to {@code 2^shardBits}.
+   * Can't be changed once urls have been created.
+   */
+  private int shardBits = 4;
+
+  /**
+   * Whether the url table is created on shards which don't have it yet.
+   */
+  private boolean initializeSchema = true;
+
+  /**
+   * Shard databases, a shard's position in the list is its tag. Shards may only be appended.
+   */
+  private List<Shard> shards = new ArrayList<>();
+
+  @Getter
+  @Setter
+  public static class Shard {
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private int maximumPoolSize = 10;
+  }
+}
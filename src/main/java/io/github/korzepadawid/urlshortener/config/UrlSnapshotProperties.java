@@ -0,0 +1,29 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import java.nio.file.Path;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.snapshot")
+public class UrlSnapshotProperties {
+
+  private boolean enabled = false;
+
+  private Path path = Path.of("data", "urls.snapshot");
+
+  /**
+   * Whether this node writes the snapshot. Nodes which don't only reload the file once it has
+   * been replaced, e.g. on a shared volume.
+   */
+  private boolean build = true;
+
+  private long refreshIntervalMillis = 900_000;
+
+  /**
+   * Urls read from the database per query while building.
+   */
+  private int pageSize = 10_000;
+}
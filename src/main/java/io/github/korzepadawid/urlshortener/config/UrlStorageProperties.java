@@ -0,0 +1,61 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import java.nio.file.Path;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.storage")
+public class UrlStorageProperties {
+
+  private Type type = Type.JPA;
+
+  /**
+   * Directory of the url log segments, only used by the {@link Type#LOG} storage.
+   */
+  private Path directory = Path.of("data", "url-log");
+
+  /**
+   * Size after which the url log starts a new segment.
+   */
+  private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+  /**
+   * Whether every url log write is forced to the device, otherwise writes survive a crash of the
+   * process but not of the machine.
+   */
+  private boolean syncWrites = false;
+
+  /**
+   * How often the url log rewrites its older segments without overwritten, deleted and expired
+   * urls.
+   */
+  private long compactionIntervalMillis = 3_600_000;
+
+  /**
+   * How often the id of the url store is asked for while it couldn't be read, see
+   * {@link io.github.korzepadawid.urlshortener.storage.UrlStoreIdentity}.
+   */
+  private long identifyIntervalMillis = 5_000;
+
+  public enum Type {
+
+    /**
+     * Urls are stored in the relational database through JPA.
+     */
+    JPA,
+
+    /**
+     * Urls are stored in an embedded append-only log on local disk, for single-node deployments.
+     */
+    LOG,
+
+    /**
+     * Urls are spread over the databases of {@code url-shortener.sharding.shards}.
+     */
+    SHARDED
+  }
+}
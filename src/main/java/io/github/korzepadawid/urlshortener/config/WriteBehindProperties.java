@@ -0,0 +1,54 @@
+package io.github.korzepadawid.urlshortener.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "url-shortener.write-behind")
+public class WriteBehindProperties {
+
+  private boolean enabled = false;
+
+  private Durability durability = Durability.COMMITTED;
+
+  /**
+   * Urls waiting for the writer, creates wait up to {@code queue-timeout} while it's full.
+   */
+  private int queueCapacity = 10_000;
+
+  private Duration queueTimeout = Duration.ofSeconds(1);
+
+  /**
+   * Most urls inserted by a single transaction.
+   */
+  private int maxBatchSize = 500;
+
+  /**
+   * Longest time the writer waits for more urls before committing the ones it has.
+   */
+  private Duration maxDelay = Duration.ofMillis(20);
+
+  /**
+   * How long a create waits for its group commit with {@link Durability#COMMITTED}.
+   */
+  private Duration commitTimeout = Duration.ofSeconds(5);
+
+  private Duration retryBackoff = Duration.ofSeconds(1);
+
+  public enum Durability {
+
+    /**
+     * Creates are acknowledged once queued. Urls still queued are lost if the process dies, and
+     * an url created concurrently on another node may win over the acknowledged short code.
+     */
+    BUFFERED,
+
+    /**
+     * Creates are acknowledged once the group commit holding them has succeeded.
+     */
+    COMMITTED
+  }
+}
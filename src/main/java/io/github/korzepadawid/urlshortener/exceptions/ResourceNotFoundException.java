@@ -5,8 +5,11 @@ public class ResourceNotFoundException extends RuntimeException {
   public ResourceNotFoundException() {
   }
 
+  /**
+   * Not found is an expected outcome, so the stack trace isn't filled in.
+   */
   public ResourceNotFoundException(String message) {
-    super(message);
+    super(message, null, false, false);
   }
 
   public ResourceNotFoundException(String message, Throwable cause) {
@@ -0,0 +1,151 @@
+package io.github.korzepadawid.urlshortener.expiry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel of ids with deadlines, O(1) to schedule and cancel.
+ *
+ * <p>Level {@code L} has {@value #SLOTS} slots of {@code SLOTS^L} ticks each; an id is kept on
+ * the lowest level whose range covers its deadline and cascades to lower levels as time goes by.
+ * Five levels of one-second ticks cover about 34 years. Not thread-safe.
+ */
+public class HierarchicalTimingWheel {
+
+  private static final int SLOT_BITS = 6;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final int LEVELS = 5;
+
+  private final long tickMillis;
+  private final Entry[][] wheels = new Entry[LEVELS][SLOTS];
+  private final Map<Long, Entry> entries = new HashMap<>();
+  private long currentTick;
+
+  public HierarchicalTimingWheel(long tickMillis, long nowMillis) {
+    this.tickMillis = tickMillis;
+    this.currentTick = nowMillis / tickMillis;
+
+    for (Entry[] wheel : wheels) {
+      for (int slot = 0; slot < SLOTS; slot++) {
+        wheel[slot] = Entry.sentinel();
+      }
+    }
+  }
+
+  /**
+   * Schedules (or reschedules) the id.
+   *
+   * @return false if the deadline has already passed, in which case nothing is scheduled
+   */
+  public boolean schedule(long id, long deadlineMillis) {
+    cancel(id);
+
+    long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+    if (deadlineTick <= currentTick) {
+      return false;
+    }
+
+    Entry entry = new Entry(id, deadlineTick);
+    entries.put(id, entry);
+    place(entry);
+    return true;
+  }
+
+  public boolean cancel(long id) {
+    Entry entry = entries.remove(id);
+    if (entry == null) {
+      return false;
+    }
+    entry.unlink();
+    return true;
+  }
+
+  /**
+   * Moves the wheel forward to {@code nowMillis}, passing every expired id to the consumer.
+   */
+  public void advance(long nowMillis, LongConsumer expiredIds) {
+    long targetTick = nowMillis / tickMillis;
+
+    while (currentTick < targetTick) {
+      currentTick++;
+      cascade(1);
+
+      Entry head = wheels[0][(int) (currentTick & SLOT_MASK)];
+      for (Entry entry = head.next; entry != head; entry = head.next) {
+        entry.unlink();
+        entries.remove(entry.id);
+        expiredIds.accept(entry.id);
+      }
+    }
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private void cascade(int level) {
+    if (level >= LEVELS || ((currentTick >> (SLOT_BITS * (level - 1))) & SLOT_MASK) != 0) {
+      return;
+    }
+    cascade(level + 1);
+
+    Entry head = wheels[level][(int) ((currentTick >> (SLOT_BITS * level)) & SLOT_MASK)];
+    Entry entry = head.next;
+    head.next = head;
+    head.previous = head;
+
+    while (entry != head) {
+      Entry next = entry.next;
+      place(entry);
+      entry = next;
+    }
+  }
+
+  private void place(Entry entry) {
+    long delta = entry.deadlineTick - currentTick;
+    int level = 0;
+
+    while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+      level++;
+    }
+
+    int slot = (int) ((entry.deadlineTick >> (SLOT_BITS * level)) & SLOT_MASK);
+    entry.linkBefore(wheels[level][slot]);
+  }
+
+  private static final class Entry {
+
+    private final long id;
+    private final long deadlineTick;
+    private Entry previous;
+    private Entry next;
+
+    private Entry(long id, long deadlineTick) {
+      this.id = id;
+      this.deadlineTick = deadlineTick;
+    }
+
+    private static Entry sentinel() {
+      Entry sentinel = new Entry(-1, -1);
+      sentinel.previous = sentinel;
+      sentinel.next = sentinel;
+      return sentinel;
+    }
+
+    private void linkBefore(Entry head) {
+      previous = head.previous;
+      next = head;
+      head.previous.next = this;
+      head.previous = this;
+    }
+
+    private void unlink() {
+      previous.next = next;
+      next.previous = previous;
+      previous = null;
+      next = null;
+    }
+  }
+}
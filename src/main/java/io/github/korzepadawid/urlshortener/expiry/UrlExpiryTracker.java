@@ -0,0 +1,129 @@
+package io.github.korzepadawid.urlshortener.expiry;
+
+import io.github.korzepadawid.urlshortener.caches.UrlCache;
+import io.github.korzepadawid.urlshortener.config.UrlExpiryProperties;
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps expiring urls of this node on a {@link HierarchicalTimingWheel}. As soon as an url
+ * expires it's evicted from {@link UrlCache} and its id is queued for deletion from the database.
+ * Requests only queue changes to the wheel without locking, the tick applies them before moving
+ * it forward.
+ */
+@Component
+public class UrlExpiryTracker {
+
+  private final UrlCache urlCache;
+  private final UrlExpiryProperties urlExpiryProperties;
+  private final HierarchicalTimingWheel timingWheel;
+  private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingChanges = new AtomicInteger();
+  private final Queue<Long> expiredIds = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingPurges = new AtomicInteger();
+
+  private volatile int trackedUrls;
+
+  public UrlExpiryTracker(UrlCache urlCache, UrlExpiryProperties urlExpiryProperties) {
+    this.urlCache = urlCache;
+    this.urlExpiryProperties = urlExpiryProperties;
+    this.timingWheel = new HierarchicalTimingWheel(urlExpiryProperties.getTickMillis(),
+        System.currentTimeMillis());
+  }
+
+  public void track(Url url) {
+    if (url == null || url.getId() == null || url.getExpiringAt() == null) {
+      return;
+    }
+
+    long deadlineMillis = url.getExpiringAt()
+        .atZone(ZoneId.systemDefault())
+        .toInstant()
+        .toEpochMilli();
+
+    if (deadlineMillis <= System.currentTimeMillis()) {
+      expire(url.getId());
+      return;
+    }
+    if (trackedUrls + pendingChanges.get() >= urlExpiryProperties.getMaxTrackedUrls()) {
+      return;
+    }
+    pendingChanges.incrementAndGet();
+    changes.add(new Change(url.getId(), deadlineMillis));
+  }
+
+  public void untrack(long id) {
+    pendingChanges.incrementAndGet();
+    changes.add(new Change(id, Change.CANCEL));
+  }
+
+  @Scheduled(fixedDelayString = "${url-shortener.expiry.tick-millis:1000}")
+  public void tick() {
+    synchronized (timingWheel) {
+      Change change;
+      while ((change = changes.poll()) != null) {
+        pendingChanges.decrementAndGet();
+        if (change.deadlineMillis == Change.CANCEL) {
+          timingWheel.cancel(change.id);
+        } else if (!timingWheel.schedule(change.id, change.deadlineMillis)) {
+          expire(change.id);
+        }
+      }
+      timingWheel.advance(System.currentTimeMillis(), this::expire);
+      trackedUrls = timingWheel.size();
+    }
+  }
+
+  public boolean hasExpiredIds() {
+    return !expiredIds.isEmpty();
+  }
+
+  /**
+   * Takes up to {@code maxIds} ids of expired urls which haven't been deleted yet.
+   */
+  public List<Long> drainExpiredIds(int maxIds) {
+    List<Long> ids = new ArrayList<>(Math.min(maxIds, pendingPurges.get()));
+    Long id;
+    while (ids.size() < maxIds && (id = expiredIds.poll()) != null) {
+      ids.add(id);
+    }
+    pendingPurges.addAndGet(-ids.size());
+    return ids;
+  }
+
+  /**
+   * Urls on the wheel as of the last tick.
+   */
+  public int getTrackedUrls() {
+    return trackedUrls;
+  }
+
+  private void expire(long id) {
+    urlCache.invalidate(id);
+
+    if (pendingPurges.get() < urlExpiryProperties.getMaxPendingPurges()) {
+      pendingPurges.incrementAndGet();
+      expiredIds.add(id);
+    }
+  }
+
+  private static final class Change {
+
+    private static final long CANCEL = Long.MIN_VALUE;
+
+    private final long id;
+    private final long deadlineMillis;
+
+    private Change(long id, long deadlineMillis) {
+      this.id = id;
+      this.deadlineMillis = deadlineMillis;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package io.github.korzepadawid.urlshortener.hotlinks;
+
+import io.github.korzepadawid.urlshortener.config.HotLinkProperties;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ranks urls by redirects over a sliding window. Hits are counted in the current window with one
+ * {@link LongAdder} per url, so hot urls never contend on a single memory location. Closed windows
+ * are folded into {@link SpaceSavingSummary} instances which keep only the heaviest urls.
+ */
+@Component
+public class HotLinkTracker {
+
+  private final HotLinkProperties hotLinkProperties;
+  private final Deque<SpaceSavingSummary> closedWindows = new ArrayDeque<>();
+  private final LongAdder untrackedHits = new LongAdder();
+
+  private volatile ConcurrentHashMap<Long, LongAdder> currentWindow = new ConcurrentHashMap<>();
+
+  /**
+   * Window closed by the latest rotation. It's folded one rotation later, once hits which raced
+   * the rotation have landed.
+   */
+  private volatile ConcurrentHashMap<Long, LongAdder> closingWindow = new ConcurrentHashMap<>();
+
+  public HotLinkTracker(HotLinkProperties hotLinkProperties) {
+    this.hotLinkProperties = hotLinkProperties;
+  }
+
+  public void record(long urlId) {
+    ConcurrentHashMap<Long, LongAdder> window = currentWindow;
+    LongAdder hits = window.get(urlId);
+    if (hits == null) {
+      if (window.mappingCount() >= hotLinkProperties.getMaxKeysPerWindow()) {
+        untrackedHits.increment();
+        return;
+      }
+      hits = window.computeIfAbsent(urlId, id -> new LongAdder());
+    }
+    hits.increment();
+  }
+
+  @Scheduled(fixedRateString = "${url-shortener.hot-links.window-millis:10000}")
+  public void rotate() {
+    SpaceSavingSummary summary = summarize(closingWindow);
+    closingWindow = currentWindow;
+    currentWindow = new ConcurrentHashMap<>();
+
+    synchronized (closedWindows) {
+      closedWindows.addFirst(summary);
+      while (closedWindows.size() > Math.max(0, hotLinkProperties.getWindows() - 2)) {
+        closedWindows.removeLast();
+      }
+    }
+  }
+
+  /**
+   * Urls with the most redirects within the sliding window, with their estimated hits.
+   */
+  public List<Map.Entry<Long, Long>> top(int limit) {
+    SpaceSavingSummary merged = new SpaceSavingSummary(hotLinkProperties.getSummarySize());
+    merged.addAll(summarize(currentWindow));
+    merged.addAll(summarize(closingWindow));
+    synchronized (closedWindows) {
+      closedWindows.forEach(merged::addAll);
+    }
+    return merged.top(limit);
+  }
+
+  /**
+   * Hits of urls which didn't fit into their window.
+   */
+  public long getUntrackedHits() {
+    return untrackedHits.sum();
+  }
+
+  private SpaceSavingSummary summarize(Map<Long, LongAdder> window) {
+    SpaceSavingSummary summary = new SpaceSavingSummary(hotLinkProperties.getSummarySize());
+    window.forEach((urlId, hits) -> summary.add(urlId, hits.sum()));
+    return summary;
+  }
+}
@@ -0,0 +1,82 @@
+package io.github.korzepadawid.urlshortener.hotlinks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving summary of the most frequent keys within a fixed number of counters. A key which
+ * doesn't fit takes over the smallest counter, so every key with more hits than the smallest
+ * counter is guaranteed to be kept, and counts are overestimated by at most that counter's value.
+ * Not thread-safe.
+ */
+public class SpaceSavingSummary {
+
+  private static final Comparator<Counter> BY_COUNT = Comparator
+      .comparingLong((Counter counter) -> counter.count)
+      .thenComparingLong(counter -> counter.key);
+
+  private final int capacity;
+  private final Map<Long, Counter> countersByKey = new HashMap<>();
+  private final TreeSet<Counter> countersByCount = new TreeSet<>(BY_COUNT);
+
+  public SpaceSavingSummary(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive.");
+    }
+    this.capacity = capacity;
+  }
+
+  public void add(long key, long weight) {
+    Counter counter = countersByKey.get(key);
+    if (counter == null && countersByKey.size() >= capacity) {
+      Counter smallest = countersByCount.pollFirst();
+      countersByKey.remove(smallest.key);
+      counter = new Counter(key, smallest.count);
+      countersByKey.put(key, counter);
+    } else if (counter == null) {
+      counter = new Counter(key, 0);
+      countersByKey.put(key, counter);
+    } else {
+      countersByCount.remove(counter);
+    }
+    counter.count += weight;
+    countersByCount.add(counter);
+  }
+
+  public void addAll(SpaceSavingSummary summary) {
+    summary.countersByKey.values().forEach(counter -> add(counter.key, counter.count));
+  }
+
+  /**
+   * Keys and their estimated counts, most frequent first.
+   */
+  public List<Map.Entry<Long, Long>> top(int limit) {
+    List<Map.Entry<Long, Long>> top = new ArrayList<>(Math.min(limit, countersByKey.size()));
+    for (Counter counter : countersByCount.descendingSet()) {
+      if (top.size() >= limit) {
+        break;
+      }
+      top.add(Map.entry(counter.key, counter.count));
+    }
+    return top;
+  }
+
+  public int size() {
+    return countersByKey.size();
+  }
+
+  private static class Counter {
+
+    private final long key;
+    private long count;
+
+    private Counter(long key, long count) {
+      this.key = key;
+      this.count = count;
+    }
+  }
+}
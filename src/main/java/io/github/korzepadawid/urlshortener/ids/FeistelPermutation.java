@@ -0,0 +1,60 @@
+package io.github.korzepadawid.urlshortener.ids;
+
+/**
+ * Keyed bijection of {@code bits}-bit numbers, a balanced Feistel network. Consecutive numbers are
+ * mapped to unrelated looking ones, {@link #invert(long)} maps them back.
+ */
+public class FeistelPermutation {
+
+  private static final int ROUNDS = 4;
+
+  private final int halfBits;
+  private final long halfMask;
+  private final long[] roundKeys = new long[ROUNDS];
+
+  public FeistelPermutation(int bits, long key) {
+    if (bits <= 0 || bits > 62 || bits % 2 != 0) {
+      throw new IllegalArgumentException("Bits have to be even and at most 62, got " + bits + ".");
+    }
+    halfBits = bits / 2;
+    halfMask = (1L << halfBits) - 1;
+    long state = key;
+    for (int i = 0; i < ROUNDS; i++) {
+      state += 0x9E3779B97F4A7C15L;
+      roundKeys[i] = mix(state);
+    }
+  }
+
+  public long permute(long value) {
+    long left = value >>> halfBits;
+    long right = value & halfMask;
+    for (int i = 0; i < ROUNDS; i++) {
+      long next = left ^ round(right, i);
+      left = right;
+      right = next;
+    }
+    return left << halfBits | right;
+  }
+
+  public long invert(long value) {
+    long left = value >>> halfBits;
+    long right = value & halfMask;
+    for (int i = ROUNDS - 1; i >= 0; i--) {
+      long previous = right ^ round(left, i);
+      right = left;
+      left = previous;
+    }
+    return left << halfBits | right;
+  }
+
+  private long round(long half, int round) {
+    return mix(half ^ roundKeys[round]) & halfMask;
+  }
+
+  // Finalizer of SplitMix64.
+  private static long mix(long value) {
+    value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+    value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+    return value ^ (value >>> 31);
+  }
+}
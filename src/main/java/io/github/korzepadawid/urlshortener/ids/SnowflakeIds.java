@@ -0,0 +1,131 @@
+package io.github.korzepadawid.urlshortener.ids;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/**
+ * Mints url ids without a round trip to the database: milliseconds since {@code epoch}, then the
+ * node id and a per-node sequence, {@value #ID_BITS} bits in total so that short codes take at
+ * most 11 characters. Node ids keep nodes from colliding whatever their clocks say. A clock
+ * turned back on this node doesn't make it reissue ids, it keeps counting from the last
+ * millisecond used instead. Across restarts the same holds for the milliseconds kept in a
+ * {@link SnowflakeReservation}, reserved half the max clock skew at a time. Ids may additionally
+ * be scrambled by a {@link FeistelPermutation}.
+ */
+public class SnowflakeIds {
+
+  public static final int ID_BITS = 62;
+
+  private final int timestampShift;
+  private final int sequenceBits;
+  private final long nodeId;
+  private final long maxSequence;
+  private final long maxTimestamp;
+  private final long epochMillis;
+  private final long maxClockSkewMillis;
+  private final long reservationMillis;
+  private final LongSupplier clock;
+  private final FeistelPermutation permutation;
+  private final SnowflakeReservation reservation;
+
+  private long lastTimestamp = -1;
+  private long sequence;
+  private long reservedTimestamp = -1;
+
+  public SnowflakeIds(int nodeId, int nodeBits, int sequenceBits, Instant epoch,
+      Duration maxClockSkew, FeistelPermutation permutation, LongSupplier clock) {
+    this(nodeId, nodeBits, sequenceBits, epoch, maxClockSkew, permutation, clock, null);
+  }
+
+  /**
+   * Fails if the reservation is further ahead of the clock than the max clock skew, the ids of
+   * such a node would be taken for ids of the future.
+   */
+  public SnowflakeIds(int nodeId, int nodeBits, int sequenceBits, Instant epoch,
+      Duration maxClockSkew, FeistelPermutation permutation, LongSupplier clock,
+      SnowflakeReservation reservation) {
+    if (nodeBits < 0 || sequenceBits < 0 || nodeBits + sequenceBits >= ID_BITS - 32) {
+      throw new IllegalArgumentException("Node and sequence bits leave less than 32 bits of "
+          + "timestamp.");
+    }
+    if (nodeId < 0 || nodeId >= 1L << nodeBits) {
+      throw new IllegalArgumentException("Node id has to be between 0 and " + ((1L << nodeBits) - 1)
+          + ", got " + nodeId + ".");
+    }
+    if (epoch.toEpochMilli() > clock.getAsLong()) {
+      throw new IllegalArgumentException("Epoch " + epoch + " is in the future.");
+    }
+    this.timestampShift = nodeBits + sequenceBits;
+    this.sequenceBits = sequenceBits;
+    this.nodeId = nodeId;
+    this.maxSequence = (1L << sequenceBits) - 1;
+    this.maxTimestamp = (1L << (ID_BITS - timestampShift)) - 1;
+    this.epochMillis = epoch.toEpochMilli();
+    this.maxClockSkewMillis = maxClockSkew.toMillis();
+    this.reservationMillis = Math.max(1, maxClockSkewMillis / 2);
+    this.permutation = permutation;
+    this.clock = clock;
+    this.reservation = reservation;
+    if (reservation != null) {
+      resume(reservation.read(), nodeId);
+    }
+  }
+
+  private void resume(long reservedUntilMillis, int nodeId) {
+    if (reservedUntilMillis < 0) {
+      return;
+    }
+    long aheadMillis = reservedUntilMillis - clock.getAsLong();
+    if (aheadMillis > maxClockSkewMillis) {
+      throw new IllegalStateException("Node " + nodeId + " may have minted ids up to "
+          + Instant.ofEpochMilli(reservedUntilMillis) + ", " + aheadMillis + " ms ahead of its "
+          + "clock. Start it once the clock has caught up.");
+    }
+    // As if the sequence of the millisecond before were used up, the next id borrows the first
+    // millisecond the previous run can't have used.
+    lastTimestamp = reservedUntilMillis - epochMillis - 1;
+    sequence = maxSequence;
+    reservedTimestamp = lastTimestamp;
+  }
+
+  public synchronized long nextId() {
+    long timestamp = Math.max(clock.getAsLong() - epochMillis, lastTimestamp);
+    if (timestamp == lastTimestamp) {
+      sequence = (sequence + 1) & maxSequence;
+      if (sequence == 0) {
+        // Sequence used up, borrows the next millisecond rather than waiting for it.
+        timestamp++;
+      }
+    } else {
+      sequence = 0;
+    }
+    if (timestamp > maxTimestamp) {
+      throw new IllegalStateException("Snowflake ids ran out of timestamps, move the epoch.");
+    }
+    if (reservation != null && timestamp >= reservedTimestamp) {
+      reservation.write(epochMillis + timestamp + reservationMillis);
+      reservedTimestamp = timestamp + reservationMillis;
+    }
+    lastTimestamp = timestamp;
+
+    long id = timestamp << timestampShift | nodeId << sequenceBits | sequence;
+    return permutation == null ? id : permutation.permute(id);
+  }
+
+  /**
+   * Epoch milliseconds the id was minted at, according to the minting node's clock.
+   */
+  public long timestampOf(long id) {
+    long raw = permutation == null ? id : permutation.invert(id);
+    return epochMillis + (raw >>> timestampShift);
+  }
+
+  /**
+   * Whether any node may have minted the id by now, allowing for other nodes' clocks being up to
+   * the configured skew ahead of this one.
+   */
+  public boolean mayHaveBeenMinted(long id) {
+    return timestampOf(id) <= clock.getAsLong() + maxClockSkewMillis;
+  }
+}
@@ -0,0 +1,70 @@
+package io.github.korzepadawid.urlshortener.ids;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File holding the time up to which a node may have minted snowflake ids. {@link SnowflakeIds}
+ * writes it ahead of the ids it mints, so the next run of the node knows where to carry on even
+ * if its clock has been turned back meanwhile.
+ */
+public class SnowflakeReservation {
+
+  private final Path path;
+
+  public SnowflakeReservation(Path path) {
+    this.path = path.toAbsolutePath();
+  }
+
+  /**
+   * Epoch milliseconds reserved by the last write, -1 if there has been none.
+   */
+  public long read() {
+    try {
+      byte[] bytes = Files.readAllBytes(path);
+      if (bytes.length != Long.BYTES) {
+        throw new IllegalStateException(path + " isn't a snowflake id reservation.");
+      }
+      return ByteBuffer.wrap(bytes).getLong();
+    } catch (NoSuchFileException exception) {
+      return -1;
+    } catch (IOException exception) {
+      throw new UncheckedIOException("Could not read the snowflake id reservation " + path + ".",
+          exception);
+    }
+  }
+
+  public void write(long untilMillis) {
+    Path file = null;
+    try {
+      Files.createDirectories(path.getParent());
+      file = Files.createTempFile(path.getParent(), "snowflake", ".tmp");
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(untilMillis).flip();
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        channel.force(true);
+      }
+      Files.move(file, path, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException exception) {
+      try {
+        if (file != null) {
+          Files.deleteIfExists(file);
+        }
+      } catch (IOException ignored) {
+        // Only a leftover temporary file.
+      }
+      throw new UncheckedIOException("Could not write the snowflake id reservation " + path + ".",
+          exception);
+    }
+  }
+}
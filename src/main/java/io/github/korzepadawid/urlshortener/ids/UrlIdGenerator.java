@@ -0,0 +1,36 @@
+package io.github.korzepadawid.urlshortener.ids;
+
+import java.io.Serializable;
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Generator of url ids. Takes them from the database sequence in blocks, unless
+ * {@link SnowflakeIds} have been passed in the {@value #SNOWFLAKE_IDS_SETTING} Hibernate setting.
+ */
+public class UrlIdGenerator extends SequenceStyleGenerator {
+
+  public static final String STRATEGY = "io.github.korzepadawid.urlshortener.ids.UrlIdGenerator";
+  public static final String SNOWFLAKE_IDS_SETTING = "url_shortener.snowflake_ids";
+
+  private SnowflakeIds snowflakeIds;
+
+  @Override
+  public void configure(Type type, Properties params, ServiceRegistry serviceRegistry)
+      throws MappingException {
+    super.configure(type, params, serviceRegistry);
+    snowflakeIds = (SnowflakeIds) serviceRegistry.getService(ConfigurationService.class)
+        .getSettings()
+        .get(SNOWFLAKE_IDS_SETTING);
+  }
+
+  @Override
+  public Serializable generate(SharedSessionContractImplementor session, Object object) {
+    return snowflakeIds == null ? super.generate(session, object) : snowflakeIds.nextId();
+  }
+}
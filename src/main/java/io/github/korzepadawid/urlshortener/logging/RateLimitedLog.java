@@ -0,0 +1,51 @@
+package io.github.korzepadawid.urlshortener.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets through at most a fixed number of log statements of one category per interval and counts
+ * the rest, so a flood of identical errors costs a couple of atomic operations per request.
+ */
+public class RateLimitedLog {
+
+  private final int permitsPerInterval;
+  private final long intervalNanos;
+  private final AtomicLong intervalStartNanos;
+  private final AtomicInteger usedPermits = new AtomicInteger();
+  private final LongAdder suppressed = new LongAdder();
+
+  public RateLimitedLog(int permitsPerInterval, Duration interval) {
+    this.permitsPerInterval = permitsPerInterval;
+    this.intervalNanos = interval.toNanos();
+    this.intervalStartNanos = new AtomicLong(System.nanoTime());
+  }
+
+  /**
+   * True if the caller may log now, otherwise the statement is counted as suppressed.
+   */
+  public boolean tryAcquire() {
+    long now = System.nanoTime();
+    long intervalStart = intervalStartNanos.get();
+    if (now - intervalStart >= intervalNanos
+        && intervalStartNanos.compareAndSet(intervalStart, now)) {
+      usedPermits.set(0);
+    }
+
+    if (usedPermits.get() < permitsPerInterval
+        && usedPermits.incrementAndGet() <= permitsPerInterval) {
+      return true;
+    }
+    suppressed.increment();
+    return false;
+  }
+
+  /**
+   * Statements suppressed since the previous call.
+   */
+  public long drainSuppressed() {
+    return suppressed.sumThenReset();
+  }
+}
@@ -0,0 +1,25 @@
+package io.github.korzepadawid.urlshortener.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+@Component
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveRequestLatencyFilter implements WebFilter {
+
+  private final RequestLatencyMonitor requestLatencyMonitor;
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    long start = System.nanoTime();
+    return chain.filter(exchange)
+        .doFinally(signal -> requestLatencyMonitor.record(System.nanoTime() - start));
+  }
+}
@@ -0,0 +1,39 @@
+package io.github.korzepadawid.urlshortener.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Average latency of live http requests, recorded without contention and sampled by background
+ * jobs which should back off when the application is under pressure.
+ */
+@Component
+public class RequestLatencyMonitor {
+
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAdder requests = new LongAdder();
+
+  private long sampledTotalNanos;
+  private long sampledRequests;
+
+  public void record(long nanos) {
+    totalNanos.add(nanos);
+    requests.increment();
+  }
+
+  /**
+   * Average latency of the requests completed since the previous sample, zero if there were none.
+   */
+  public synchronized Duration sampleAverageLatency() {
+    long currentTotalNanos = totalNanos.sum();
+    long currentRequests = requests.sum();
+    long newRequests = currentRequests - sampledRequests;
+    long newNanos = currentTotalNanos - sampledTotalNanos;
+
+    sampledTotalNanos = currentTotalNanos;
+    sampledRequests = currentRequests;
+
+    return newRequests <= 0 ? Duration.ZERO : Duration.ofNanos(newNanos / newRequests);
+  }
+}
@@ -0,0 +1,136 @@
+package io.github.korzepadawid.urlshortener.metrics;
+
+import io.github.korzepadawid.urlshortener.caches.LinkIndex;
+import io.github.korzepadawid.urlshortener.caches.UrlCache;
+import io.github.korzepadawid.urlshortener.clicks.ClickTracker;
+import io.github.korzepadawid.urlshortener.expiry.UrlExpiryTracker;
+import io.github.korzepadawid.urlshortener.hotlinks.HotLinkTracker;
+import io.github.korzepadawid.urlshortener.replicas.ReplicaRouting;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepositoryLog;
+import io.github.korzepadawid.urlshortener.schedulers.DeleteExpiredUrlsScheduler;
+import io.github.korzepadawid.urlshortener.snapshots.UrlSnapshots;
+import io.github.korzepadawid.urlshortener.writebehind.UrlWriteBehind;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the counters the components already keep. Meters read them lazily on scrape, so
+ * nothing is recorded twice on the request path. They're bound once the application has started,
+ * as binding them while the registry is created would pull the repositories into its
+ * initialization.
+ */
+@RequiredArgsConstructor
+@Component
+public class UrlShortenerMetrics {
+
+  private final MeterRegistry meterRegistry;
+  private final DeleteExpiredUrlsScheduler deleteExpiredUrlsScheduler;
+  private final UrlCache urlCache;
+  private final UrlExpiryTracker urlExpiryTracker;
+  private final ClickTracker clickTracker;
+  private final HotLinkTracker hotLinkTracker;
+  private final UrlSnapshots urlSnapshots;
+  private final LinkIndex linkIndex;
+  private final UrlWriteBehind urlWriteBehind;
+  private final ReplicaRouting replicaRouting;
+  private final ObjectProvider<UrlRepositoryLog> urlRepositoryLog;
+
+  @EventListener(ApplicationStartedEvent.class)
+  public void bindOnStartup() {
+    bindTo(meterRegistry);
+  }
+
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("urlshortener.purge.urls", deleteExpiredUrlsScheduler,
+        DeleteExpiredUrlsScheduler::getPurgedUrls)
+        .description("Expired urls deleted since startup")
+        .register(registry);
+    Gauge.builder("urlshortener.purge.backlog", deleteExpiredUrlsScheduler,
+        DeleteExpiredUrlsScheduler::getBacklog)
+        .description("Expired urls left in the database after the last scan")
+        .register(registry);
+    Gauge.builder("urlshortener.purge.last.run.urls", deleteExpiredUrlsScheduler,
+        DeleteExpiredUrlsScheduler::getLastRunPurgedUrls)
+        .register(registry);
+    TimeGauge.builder("urlshortener.purge.last.run.duration", deleteExpiredUrlsScheduler,
+        TimeUnit.NANOSECONDS, scheduler -> scheduler.getLastRunDuration().toNanos())
+        .register(registry);
+    TimeGauge.builder("urlshortener.purge.last.chunk.duration", deleteExpiredUrlsScheduler,
+        TimeUnit.NANOSECONDS, scheduler -> scheduler.getLastChunkDuration().toNanos())
+        .register(registry);
+
+    FunctionCounter.builder("urlshortener.cache.requests", urlCache,
+        cache -> cache.stats().hitCount())
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder("urlshortener.cache.requests", urlCache,
+        cache -> cache.stats().missCount())
+        .tag("result", "miss")
+        .register(registry);
+    FunctionCounter.builder("urlshortener.cache.evictions", urlCache,
+        cache -> cache.stats().evictionCount())
+        .register(registry);
+
+    Gauge.builder("urlshortener.expiry.tracked.urls", urlExpiryTracker,
+        UrlExpiryTracker::getTrackedUrls)
+        .register(registry);
+
+    FunctionCounter.builder("urlshortener.clicks", clickTracker, ClickTracker::getFlushedClicks)
+        .tag("result", "flushed")
+        .register(registry);
+    FunctionCounter.builder("urlshortener.clicks", clickTracker, ClickTracker::getDroppedClicks)
+        .tag("result", "dropped")
+        .register(registry);
+    Gauge.builder("urlshortener.clicks.buffered", clickTracker, ClickTracker::getBufferedClicks)
+        .register(registry);
+
+    FunctionCounter.builder("urlshortener.hot.links.untracked.hits", hotLinkTracker,
+        HotLinkTracker::getUntrackedHits)
+        .register(registry);
+
+    Gauge.builder("urlshortener.snapshot.urls", urlSnapshots, UrlSnapshots::getSnapshotUrls)
+        .register(registry);
+    TimeGauge.builder("urlshortener.snapshot.age", urlSnapshots, TimeUnit.MILLISECONDS,
+        snapshots -> snapshots.getSnapshotAge().toMillis())
+        .register(registry);
+
+    Gauge.builder("urlshortener.link.index.urls", linkIndex, LinkIndex::getIndexedUrls)
+        .register(registry);
+    Gauge.builder("urlshortener.link.index.off.heap", linkIndex, LinkIndex::getOffHeapBytes)
+        .baseUnit("bytes")
+        .register(registry);
+
+    Gauge.builder("urlshortener.write.behind.queued.urls", urlWriteBehind,
+        UrlWriteBehind::getQueuedUrls)
+        .register(registry);
+    FunctionCounter.builder("urlshortener.write.behind.urls", urlWriteBehind,
+        UrlWriteBehind::getCommittedUrls)
+        .tag("result", "committed")
+        .register(registry);
+    FunctionCounter.builder("urlshortener.write.behind.urls", urlWriteBehind,
+        UrlWriteBehind::getConflictingUrls)
+        .tag("result", "conflict")
+        .register(registry);
+
+    FunctionCounter.builder("urlshortener.replica.primary.reads", replicaRouting,
+        ReplicaRouting::getPrimaryReads)
+        .description("Lookups repeated on the primary after a replica missed them")
+        .register(registry);
+
+    urlRepositoryLog.ifAvailable(repository -> {
+      Gauge.builder("urlshortener.storage.log.urls", repository, UrlRepositoryLog::getStoredUrls)
+          .register(registry);
+      Gauge.builder("urlshortener.storage.log.segments", repository,
+          UrlRepositoryLog::getSegments)
+          .register(registry);
+    });
+  }
+}
@@ -0,0 +1,28 @@
+package io.github.korzepadawid.urlshortener.models;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Clicks of a single url, written in batches by the click tracking pipeline.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "click_count")
+public class ClickCount {
+
+  @Id
+  private Long urlId;
+
+  private long clicks;
+}
@@ -0,0 +1,23 @@
+package io.github.korzepadawid.urlshortener.models;
+
+public enum RedirectType {
+
+  MOVED_PERMANENTLY(301),
+  FOUND(302),
+  TEMPORARY_REDIRECT(307),
+  PERMANENT_REDIRECT(308);
+
+  private final int status;
+
+  RedirectType(int status) {
+    this.status = status;
+  }
+
+  public int getStatus() {
+    return status;
+  }
+
+  public boolean isPermanent() {
+    return this == MOVED_PERMANENTLY || this == PERMANENT_REDIRECT;
+  }
+}
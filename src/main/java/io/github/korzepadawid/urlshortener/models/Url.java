@@ -1,10 +1,20 @@
 package io.github.korzepadawid.urlshortener.models;
 
+import io.github.korzepadawid.urlshortener.ids.UrlIdGenerator;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,6 +22,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Getter
 @Setter
@@ -19,10 +32,30 @@ import org.hibernate.annotations.CreationTimestamp;
 @NoArgsConstructor
 @Builder
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Url.DEDUP_KEY_CONSTRAINT,
+    columnNames = "dedupKey"),
+    indexes = @Index(name = "idx_url_expiring_at", columnList = "expiringAt"))
 public class Url {
 
+  public static final String DEDUP_KEY_CONSTRAINT = "uk_url_dedup_key";
+  public static final String ID_SEQUENCE = "url_id_seq";
+
+  /**
+   * Ids are taken from the sequence in blocks, so inserts can be batched and each node only
+   * reaches for the sequence once per block. Blocks never overlap, keeping short codes unique.
+   * With {@code url-shortener.ids.strategy=snowflake} nodes mint ids on their own instead, see
+   * {@link UrlIdGenerator}.
+   */
+  public static final int ID_ALLOCATION_SIZE = 50;
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(generator = ID_SEQUENCE)
+  @GenericGenerator(name = ID_SEQUENCE, strategy = UrlIdGenerator.STRATEGY, parameters = {
+      @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = ID_SEQUENCE),
+      @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "" + ID_ALLOCATION_SIZE),
+      @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled")})
   private Long id;
 
   @NotNull
@@ -32,4 +65,47 @@ public class Url {
   private LocalDateTime createdAt;
 
   private LocalDateTime expiringAt;
+
+  /**
+   * Null means the application's default redirect type.
+   */
+  @Enumerated(EnumType.STRING)
+  private RedirectType redirectType;
+
+  /**
+   * SHA-256 of url, expiringAt and redirectType, see
+   * {@link #dedupKeyOf(String, LocalDateTime, RedirectType)}.
+   */
+  @Column(nullable = false, length = 64)
+  private String dedupKey;
+
+  /**
+   * Fixed-width key identifying urls which are the same link: equal url, expiringAt and
+   * redirectType.
+   */
+  public static String dedupKeyOf(String url, LocalDateTime expiringAt,
+      RedirectType redirectType) {
+    String source = url + '\n' + (expiringAt == null ? "" : expiringAt.toString())
+        + (redirectType == null ? "" : "\n" + redirectType.name());
+    byte[] hash;
+    try {
+      hash = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException exception) {
+      throw new IllegalStateException(exception);
+    }
+
+    char[] hex = new char[hash.length * 2];
+    for (int i = 0; i < hash.length; i++) {
+      hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+      hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xF];
+    }
+    return new String(hex);
+  }
+
+  @PrePersist
+  void fillDedupKey() {
+    if (dedupKey == null) {
+      dedupKey = dedupKeyOf(url, expiringAt, redirectType);
+    }
+  }
 }
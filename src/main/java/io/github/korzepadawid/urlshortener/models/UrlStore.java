@@ -0,0 +1,31 @@
+package io.github.korzepadawid.urlshortener.models;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The single row naming the database urls are stored in, see
+ * {@link io.github.korzepadawid.urlshortener.repositories.UrlRepository#getStoreId()}.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "url_store")
+public class UrlStore {
+
+  public static final int ID = 1;
+
+  @Id
+  private Integer id;
+
+  @Column(nullable = false, length = 36)
+  private String storeId;
+}
@@ -0,0 +1,33 @@
+package io.github.korzepadawid.urlshortener.replicas;
+
+import io.github.korzepadawid.urlshortener.config.UrlReplicaProperties;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReplicaRouting {
+
+  private final boolean enabled;
+  private final LongAdder primaryReads = new LongAdder();
+
+  public ReplicaRouting(UrlReplicaProperties urlReplicaProperties) {
+    this.enabled = urlReplicaProperties.isEnabled();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Repeats a read the replicas couldn't answer against the primary.
+   */
+  public <T> T onPrimary(Supplier<T> read) {
+    primaryReads.increment();
+    return ReplicaRoutingDataSource.onPrimary(read);
+  }
+
+  public long getPrimaryReads() {
+    return primaryReads.sum();
+  }
+}
@@ -0,0 +1,68 @@
+package io.github.korzepadawid.urlshortener.replicas;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replicas in turns and everything else to the primary. Has
+ * to be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * the transaction manager asks for a connection before the transaction is marked read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  private static final String PRIMARY = "primary";
+  private static final ThreadLocal<Boolean> ON_PRIMARY = ThreadLocal.withInitial(() -> false);
+
+  private final List<String> replicaKeys = new ArrayList<>();
+  private final List<HikariDataSource> replicas;
+  private final AtomicInteger next = new AtomicInteger();
+
+  public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas) {
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    for (int i = 0; i < replicas.size(); i++) {
+      replicaKeys.add("replica-" + i);
+      targets.put(replicaKeys.get(i), replicas.get(i));
+    }
+    this.replicas = replicas;
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+  }
+
+  /**
+   * Runs the read against the primary even if it's read-only, for data the replicas may not have
+   * received yet.
+   */
+  public static <T> T onPrimary(Supplier<T> read) {
+    if (ON_PRIMARY.get()) {
+      return read.get();
+    }
+    ON_PRIMARY.set(true);
+    try {
+      return read.get();
+    } finally {
+      ON_PRIMARY.remove();
+    }
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (replicaKeys.isEmpty() || ON_PRIMARY.get()
+        || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return PRIMARY;
+    }
+    return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+  }
+
+  public void close() {
+    replicas.forEach(HikariDataSource::close);
+  }
+}
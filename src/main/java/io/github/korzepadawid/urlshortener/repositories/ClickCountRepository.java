@@ -0,0 +1,15 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import io.github.korzepadawid.urlshortener.models.ClickCount;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface ClickCountRepository {
+
+  Optional<ClickCount> findById(Long urlId);
+
+  /**
+   * Removes the counts of purged urls.
+   */
+  int deleteCountsByUrlIdIn(Collection<Long> urlIds);
+}
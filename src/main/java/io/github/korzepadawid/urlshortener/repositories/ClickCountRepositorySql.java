@@ -0,0 +1,18 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import io.github.korzepadawid.urlshortener.models.ClickCount;
+import java.util.Collection;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ClickCountRepositorySql extends ClickCountRepository,
+    CrudRepository<ClickCount, Long> {
+
+  @Modifying
+  @Query("delete from ClickCount c where c.urlId in :urlIds")
+  int deleteCountsByUrlIdIn(@Param("urlIds") Collection<Long> urlIds);
+}
@@ -0,0 +1,13 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import io.github.korzepadawid.urlshortener.models.Url;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking lookups of the reactive profile. Writes stay with {@link UrlRepository}, so ids,
+ * deduplication and entity listeners keep working the same way on both stacks.
+ */
+public interface ReactiveUrlRepository {
+
+  Mono<Url> findById(long id);
+}
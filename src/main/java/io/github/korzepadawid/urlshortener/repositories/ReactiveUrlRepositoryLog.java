@@ -0,0 +1,27 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import io.github.korzepadawid.urlshortener.models.Url;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lookups of the reactive profile with the log storage. A lookup is an index probe and a single
+ * positional read, usually from the page cache, so it runs on the calling thread.
+ */
+@RequiredArgsConstructor
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@ConditionalOnProperty(prefix = "url-shortener.storage", name = "type", havingValue = "log")
+public class ReactiveUrlRepositoryLog implements ReactiveUrlRepository {
+
+  private final UrlRepositoryLog urlRepositoryLog;
+
+  @Override
+  public Mono<Url> findById(long id) {
+    return Mono.fromCallable(() -> urlRepositoryLog.findById(id).orElse(null));
+  }
+}
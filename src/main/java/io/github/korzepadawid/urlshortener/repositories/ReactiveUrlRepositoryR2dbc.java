@@ -0,0 +1,46 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.r2dbc.spi.Row;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@ConditionalOnProperty(prefix = "url-shortener.storage", name = "type", havingValue = "jpa",
+    matchIfMissing = true)
+public class ReactiveUrlRepositoryR2dbc implements ReactiveUrlRepository {
+
+  private static final String FIND_BY_ID = "select id, url, created_at, expiring_at,"
+      + " redirect_type, dedup_key from url where id = :id";
+
+  private final DatabaseClient databaseClient;
+
+  @Override
+  public Mono<Url> findById(long id) {
+    return databaseClient.sql(FIND_BY_ID)
+        .bind("id", id)
+        .map((row, metadata) -> toUrl(row))
+        .one();
+  }
+
+  private static Url toUrl(Row row) {
+    String redirectType = row.get("redirect_type", String.class);
+    return Url.builder()
+        .id(row.get("id", Long.class))
+        .url(row.get("url", String.class))
+        .createdAt(row.get("created_at", LocalDateTime.class))
+        .expiringAt(row.get("expiring_at", LocalDateTime.class))
+        .redirectType(redirectType == null ? null : RedirectType.valueOf(redirectType))
+        .dedupKey(row.get("dedup_key", String.class))
+        .build();
+  }
+}
@@ -0,0 +1,29 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import io.github.korzepadawid.urlshortener.models.Url;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Lookups of the reactive profile with the sharded storage. Shards are only reachable through
+ * JDBC, so lookups run on the bounded elastic scheduler.
+ */
+@RequiredArgsConstructor
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@ConditionalOnProperty(prefix = "url-shortener.storage", name = "type", havingValue = "sharded")
+public class ReactiveUrlRepositorySharded implements ReactiveUrlRepository {
+
+  private final UrlRepositorySharded urlRepositorySharded;
+
+  @Override
+  public Mono<Url> findById(long id) {
+    return Mono.fromCallable(() -> urlRepositorySharded.findById(id).orElse(null))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+}
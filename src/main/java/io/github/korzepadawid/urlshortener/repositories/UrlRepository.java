@@ -2,16 +2,39 @@ package io.github.korzepadawid.urlshortener.repositories;
 
 import io.github.korzepadawid.urlshortener.models.Url;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
 
 public interface UrlRepository {
 
   Url save(Url url);
 
-  Set<Url> findByUrl(String url);
+  <S extends Url> Iterable<S> saveAll(Iterable<S> urls);
+
+  Optional<Url> findByDedupKey(String dedupKey);
+
+  List<Url> findByDedupKeyIn(Collection<String> dedupKeys);
 
   Optional<Url> findById(Long id);
 
-  void deleteUrlsByExpiringAtBefore(LocalDateTime expiringAt);
+  List<Long> findExpiredIds(LocalDateTime expiringAt, Pageable pageable);
+
+  int deleteUrlsByIdIn(Collection<Long> ids);
+
+  long countByExpiringAtBefore(LocalDateTime expiringAt);
+
+  /**
+   * Live urls with ids greater than {@code afterId} in ascending id order, for keyset pagination.
+   */
+  List<Url> findLiveUrlsAfter(Long afterId, LocalDateTime now, Pageable pageable);
+
+  /**
+   * Random id given to the store the first time it's asked for. Files derived from its urls, like
+   * snapshots, are stamped with it, so ones derived from another store, e.g. before an in-memory
+   * database was recreated, can be told apart.
+   */
+  UUID getStoreId();
 }
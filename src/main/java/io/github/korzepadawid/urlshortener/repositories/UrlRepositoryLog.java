@@ -0,0 +1,174 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import io.github.korzepadawid.urlshortener.caches.LinkIndexListener;
+import io.github.korzepadawid.urlshortener.caches.LiveUrlFilterListener;
+import io.github.korzepadawid.urlshortener.config.UrlStorageProperties;
+import io.github.korzepadawid.urlshortener.config.WriteBehindProperties;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.storage.UrlLog;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+/**
+ * {@link UrlRepository} backed by the embedded {@link UrlLog}, selected with
+ * {@code url-shortener.storage.type=log}. Writes are applied as soon as the method returns, they
+ * don't take part in surrounding transactions.
+ */
+@Slf4j
+@Primary
+@Repository
+@ConditionalOnProperty(prefix = "url-shortener.storage", name = "type", havingValue = "log")
+public class UrlRepositoryLog implements UrlRepository {
+
+  private final UrlLog urlLog;
+  private final LiveUrlFilterListener liveUrlFilterListener;
+  private final LinkIndexListener linkIndexListener;
+
+  public UrlRepositoryLog(UrlStorageProperties urlStorageProperties,
+      WriteBehindProperties writeBehindProperties, LiveUrlFilterListener liveUrlFilterListener,
+      LinkIndexListener linkIndexListener) throws IOException {
+    if (writeBehindProperties.isEnabled()) {
+      throw new IllegalStateException("Write-behind creation needs the jpa url storage.");
+    }
+    this.urlLog = UrlLog.open(urlStorageProperties.getDirectory(),
+        urlStorageProperties.getSegmentSize().toBytes(), urlStorageProperties.isSyncWrites());
+    this.liveUrlFilterListener = liveUrlFilterListener;
+    this.linkIndexListener = linkIndexListener;
+  }
+
+  @Override
+  public Url save(Url url) {
+    if (url.getDedupKey() == null) {
+      url.setDedupKey(
+          Url.dedupKeyOf(url.getUrl(), url.getExpiringAt(), url.getRedirectType()));
+    }
+    if (url.getCreatedAt() == null) {
+      url.setCreatedAt(LocalDateTime.now());
+    }
+    boolean created = url.getId() == null || urlLog.get(url.getId()).isEmpty();
+
+    if (!access(() -> urlLog.put(url))) {
+      throw new DataIntegrityViolationException(
+          "Url violates the unique constraint " + Url.DEDUP_KEY_CONSTRAINT + ".");
+    }
+    if (created) {
+      liveUrlFilterListener.urlPersisted(url);
+      linkIndexListener.urlPersisted(url);
+    }
+    return url;
+  }
+
+  @Override
+  public <S extends Url> Iterable<S> saveAll(Iterable<S> urls) {
+    urls.forEach(this::save);
+    return urls;
+  }
+
+  @Override
+  public Optional<Url> findByDedupKey(String dedupKey) {
+    return urlLog.idOf(dedupKey).flatMap(this::findById);
+  }
+
+  @Override
+  public List<Url> findByDedupKeyIn(Collection<String> dedupKeys) {
+    return dedupKeys.stream()
+        .map(this::findByDedupKey)
+        .flatMap(Optional::stream)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Optional<Url> findById(Long id) {
+    return access(() -> urlLog.get(id));
+  }
+
+  @Override
+  public List<Long> findExpiredIds(LocalDateTime expiringAt, Pageable pageable) {
+    return page(urlLog.findIds(Long.MIN_VALUE,
+        urlExpiringAt -> urlExpiringAt != null && urlExpiringAt.isBefore(expiringAt),
+        (int) pageable.getOffset() + pageable.getPageSize()), pageable);
+  }
+
+  @Override
+  public int deleteUrlsByIdIn(Collection<Long> ids) {
+    return access(() -> (int) ids.stream().filter(urlLog::delete).count());
+  }
+
+  @Override
+  public long countByExpiringAtBefore(LocalDateTime expiringAt) {
+    return urlLog.count(urlExpiringAt -> urlExpiringAt != null
+        && urlExpiringAt.isBefore(expiringAt));
+  }
+
+  @Override
+  public UUID getStoreId() {
+    return urlLog.getStoreId();
+  }
+
+  @Override
+  public List<Url> findLiveUrlsAfter(Long afterId, LocalDateTime now, Pageable pageable) {
+    return findLiveIdsAfter(afterId, now, pageable).stream()
+        .map(this::findById)
+        .flatMap(Optional::stream)
+        .collect(Collectors.toList());
+  }
+
+  private List<Long> findLiveIdsAfter(Long afterId, LocalDateTime now, Pageable pageable) {
+    return page(urlLog.findIds(afterId,
+        urlExpiringAt -> urlExpiringAt == null || urlExpiringAt.isAfter(now),
+        (int) pageable.getOffset() + pageable.getPageSize()), pageable);
+  }
+
+  @Scheduled(initialDelayString = "${url-shortener.storage.compaction-interval-millis:3600000}",
+      fixedDelayString = "${url-shortener.storage.compaction-interval-millis:3600000}")
+  public void compact() {
+    try {
+      urlLog.compact(LocalDateTime.now());
+    } catch (IOException | RuntimeException exception) {
+      log.warn("Could not compact the url log, keeping its segments.", exception);
+    }
+  }
+
+  public int getStoredUrls() {
+    return urlLog.size();
+  }
+
+  public int getSegments() {
+    return urlLog.getSegmentCount();
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    urlLog.close();
+  }
+
+  private static <T> List<T> page(List<T> values, Pageable pageable) {
+    int from = (int) Math.min(pageable.getOffset(), values.size());
+    return values.subList(from, values.size());
+  }
+
+  private static <T> T access(Supplier<T> operation) {
+    try {
+      return operation.get();
+    } catch (UncheckedIOException exception) {
+      throw new DataAccessResourceFailureException(exception.getMessage(),
+          exception.getCause());
+    }
+  }
+}
@@ -0,0 +1,409 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.korzepadawid.urlshortener.caches.LinkIndexListener;
+import io.github.korzepadawid.urlshortener.caches.LiveUrlFilterListener;
+import io.github.korzepadawid.urlshortener.config.UrlShardingProperties;
+import io.github.korzepadawid.urlshortener.config.WriteBehindProperties;
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.models.UrlStore;
+import io.github.korzepadawid.urlshortener.writebehind.UrlIdAllocator;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link UrlRepository} spreading urls over several databases, selected with
+ * {@code url-shortener.storage.type=sharded}. The low {@code shard-bits} of an id hold its shard,
+ * so lookups by id, and by a decoded short code, go straight to one database. New urls are placed
+ * by the hash of their dedup key, so equal urls created concurrently meet the unique dedup key of
+ * the same shard. Dedup lookups still ask every shard, the shard a key picks moves whenever one
+ * is appended while the urls created before stay where they are. Ids come
+ * from the same sequence blocks as with JPA, shifted left to make room for the shard. Scans used
+ * by the purge and the rebuilds query all shards in parallel and merge the results by id.
+ */
+@Slf4j
+@Primary
+@Repository
+@ConditionalOnProperty(prefix = "url-shortener.storage", name = "type", havingValue = "sharded")
+public class UrlRepositorySharded implements UrlRepository {
+
+  private static final String COLUMNS =
+      "id, url, created_at, expiring_at, redirect_type, dedup_key";
+  private static final String INSERT_SQL = "insert into url (" + COLUMNS + ")"
+      + " values (?, ?, ?, ?, ?, ?)";
+  private static final String UPDATE_SQL = "update url set url = ?, created_at = ?,"
+      + " expiring_at = ?, redirect_type = ?, dedup_key = ? where id = ?";
+  private static final String SCHEMA = "db/url-schema.sql";
+
+  private static final RowMapper<Url> URL_ROW_MAPPER = (resultSet, rowNumber) -> toUrl(resultSet);
+
+  private final List<Shard> shards = new ArrayList<>();
+  private final int shardBits;
+  private final long shardMask;
+  private final ExecutorService executor;
+  private final UrlIdAllocator urlIdAllocator;
+  private final LiveUrlFilterListener liveUrlFilterListener;
+  private final LinkIndexListener linkIndexListener;
+
+  public UrlRepositorySharded(UrlShardingProperties urlShardingProperties,
+      WriteBehindProperties writeBehindProperties, UrlIdAllocator urlIdAllocator,
+      LiveUrlFilterListener liveUrlFilterListener, LinkIndexListener linkIndexListener) {
+    List<UrlShardingProperties.Shard> configuredShards = urlShardingProperties.getShards();
+    shardBits = urlShardingProperties.getShardBits();
+    if (configuredShards.isEmpty() || configuredShards.size() > 1 << shardBits) {
+      throw new IllegalStateException("Between 1 and " + (1 << shardBits)
+          + " shards have to be configured in url-shortener.sharding.shards.");
+    }
+    if (writeBehindProperties.isEnabled()) {
+      throw new IllegalStateException("Write-behind creation needs the jpa url storage.");
+    }
+    shardMask = (1L << shardBits) - 1;
+    this.urlIdAllocator = urlIdAllocator;
+    this.liveUrlFilterListener = liveUrlFilterListener;
+    this.linkIndexListener = linkIndexListener;
+
+    try {
+      for (int i = 0; i < configuredShards.size(); i++) {
+        shards.add(new Shard(i, configuredShards.get(i),
+            urlShardingProperties.isInitializeSchema()));
+      }
+    } catch (RuntimeException exception) {
+      shards.forEach(shard -> shard.dataSource.close());
+      throw exception;
+    }
+
+    // A shard query only runs while it holds a connection, so there is no use for more threads
+    // than the pools have connections, and no reason for concurrent requests to queue for fewer.
+    int connections = configuredShards.stream()
+        .mapToInt(UrlShardingProperties.Shard::getMaximumPoolSize)
+        .sum();
+    AtomicInteger threads = new AtomicInteger();
+    executor = Executors.newFixedThreadPool(connections, runnable -> {
+      Thread thread = new Thread(runnable, "url-shard-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    log.info("Spreading urls over {} shards.", shards.size());
+  }
+
+  @Override
+  public Url save(Url url) {
+    prepare(url);
+    boolean created = url.getId() == null;
+    if (created) {
+      Shard shard = shardFor(url.getDedupKey());
+      long id = idOn(shard);
+      shard.jdbcTemplate.getJdbcTemplate().update(INSERT_SQL, ps -> setInsert(ps, id, url));
+      url.setId(id);
+    } else {
+      Shard shard = shardOf(url.getId()).orElseThrow(() -> new IllegalArgumentException(
+          "Url " + url.getId() + " doesn't belong to any shard."));
+      created = shard.jdbcTemplate.getJdbcTemplate().update(UPDATE_SQL, ps -> {
+        setColumns(ps, 1, url);
+        ps.setLong(6, url.getId());
+      }) == 0;
+      if (created) {
+        shard.jdbcTemplate.getJdbcTemplate().update(INSERT_SQL,
+            ps -> setInsert(ps, url.getId(), url));
+      }
+    }
+
+    if (created) {
+      persisted(url);
+    }
+    return url;
+  }
+
+  /**
+   * New urls are inserted as one JDBC batch per shard, each shard in its own transaction. The
+   * shards commit independently of each other and of any surrounding transaction: when one fails
+   * the urls of the others stay saved.
+   */
+  @Override
+  public <S extends Url> Iterable<S> saveAll(Iterable<S> urls) {
+    Map<Shard, List<Url>> newUrlsByShard = new HashMap<>();
+    for (Url url : urls) {
+      if (url.getId() != null) {
+        save(url);
+        continue;
+      }
+      prepare(url);
+      Shard shard = shardFor(url.getDedupKey());
+      url.setId(idOn(shard));
+      newUrlsByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(url);
+    }
+
+    fanOut(newUrlsByShard.keySet(), shard -> {
+      List<Url> newUrls = newUrlsByShard.get(shard);
+      shard.transactionTemplate.executeWithoutResult(status ->
+          shard.jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, newUrls, newUrls.size(),
+              (ps, url) -> setInsert(ps, url.getId(), url)));
+      return null;
+    });
+    newUrlsByShard.values().forEach(newUrls -> newUrls.forEach(this::persisted));
+    return urls;
+  }
+
+  /**
+   * The oldest of the equal urls, should one have been created on two shards while nodes
+   * disagreed on the shard list.
+   */
+  @Override
+  public Optional<Url> findByDedupKey(String dedupKey) {
+    return fanOut(shards, shard -> shard.jdbcTemplate.getJdbcTemplate()
+        .query("select " + COLUMNS + " from url where dedup_key = ?", URL_ROW_MAPPER, dedupKey))
+        .stream()
+        .flatMap(List::stream)
+        .min(Comparator.comparing(Url::getId));
+  }
+
+  @Override
+  public List<Url> findByDedupKeyIn(Collection<String> dedupKeys) {
+    if (dedupKeys.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return new ArrayList<>(fanOut(shards, shard -> shard.jdbcTemplate.query(
+        "select " + COLUMNS + " from url where dedup_key in (:keys)",
+        Map.of("keys", dedupKeys), URL_ROW_MAPPER)).stream()
+        .flatMap(List::stream)
+        .collect(Collectors.toMap(Url::getDedupKey, Function.identity(),
+            BinaryOperator.minBy(Comparator.comparing(Url::getId))))
+        .values());
+  }
+
+  @Override
+  public Optional<Url> findById(Long id) {
+    return shardOf(id).flatMap(shard -> shard.jdbcTemplate.getJdbcTemplate()
+        .query("select " + COLUMNS + " from url where id = ?", URL_ROW_MAPPER, id)
+        .stream()
+        .findFirst());
+  }
+
+  @Override
+  public List<Long> findExpiredIds(LocalDateTime expiringAt, Pageable pageable) {
+    int limit = (int) pageable.getOffset() + pageable.getPageSize();
+    return page(fanOut(shards, shard -> shard.jdbcTemplate.getJdbcTemplate().queryForList(
+        "select id from url where expiring_at < ? order by id limit ?", Long.class,
+        expiringAt, limit)), Comparator.<Long>naturalOrder(), pageable);
+  }
+
+  @Override
+  public int deleteUrlsByIdIn(Collection<Long> ids) {
+    Map<Shard, List<Long>> idsByShard = new HashMap<>();
+    for (Long id : ids) {
+      shardOf(id).ifPresent(shard ->
+          idsByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(id));
+    }
+    return fanOut(idsByShard.keySet(), shard -> shard.jdbcTemplate.update(
+        "delete from url where id in (:ids)", Map.of("ids", idsByShard.get(shard)))).stream()
+        .mapToInt(Integer::intValue)
+        .sum();
+  }
+
+  @Override
+  public long countByExpiringAtBefore(LocalDateTime expiringAt) {
+    return fanOut(shards, shard -> shard.jdbcTemplate.getJdbcTemplate().queryForObject(
+        "select count(*) from url where expiring_at < ?", Long.class, expiringAt)).stream()
+        .mapToLong(Long::longValue)
+        .sum();
+  }
+
+  /**
+   * Kept by the first shard, the one every shard list starts with.
+   */
+  @Override
+  public UUID getStoreId() {
+    JdbcTemplate jdbcTemplate = shards.get(0).jdbcTemplate.getJdbcTemplate();
+    String selectSql = "select store_id from url_store where id = " + UrlStore.ID;
+    List<String> storeIds = jdbcTemplate.queryForList(selectSql, String.class);
+    if (storeIds.isEmpty()) {
+      try {
+        jdbcTemplate.update("insert into url_store (id, store_id) values (?, ?)", UrlStore.ID,
+            UUID.randomUUID().toString());
+      } catch (DataIntegrityViolationException exception) {
+        // Another node stored its id first.
+      }
+      storeIds = jdbcTemplate.queryForList(selectSql, String.class);
+    }
+    return UUID.fromString(DataAccessUtils.requiredSingleResult(storeIds));
+  }
+
+  @Override
+  public List<Url> findLiveUrlsAfter(Long afterId, LocalDateTime now, Pageable pageable) {
+    int limit = (int) pageable.getOffset() + pageable.getPageSize();
+    return page(fanOut(shards, shard -> shard.jdbcTemplate.getJdbcTemplate().query(
+        "select " + COLUMNS + " from url where id > ?"
+            + " and (expiring_at is null or expiring_at > ?) order by id limit ?",
+        URL_ROW_MAPPER, afterId, now, limit)), Comparator.comparing(Url::getId), pageable);
+  }
+
+  public int getShardCount() {
+    return shards.size();
+  }
+
+  /**
+   * Shard holding the url with the given id, empty for ids whose tag names no shard.
+   */
+  public Optional<Integer> shardTagOf(long id) {
+    int tag = (int) (id & shardMask);
+    return tag < shards.size() ? Optional.of(tag) : Optional.empty();
+  }
+
+  @PreDestroy
+  public void close() {
+    executor.shutdown();
+    shards.forEach(shard -> shard.dataSource.close());
+  }
+
+  private Optional<Shard> shardOf(Long id) {
+    return shardTagOf(id).map(shards::get);
+  }
+
+  private Shard shardFor(String dedupKey) {
+    return shards.get(Math.floorMod(dedupKey.hashCode(), shards.size()));
+  }
+
+  private long idOn(Shard shard) {
+    return urlIdAllocator.nextId() << shardBits | shard.tag;
+  }
+
+  private void prepare(Url url) {
+    if (url.getDedupKey() == null) {
+      url.setDedupKey(
+          Url.dedupKeyOf(url.getUrl(), url.getExpiringAt(), url.getRedirectType()));
+    }
+    if (url.getCreatedAt() == null) {
+      url.setCreatedAt(LocalDateTime.now());
+    }
+  }
+
+  private void persisted(Url url) {
+    liveUrlFilterListener.urlPersisted(url);
+    linkIndexListener.urlPersisted(url);
+  }
+
+  private <T> List<T> fanOut(Collection<Shard> targets, Function<Shard, T> query) {
+    if (targets.size() == 1) {
+      return Collections.singletonList(query.apply(targets.iterator().next()));
+    }
+    List<Future<T>> futures = targets.stream()
+        .map(shard -> executor.submit(() -> query.apply(shard)))
+        .collect(Collectors.toList());
+    List<T> results = new ArrayList<>(futures.size());
+    try {
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while querying the shards.", exception);
+    } catch (ExecutionException exception) {
+      if (exception.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exception.getCause();
+      }
+      throw new IllegalStateException(exception.getCause());
+    }
+    return results;
+  }
+
+  private static <T> List<T> page(List<List<T>> perShard, Comparator<T> order,
+      Pageable pageable) {
+    return perShard.stream()
+        .flatMap(List::stream)
+        .sorted(order)
+        .skip(pageable.getOffset())
+        .limit(pageable.getPageSize())
+        .collect(Collectors.toList());
+  }
+
+  private static void setInsert(PreparedStatement ps, long id, Url url) throws SQLException {
+    ps.setLong(1, id);
+    setColumns(ps, 2, url);
+  }
+
+  private static void setColumns(PreparedStatement ps, int first, Url url) throws SQLException {
+    ps.setString(first, url.getUrl());
+    ps.setObject(first + 1, url.getCreatedAt());
+    if (url.getExpiringAt() == null) {
+      ps.setNull(first + 2, Types.TIMESTAMP);
+    } else {
+      ps.setObject(first + 2, url.getExpiringAt());
+    }
+    ps.setString(first + 3, url.getRedirectType() == null ? null : url.getRedirectType().name());
+    ps.setString(first + 4, url.getDedupKey());
+  }
+
+  private static Url toUrl(ResultSet resultSet) throws SQLException {
+    String redirectType = resultSet.getString("redirect_type");
+    return Url.builder()
+        .id(resultSet.getLong("id"))
+        .url(resultSet.getString("url"))
+        .createdAt(resultSet.getObject("created_at", LocalDateTime.class))
+        .expiringAt(resultSet.getObject("expiring_at", LocalDateTime.class))
+        .redirectType(redirectType == null ? null : RedirectType.valueOf(redirectType))
+        .dedupKey(resultSet.getString("dedup_key"))
+        .build();
+  }
+
+  private static final class Shard {
+
+    private final int tag;
+    private final HikariDataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private Shard(int tag, UrlShardingProperties.Shard properties, boolean initializeSchema) {
+      this.tag = tag;
+      dataSource = DataSourceBuilder.create()
+          .type(HikariDataSource.class)
+          .url(properties.getUrl())
+          .username(properties.getUsername())
+          .password(properties.getPassword())
+          .build();
+      dataSource.setPoolName("url-shard-" + tag);
+      dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+      if (initializeSchema) {
+        new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)).execute(dataSource);
+      }
+      jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+      transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+  }
+}
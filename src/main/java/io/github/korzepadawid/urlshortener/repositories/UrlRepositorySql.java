@@ -1,15 +1,71 @@
 package io.github.korzepadawid.urlshortener.repositories;
 
 import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.models.UrlStore;
 import java.time.LocalDateTime;
-import java.util.Set;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface UrlRepositorySql extends UrlRepository, CrudRepository<Url, Long> {
 
-  Set<Url> findByUrl(String url);
+  /**
+   * Read-only, may be answered by a replica. A url missed because of replica lag is caught by the
+   * unique dedup key on insert.
+   */
+  @Transactional(readOnly = true)
+  Optional<Url> findByDedupKey(String dedupKey);
 
-  void deleteUrlsByExpiringAtBefore(LocalDateTime expiringAt);
+  List<Url> findByDedupKeyIn(Collection<String> dedupKeys);
+
+  @Query("select u.id from Url u where u.expiringAt < :expiringAt")
+  List<Long> findExpiredIds(@Param("expiringAt") LocalDateTime expiringAt, Pageable pageable);
+
+  @Modifying
+  @Query("delete from Url u where u.id in :ids")
+  int deleteUrlsByIdIn(@Param("ids") Collection<Long> ids);
+
+  long countByExpiringAtBefore(LocalDateTime expiringAt);
+
+  @Query("select u from Url u where u.id > :afterId"
+      + " and (u.expiringAt is null or u.expiringAt > :now) order by u.id")
+  List<Url> findLiveUrlsAfter(@Param("afterId") Long afterId, @Param("now") LocalDateTime now,
+      Pageable pageable);
+
+  /**
+   * Reads and inserts on the primary, a replica may not have the row yet.
+   */
+  @Override
+  default UUID getStoreId() {
+    return findStoreId().map(UUID::fromString).orElseGet(() -> {
+      try {
+        insertStoreId(UUID.randomUUID().toString());
+      } catch (DataIntegrityViolationException exception) {
+        // Another node stored its id first.
+      }
+      return findStoreId().map(UUID::fromString).orElseThrow(() ->
+          new EmptyResultDataAccessException("The url store has no id.", 1));
+    });
+  }
+
+  @Transactional
+  @Query(value = "select store_id from url_store where id = " + UrlStore.ID, nativeQuery = true)
+  Optional<String> findStoreId();
+
+  @Transactional
+  @Modifying
+  @Query(value = "insert into url_store (id, store_id) values (" + UrlStore.ID + ", :storeId)",
+      nativeQuery = true)
+  void insertStoreId(@Param("storeId") String storeId);
 }
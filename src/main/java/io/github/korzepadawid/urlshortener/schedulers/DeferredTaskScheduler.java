@@ -0,0 +1,67 @@
+package io.github.korzepadawid.urlshortener.schedulers;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.ScheduledFuture;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+/**
+ * Task scheduler holding back the first run of every periodic task until {@code startDelay} after
+ * it was scheduled, so the work of scheduled jobs doesn't compete with the first requests.
+ */
+public class DeferredTaskScheduler extends ThreadPoolTaskScheduler {
+
+  private final long startDelayMillis;
+
+  public DeferredTaskScheduler(Duration startDelay) {
+    this.startDelayMillis = startDelay.toMillis();
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+    Date notBefore = notBefore();
+    return super.schedule(task, triggerContext -> {
+      Date next = trigger.nextExecutionTime(triggerContext);
+      // Skips the executions due before the delay has passed, e.g. of cron triggers.
+      while (next != null && next.before(notBefore)) {
+        next = trigger.nextExecutionTime(new SimpleTriggerContext(next, next, next));
+      }
+      return next;
+    });
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+    return super.scheduleAtFixedRate(task, later(startTime, notBefore()), period);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+    return startDelayMillis > 0
+        ? super.scheduleAtFixedRate(task, notBefore(), period)
+        : super.scheduleAtFixedRate(task, period);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+    return super.scheduleWithFixedDelay(task, later(startTime, notBefore()), delay);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+    return startDelayMillis > 0
+        ? super.scheduleWithFixedDelay(task, notBefore(), delay)
+        : super.scheduleWithFixedDelay(task, delay);
+  }
+
+  private Date notBefore() {
+    return new Date(System.currentTimeMillis() + startDelayMillis);
+  }
+
+  private static Date later(Date first, Date second) {
+    return first.after(second) ? first : second;
+  }
+}
@@ -1,12 +1,21 @@
 package io.github.korzepadawid.urlshortener.schedulers;
 
+import io.github.korzepadawid.urlshortener.config.PurgeProperties;
+import io.github.korzepadawid.urlshortener.expiry.UrlExpiryTracker;
+import io.github.korzepadawid.urlshortener.metrics.RequestLatencyMonitor;
+import io.github.korzepadawid.urlshortener.repositories.ClickCountRepository;
 import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -14,11 +23,149 @@ import org.springframework.transaction.annotation.Transactional;
 public class DeleteExpiredUrlsScheduler {
 
   private final UrlRepository urlRepository;
+  private final ClickCountRepository clickCountRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final UrlExpiryTracker urlExpiryTracker;
+  private final RequestLatencyMonitor requestLatencyMonitor;
+  private final PurgeProperties purgeProperties;
 
-  @Transactional
-  @Scheduled(cron = "0 * * * * *") // Every minute.
+  private final AtomicLong purgedUrls = new AtomicLong();
+  private final AtomicLong lastChunkDurationNanos = new AtomicLong();
+  private final AtomicLong backlog = new AtomicLong();
+  private final AtomicLong lastRunDurationNanos = new AtomicLong();
+  private final AtomicLong lastRunPurgedUrls = new AtomicLong();
+
+  /**
+   * Deletes urls which expired on this node, reported by {@link UrlExpiryTracker}.
+   */
+  @Scheduled(fixedDelayString = "${url-shortener.purge.tracked-interval-millis:5000}")
+  public void deleteTrackedExpiredUrls() {
+    long purgedInRun = 0;
+
+    try {
+      for (int chunk = 0; chunk < purgeProperties.getMaxChunksPerRun(); chunk++) {
+        if (!urlExpiryTracker.hasExpiredIds()) {
+          break;
+        }
+        if (chunk > 0) {
+          Thread.sleep(purgeProperties.getPauseBetweenChunks().toMillis());
+        }
+        // Checked before draining, ids left in the tracker are deleted by the next run.
+        if (!waitForNormalLatency()) {
+          log.warn("Request latency is high, tracked expired URLs will be removed in the next"
+              + " run.");
+          break;
+        }
+        purgedInRun += deleteChunk(
+            () -> urlExpiryTracker.drainExpiredIds(purgeProperties.getChunkSize()));
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+
+    if (purgedInRun > 0) {
+      log.info("Removed " + purgedInRun + " tracked expired URLs.");
+    }
+  }
+
+  /**
+   * Safety net for urls that weren't tracked on this node, e.g. created by other nodes.
+   */
+  @Scheduled(cron = "${url-shortener.purge.cron:0 */15 * * * *}") // Every 15 minutes by default.
   public void deleteExpiredUrls() {
-    log.warn("I'm going to remove expired URLs.");
-    urlRepository.deleteUrlsByExpiringAtBefore(LocalDateTime.now());
+    long start = System.nanoTime();
+    LocalDateTime now = LocalDateTime.now();
+    int chunkSize = purgeProperties.getChunkSize();
+    long purgedInRun = 0;
+
+    try {
+      for (int chunk = 0; chunk < purgeProperties.getMaxChunksPerRun(); chunk++) {
+        if (chunk > 0) {
+          Thread.sleep(purgeProperties.getPauseBetweenChunks().toMillis());
+        }
+        if (!waitForNormalLatency()) {
+          log.warn("Request latency is high, expired URLs will be removed in the next run.");
+          break;
+        }
+
+        int deleted = deleteChunk(
+            () -> urlRepository.findExpiredIds(now, PageRequest.of(0, chunkSize)));
+        purgedInRun += deleted;
+
+        if (deleted < chunkSize) {
+          break;
+        }
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+
+    backlog.set(urlRepository.countByExpiringAtBefore(now));
+    lastRunPurgedUrls.set(purgedInRun);
+    lastRunDurationNanos.set(System.nanoTime() - start);
+    log.info("Removed " + purgedInRun + " expired URLs, " + backlog.get() + " left.");
+  }
+
+  /**
+   * Total number of expired urls deleted since startup.
+   */
+  public long getPurgedUrls() {
+    return purgedUrls.get();
+  }
+
+  public Duration getLastChunkDuration() {
+    return Duration.ofNanos(lastChunkDurationNanos.get());
+  }
+
+  /**
+   * Duration of the last periodic scan, including pauses and throttling.
+   */
+  public Duration getLastRunDuration() {
+    return Duration.ofNanos(lastRunDurationNanos.get());
+  }
+
+  public long getLastRunPurgedUrls() {
+    return lastRunPurgedUrls.get();
+  }
+
+  /**
+   * Expired urls which were still in the database at the end of the last run.
+   */
+  public long getBacklog() {
+    return backlog.get();
+  }
+
+  private int deleteChunk(Supplier<List<Long>> expiredIds) {
+    long start = System.nanoTime();
+
+    Integer deleted = transactionTemplate.execute(status -> {
+      List<Long> ids = expiredIds.get();
+      if (ids.isEmpty()) {
+        return 0;
+      }
+      clickCountRepository.deleteCountsByUrlIdIn(ids);
+      return urlRepository.deleteUrlsByIdIn(ids);
+    });
+
+    lastChunkDurationNanos.set(System.nanoTime() - start);
+    int deletedUrls = deleted == null ? 0 : deleted;
+    purgedUrls.addAndGet(deletedUrls);
+    return deletedUrls;
+  }
+
+  private boolean waitForNormalLatency() throws InterruptedException {
+    Duration pause = purgeProperties.getThrottleBackoff();
+
+    for (int attempt = 0; attempt < purgeProperties.getThrottleAttempts(); attempt++) {
+      if (requestLatencyMonitor.sampleAverageLatency()
+          .compareTo(purgeProperties.getLatencyThreshold()) <= 0) {
+        return true;
+      }
+      Thread.sleep(pause.toMillis());
+      pause = pause.multipliedBy(2);
+    }
+
+    return requestLatencyMonitor.sampleAverageLatency()
+        .compareTo(purgeProperties.getLatencyThreshold()) <= 0;
   }
 }
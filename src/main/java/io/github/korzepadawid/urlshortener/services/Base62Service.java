@@ -1,8 +1,23 @@
 package io.github.korzepadawid.urlshortener.services;
 
+import java.util.OptionalLong;
+
 public interface Base62Service {
 
-  String encode(Long number);
+  String encode(long number);
+
+  long decodeLong(String string);
+
+  /**
+   * Like {@link #decodeLong(String)}, but reports invalid strings without throwing.
+   */
+  OptionalLong tryDecode(String string);
+
+  default String encode(Long number) {
+    return encode(number.longValue());
+  }
 
-  Long decode(String string);
+  default Long decode(String string) {
+    return decodeLong(string);
+  }
 }
@@ -1,53 +1,133 @@
 package io.github.korzepadawid.urlshortener.services;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.OptionalLong;
 import org.springframework.stereotype.Service;
 
 @Service
 public class Base62ServiceImpl implements Base62Service {
 
-  private static final String BASE62 = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+  public static final String CODEC_METRIC = "urlshortener.codec.calls";
+
+  private static final char[] BASE62 =
+      "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+  private static final int RADIX = BASE62.length;
+  // 62^11 > Long.MAX_VALUE, so no non-negative long needs more digits.
+  private static final int MAX_LENGTH = 11;
+  private static final byte[] DIGITS = new byte[128];
+  private static final long INVALID_CHARACTERS = -1;
+  private static final long OUT_OF_RANGE = -2;
+
+  static {
+    Arrays.fill(DIGITS, (byte) -1);
+    for (int i = 0; i < BASE62.length; i++) {
+      DIGITS[BASE62[i]] = (byte) i;
+    }
+  }
+
+  private final Counter encodes;
+  private final Counter encodeFailures;
+  private final Counter decodes;
+  private final Counter decodeFailures;
+
+  public Base62ServiceImpl(MeterRegistry meterRegistry) {
+    this.encodes = codecCounter(meterRegistry, "encode", "success");
+    this.encodeFailures = codecCounter(meterRegistry, "encode", "failure");
+    this.decodes = codecCounter(meterRegistry, "decode", "success");
+    this.decodeFailures = codecCounter(meterRegistry, "decode", "failure");
+  }
 
   @Override
-  public String encode(Long id) {
+  public String encode(long id) {
     if (id < 0) {
+      encodeFailures.increment();
       throw new IllegalArgumentException(
           "Invalid parameter: " + id + ". Number must be greater than or equal to zero.");
     }
 
-    if (id == 0) {
-      return String.valueOf(BASE62.charAt(0));
-    }
-
-    StringBuilder resultBuilder = new StringBuilder();
+    char[] buffer = new char[MAX_LENGTH];
+    int position = MAX_LENGTH;
     long number = id;
 
-    while (number > 0) {
-      resultBuilder.insert(0, BASE62.charAt((int) (number % 62)));
-      number /= 62;
-    }
+    do {
+      buffer[--position] = BASE62[(int) (number % RADIX)];
+      number /= RADIX;
+    } while (number > 0);
 
-    return resultBuilder.toString();
+    encodes.increment();
+    return new String(buffer, position, MAX_LENGTH - position);
   }
 
   @Override
-  public Long decode(String string) {
-    Pattern pattern = Pattern.compile("^[0-9a-zA-Z]+$");
-    Matcher matcher = pattern.matcher(string);
+  public long decodeLong(String string) {
+    long result = parse(string);
 
-    if (!matcher.matches()) {
+    if (result == INVALID_CHARACTERS) {
+      decodeFailures.increment();
       throw new IllegalArgumentException(
           "Invalid parameter: " + string + ". It doesn't match pattern ^[0-9a-zA-Z]+$");
     }
+    if (result == OUT_OF_RANGE) {
+      decodeFailures.increment();
+      throw new IllegalArgumentException(
+          "Invalid parameter: " + string + ". Number exceeds the range of long.");
+    }
+
+    decodes.increment();
+    return result;
+  }
+
+  @Override
+  public OptionalLong tryDecode(String string) {
+    long result = parse(string);
+
+    if (result < 0) {
+      decodeFailures.increment();
+      return OptionalLong.empty();
+    }
+
+    decodes.increment();
+    return OptionalLong.of(result);
+  }
+
+  /**
+   * Decoded number, or one of the negative error codes.
+   */
+  private static long parse(String string) {
+    int length = string.length();
+
+    if (length == 0) {
+      return INVALID_CHARACTERS;
+    }
 
     long result = 0L;
 
-    for (int i = 0; i < string.length(); i++) {
-      int exponent = string.length() - i - 1;
-      result += (long) BASE62.indexOf(string.charAt(i)) * (Math.pow(62, exponent));
+    for (int i = 0; i < length; i++) {
+      char character = string.charAt(i);
+      int digit = character < DIGITS.length ? DIGITS[character] : -1;
+
+      if (digit < 0) {
+        return INVALID_CHARACTERS;
+      }
+
+      if (result > (Long.MAX_VALUE - digit) / RADIX) {
+        return OUT_OF_RANGE;
+      }
+
+      result = result * RADIX + digit;
     }
 
     return result;
   }
+
+  private static Counter codecCounter(MeterRegistry meterRegistry, String operation,
+      String outcome) {
+    return Counter.builder(CODEC_METRIC)
+        .description("Base62 encodings and decodings of url ids")
+        .tag("operation", operation)
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
 }
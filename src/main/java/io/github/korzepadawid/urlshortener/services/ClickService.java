@@ -0,0 +1,11 @@
+package io.github.korzepadawid.urlshortener.services;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.ClickCountReadDto;
+
+public interface ClickService {
+
+  /**
+   * Flushed clicks of a live url, clicks still aggregated by the pipeline aren't included.
+   */
+  ClickCountReadDto getClicks(String encodedId);
+}
@@ -0,0 +1,33 @@
+package io.github.korzepadawid.urlshortener.services;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.ClickCountReadDto;
+import io.github.korzepadawid.urlshortener.exceptions.ResourceNotFoundException;
+import io.github.korzepadawid.urlshortener.models.ClickCount;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.ClickCountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@RequiredArgsConstructor
+@Service
+public class ClickServiceImpl implements ClickService {
+
+  private final UrlService urlService;
+  private final ClickCountRepository clickCountRepository;
+  private final Base62Service base62Service;
+
+  @Override
+  public ClickCountReadDto getClicks(String encodedId) {
+    Url url = urlService.findRedirectUrl(encodedId)
+        .orElseThrow(() -> new ResourceNotFoundException(
+            "Invalid encoded id: " + encodedId + ". Url not found."));
+    long clicks = clickCountRepository.findById(url.getId())
+        .map(ClickCount::getClicks)
+        .orElse(0L);
+
+    return ClickCountReadDto.builder()
+        .shortUrl("/" + base62Service.encode(url.getId().longValue()))
+        .clicks(clicks)
+        .build();
+  }
+}
@@ -0,0 +1,12 @@
+package io.github.korzepadawid.urlshortener.services;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.HotLinkReadDto;
+import java.util.List;
+
+public interface HotLinkService {
+
+  /**
+   * Most redirected urls within the sliding window, the limit is clamped to the configured range.
+   */
+  List<HotLinkReadDto> getTopLinks(int limit);
+}
@@ -0,0 +1,30 @@
+package io.github.korzepadawid.urlshortener.services;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.HotLinkReadDto;
+import io.github.korzepadawid.urlshortener.config.HotLinkProperties;
+import io.github.korzepadawid.urlshortener.hotlinks.HotLinkTracker;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@RequiredArgsConstructor
+@Service
+public class HotLinkServiceImpl implements HotLinkService {
+
+  private final HotLinkTracker hotLinkTracker;
+  private final HotLinkProperties hotLinkProperties;
+  private final Base62Service base62Service;
+
+  @Override
+  public List<HotLinkReadDto> getTopLinks(int limit) {
+    int clampedLimit = Math.max(1, Math.min(limit, hotLinkProperties.getMaxLimit()));
+
+    return hotLinkTracker.top(clampedLimit).stream()
+        .map(hotLink -> HotLinkReadDto.builder()
+            .shortUrl("/" + base62Service.encode(hotLink.getKey().longValue()))
+            .hits(hotLink.getValue())
+            .build())
+        .collect(Collectors.toList());
+  }
+}
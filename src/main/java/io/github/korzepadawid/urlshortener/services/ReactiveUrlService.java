@@ -0,0 +1,19 @@
+package io.github.korzepadawid.urlshortener.services;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
+import io.github.korzepadawid.urlshortener.models.Url;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link UrlService} used by the reactive profile. Missing, expired
+ * or malformed codes complete empty.
+ */
+public interface ReactiveUrlService {
+
+  Mono<UrlReadDto> createUrl(UrlWriteDto urlWriteDto);
+
+  Mono<UrlReadDto> findUrl(String encodedId);
+
+  Mono<Url> findRedirectUrl(String encodedId);
+}
@@ -0,0 +1,51 @@
+package io.github.korzepadawid.urlshortener.services;
+
+import io.github.korzepadawid.urlshortener.api.v1.mappers.UrlMapper;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.ReactiveUrlRepository;
+import java.util.OptionalLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@RequiredArgsConstructor
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveUrlServiceImpl implements ReactiveUrlService {
+
+  private final ReactiveUrlRepository reactiveUrlRepository;
+  private final UrlService urlService;
+  private final Base62Service base62Service;
+  private final UrlMapper urlMapper;
+  private final UrlLookup urlLookup;
+
+  /**
+   * Creation is rare next to redirects, it reuses the JPA path on the bounded elastic scheduler
+   * instead of allocating ids and deduplicating a second time.
+   */
+  @Override
+  public Mono<UrlReadDto> createUrl(UrlWriteDto urlWriteDto) {
+    return Mono.fromCallable(() -> urlService.createUrl(urlWriteDto))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  @Override
+  public Mono<UrlReadDto> findUrl(String encodedId) {
+    return findRedirectUrl(encodedId).map(urlMapper::convertUrlToUrlReadDto);
+  }
+
+  @Override
+  public Mono<Url> findRedirectUrl(String encodedId) {
+    OptionalLong optionalId = base62Service.tryDecode(encodedId);
+    if (optionalId.isEmpty()) {
+      return Mono.empty();
+    }
+
+    return urlLookup.findReactively(optionalId.getAsLong(), reactiveUrlRepository::findById);
+  }
+}
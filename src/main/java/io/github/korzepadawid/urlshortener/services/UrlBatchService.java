@@ -0,0 +1,14 @@
+package io.github.korzepadawid.urlshortener.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface UrlBatchService {
+
+  /**
+   * Reads {@code UrlWriteDto}s (NDJSON or a JSON array) and writes one NDJSON line per item, in
+   * input order: the created {@code UrlReadDto} or a {@code RestException} describing the error.
+   */
+  void createUrls(InputStream urlWriteDtos, OutputStream results) throws IOException;
+}
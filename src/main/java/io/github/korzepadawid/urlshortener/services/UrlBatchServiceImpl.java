@@ -0,0 +1,137 @@
+package io.github.korzepadawid.urlshortener.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.korzepadawid.urlshortener.api.v1.models.RestException;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
+import io.github.korzepadawid.urlshortener.config.UrlBatchProperties;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class UrlBatchServiceImpl implements UrlBatchService {
+
+  private static final int NEW_LINE = '\n';
+
+  private final UrlService urlService;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final UrlBatchProperties urlBatchProperties;
+
+  @Override
+  public void createUrls(InputStream urlWriteDtos, OutputStream results) throws IOException {
+    int chunkSize = urlBatchProperties.getChunkSize();
+    // Every item has a slot; valid ones are filled in once their chunk has been saved.
+    List<Object> chunkResults = new ArrayList<>(chunkSize);
+    List<UrlWriteDto> validUrls = new ArrayList<>(chunkSize);
+    List<Integer> validUrlPositions = new ArrayList<>(chunkSize);
+
+    try (MappingIterator<UrlWriteDto> iterator = objectMapper.readerFor(UrlWriteDto.class)
+        .readValues(urlWriteDtos)) {
+      while (iterator.hasNextValue()) {
+        UrlWriteDto urlWriteDto = iterator.nextValue();
+        Map<String, String> errors = validate(urlWriteDto);
+
+        if (errors.isEmpty()) {
+          validUrls.add(urlWriteDto);
+          validUrlPositions.add(chunkResults.size());
+          chunkResults.add(null);
+        } else {
+          chunkResults.add(error("Validation error.", HttpStatus.BAD_REQUEST, errors));
+        }
+
+        if (chunkResults.size() == chunkSize) {
+          flushChunk(chunkResults, validUrls, validUrlPositions, results);
+        }
+      }
+    } catch (JsonProcessingException exception) {
+      // The rest of the stream can't be parsed reliably, report what we have and stop.
+      flushChunk(chunkResults, validUrls, validUrlPositions, results);
+      writeLine(error("JSON Parse error.", HttpStatus.BAD_REQUEST, null), results);
+      results.flush();
+      return;
+    }
+
+    flushChunk(chunkResults, validUrls, validUrlPositions, results);
+  }
+
+  private void flushChunk(List<Object> chunkResults, List<UrlWriteDto> validUrls,
+      List<Integer> validUrlPositions, OutputStream results) throws IOException {
+    if (!validUrls.isEmpty()) {
+      try {
+        List<UrlReadDto> createdUrls = urlService.createUrls(validUrls);
+        for (int i = 0; i < createdUrls.size(); i++) {
+          chunkResults.set(validUrlPositions.get(i), createdUrls.get(i));
+        }
+      } catch (DataIntegrityViolationException exception) {
+        // A url of the chunk has been created concurrently, only that one should fail.
+        log.debug("Chunk of {} urls hit a conflict, saving them one by one.", validUrls.size());
+        for (int i = 0; i < validUrls.size(); i++) {
+          chunkResults.set(validUrlPositions.get(i), createUrl(validUrls.get(i)));
+        }
+      } catch (DataAccessException exception) {
+        log.error("Could not save a chunk of " + validUrls.size() + " urls.", exception);
+        RestException restException = error("Could not save url.",
+            HttpStatus.INTERNAL_SERVER_ERROR, null);
+        validUrlPositions.forEach(position -> chunkResults.set(position, restException));
+      }
+    }
+
+    for (Object result : chunkResults) {
+      writeLine(result, results);
+    }
+    results.flush();
+
+    chunkResults.clear();
+    validUrls.clear();
+    validUrlPositions.clear();
+  }
+
+  private Object createUrl(UrlWriteDto urlWriteDto) {
+    try {
+      return urlService.createUrl(urlWriteDto);
+    } catch (DataAccessException exception) {
+      log.error("Could not save url " + urlWriteDto.getUrl() + ".", exception);
+      return error("Could not save url.", HttpStatus.INTERNAL_SERVER_ERROR, null);
+    }
+  }
+
+  private Map<String, String> validate(UrlWriteDto urlWriteDto) {
+    if (urlWriteDto == null) {
+      return Map.of("url", "Url can't be blank.");
+    }
+    Set<ConstraintViolation<UrlWriteDto>> violations = validator.validate(urlWriteDto);
+    Map<String, String> errors = new HashMap<>();
+    violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(),
+        violation.getMessage()));
+    return errors;
+  }
+
+  private void writeLine(Object result, OutputStream results) throws IOException {
+    results.write(objectMapper.writeValueAsBytes(result));
+    results.write(NEW_LINE);
+  }
+
+  private static RestException error(String message, HttpStatus httpStatus,
+      Map<String, String> details) {
+    return new RestException(message, httpStatus.value(), details);
+  }
+}
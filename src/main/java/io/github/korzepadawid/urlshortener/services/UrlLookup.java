@@ -0,0 +1,85 @@
+package io.github.korzepadawid.urlshortener.services;
+
+import io.github.korzepadawid.urlshortener.caches.LinkIndex;
+import io.github.korzepadawid.urlshortener.caches.LiveUrlFilter;
+import io.github.korzepadawid.urlshortener.caches.UrlCache;
+import io.github.korzepadawid.urlshortener.expiry.UrlExpiryTracker;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.snapshots.UrlSnapshots;
+import io.github.korzepadawid.urlshortener.writebehind.UrlWriteBehind;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.LongFunction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Redirect lookup shared by the servlet and the reactive services. An id is looked up in the
+ * cache, the snapshot, the link index and the write-behind queue, and passed by the live-url
+ * filter before the url store is asked. A url the store returns is cached and tracked for expiry,
+ * an id it doesn't know is remembered as missing.
+ */
+@RequiredArgsConstructor
+@Component
+public class UrlLookup {
+
+  private final UrlCache urlCache;
+  private final UrlExpiryTracker urlExpiryTracker;
+  private final LiveUrlFilter liveUrlFilter;
+  private final UrlSnapshots urlSnapshots;
+  private final LinkIndex linkIndex;
+  private final UrlWriteBehind urlWriteBehind;
+
+  public Optional<Url> find(long id, LongFunction<Optional<Url>> store) {
+    Optional<Url> localUrl = findLocally(id);
+    if (localUrl.isPresent()) {
+      return localUrl.filter(UrlLookup::isNotExpired);
+    }
+    if (!liveUrlFilter.mightExist(id)) {
+      return Optional.empty();
+    }
+
+    Optional<Url> storedUrl = store.apply(id).filter(UrlLookup::isNotExpired);
+    if (storedUrl.isPresent()) {
+      remember(storedUrl.get());
+    } else {
+      liveUrlFilter.markMissing(id);
+    }
+    return storedUrl;
+  }
+
+  public Mono<Url> findReactively(long id, LongFunction<Mono<Url>> store) {
+    Optional<Url> localUrl = findLocally(id);
+    if (localUrl.isPresent()) {
+      return Mono.justOrEmpty(localUrl.filter(UrlLookup::isNotExpired));
+    }
+    if (!liveUrlFilter.mightExist(id)) {
+      return Mono.empty();
+    }
+
+    return store.apply(id)
+        .filter(UrlLookup::isNotExpired)
+        .doOnNext(this::remember)
+        .switchIfEmpty(Mono.fromRunnable(() -> liveUrlFilter.markMissing(id)));
+  }
+
+  public void remember(Url url) {
+    urlCache.put(url);
+    urlExpiryTracker.track(url);
+  }
+
+  /**
+   * The url as this node knows it, expired or not.
+   */
+  private Optional<Url> findLocally(long id) {
+    return urlCache.get(id)
+        .or(() -> urlSnapshots.find(id))
+        .or(() -> linkIndex.find(id))
+        .or(() -> urlWriteBehind.findQueued(id));
+  }
+
+  private static boolean isNotExpired(Url url) {
+    return url.getExpiringAt() == null || url.getExpiringAt().isAfter(LocalDateTime.now());
+  }
+}
@@ -2,10 +2,31 @@ package io.github.korzepadawid.urlshortener.services;
 
 import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
 import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.util.List;
+import java.util.Optional;
 
 public interface UrlService {
 
   UrlReadDto createUrl(UrlWriteDto urlWriteDto);
 
+  /**
+   * Creates (or finds already existing) urls in a single transaction, results are in input order.
+   * With the sharded storage each shard commits on its own, a failed call may have created some of
+   * the urls.
+   */
+  List<UrlReadDto> createUrls(List<UrlWriteDto> urlWriteDtos);
+
   UrlReadDto getUrl(String encodedId);
+
+  /**
+   * Like {@link #getUrl(String)}, but reports a missing, expired or malformed code as empty
+   * instead of throwing.
+   */
+  Optional<UrlReadDto> findUrl(String encodedId);
+
+  /**
+   * Resolves a short code to its live url without mapping it to a DTO, used by redirects.
+   */
+  Optional<Url> findRedirectUrl(String encodedId);
 }
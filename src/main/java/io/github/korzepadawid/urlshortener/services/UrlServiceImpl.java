@@ -4,13 +4,25 @@ import io.github.korzepadawid.urlshortener.api.v1.mappers.UrlMapper;
 import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
 import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
 import io.github.korzepadawid.urlshortener.exceptions.ResourceNotFoundException;
+import io.github.korzepadawid.urlshortener.expiry.UrlExpiryTracker;
 import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.replicas.ReplicaRouting;
 import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import io.github.korzepadawid.urlshortener.writebehind.UrlWriteBehind;
 import java.time.LocalDateTime;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @RequiredArgsConstructor
 @Service
@@ -19,34 +31,122 @@ public class UrlServiceImpl implements UrlService {
   private final UrlRepository urlRepository;
   private final Base62Service base62Service;
   private final UrlMapper urlMapper;
+  private final UrlExpiryTracker urlExpiryTracker;
+  private final UrlLookup urlLookup;
+  private final UrlWriteBehind urlWriteBehind;
+  private final ReplicaRouting replicaRouting;
 
   @Override
   public UrlReadDto createUrl(UrlWriteDto urlWriteDto) {
-    Optional<Url> optionalUrl = urlRepository.findByUrl(urlWriteDto.getUrl())
-        .stream()
-        .filter(url -> Objects.equals(url.getExpiringAt(), urlWriteDto.getExpiringAt()))
-        .findFirst();
+    String dedupKey = dedupKeyOf(urlWriteDto);
+    Optional<Url> queuedUrl = urlWriteBehind.findQueued(dedupKey).filter(this::isNotExpiredUrl);
+    if (queuedUrl.isPresent()) {
+      // Not cached before its commit, which may still fail.
+      return urlMapper.convertUrlToUrlReadDto(queuedUrl.get());
+    }
 
+    Optional<Url> optionalUrl = urlRepository.findByDedupKey(dedupKey);
     if (optionalUrl.isPresent() && isNotExpiredUrl(optionalUrl.get())) {
+      urlLookup.remember(optionalUrl.get());
       return urlMapper.convertUrlToUrlReadDto(optionalUrl.get());
     }
 
     Url convertedUrl = urlMapper.convertUrlWriteDtoToUrl(urlWriteDto);
-    Url savedUrl = urlRepository.save(convertedUrl);
+    convertedUrl.setDedupKey(dedupKey);
+    Url savedUrl;
+
+    if (urlWriteBehind.isEnabled()) {
+      savedUrl = urlWriteBehind.enqueue(convertedUrl);
+      if (urlWriteBehind.isCommittedOnReturn()) {
+        urlLookup.remember(savedUrl);
+      }
+      return urlMapper.convertUrlToUrlReadDto(savedUrl);
+    }
+
+    try {
+      savedUrl = urlRepository.save(convertedUrl);
+    } catch (DataIntegrityViolationException exception) {
+      // The same url has just been created concurrently, the unique dedup key rejected ours.
+      savedUrl = findOnPrimary(() -> urlRepository.findByDedupKey(dedupKey))
+          .filter(this::isNotExpiredUrl)
+          .orElseThrow(() -> exception);
+    }
+
+    urlLookup.remember(savedUrl);
 
     return urlMapper.convertUrlToUrlReadDto(savedUrl);
   }
 
+  @Override
+  @Transactional
+  public List<UrlReadDto> createUrls(List<UrlWriteDto> urlWriteDtos) {
+    List<String> dedupKeys = urlWriteDtos.stream()
+        .map(UrlServiceImpl::dedupKeyOf)
+        .collect(Collectors.toList());
+
+    Map<String, Url> urlsByDedupKey = new HashMap<>();
+    urlRepository.findByDedupKeyIn(new HashSet<>(dedupKeys)).stream()
+        .filter(this::isNotExpiredUrl)
+        .forEach(url -> urlsByDedupKey.put(url.getDedupKey(), url));
+
+    List<Url> newUrls = new ArrayList<>();
+    for (int i = 0; i < urlWriteDtos.size(); i++) {
+      String dedupKey = dedupKeys.get(i);
+      if (!urlsByDedupKey.containsKey(dedupKey)) {
+        Url convertedUrl = urlMapper.convertUrlWriteDtoToUrl(urlWriteDtos.get(i));
+        convertedUrl.setDedupKey(dedupKey);
+        urlsByDedupKey.put(dedupKey, convertedUrl);
+        newUrls.add(convertedUrl);
+      }
+    }
+
+    // Ids are assigned here, the inserts are sent as JDBC batches on commit.
+    // New urls aren't cached yet, the transaction may still roll back.
+    urlRepository.saveAll(newUrls);
+    newUrls.forEach(urlExpiryTracker::track);
+
+    return dedupKeys.stream()
+        .map(urlsByDedupKey::get)
+        .map(urlMapper::convertUrlToUrlReadDto)
+        .collect(Collectors.toList());
+  }
+
   @Override
   public UrlReadDto getUrl(String encodedId) {
-    Long decodedId = base62Service.decode(encodedId);
-    Optional<Url> optionalUrl = urlRepository.findById(decodedId);
+    return findUrl(encodedId).orElseThrow(() -> new ResourceNotFoundException(
+        "Invalid encoded id: " + encodedId + ". Url not found."));
+  }
+
+  @Override
+  public Optional<UrlReadDto> findUrl(String encodedId) {
+    return findRedirectUrl(encodedId).map(urlMapper::convertUrlToUrlReadDto);
+  }
 
-    if (optionalUrl.isEmpty() || !isNotExpiredUrl(optionalUrl.get())) {
-      throw new ResourceNotFoundException("Invalid encoded id: " + encodedId + ". Url not found.");
+  @Override
+  public Optional<Url> findRedirectUrl(String encodedId) {
+    OptionalLong optionalId = base62Service.tryDecode(encodedId);
+    if (optionalId.isEmpty()) {
+      return Optional.empty();
     }
 
-    return urlMapper.convertUrlToUrlReadDto(optionalUrl.get());
+    return urlLookup.find(optionalId.getAsLong(), id -> {
+      Optional<Url> optionalUrl = urlRepository.findById(id);
+      if (optionalUrl.isEmpty() && replicaRouting.isEnabled()) {
+        // Replicas lag behind, a url created moments ago on another node may only be on the
+        // primary.
+        optionalUrl = replicaRouting.onPrimary(() -> urlRepository.findById(id));
+      }
+      return optionalUrl;
+    });
+  }
+
+  private static String dedupKeyOf(UrlWriteDto urlWriteDto) {
+    return Url.dedupKeyOf(urlWriteDto.getUrl(), urlWriteDto.getExpiringAt(),
+        urlWriteDto.getRedirectType());
+  }
+
+  private Optional<Url> findOnPrimary(Supplier<Optional<Url>> lookup) {
+    return replicaRouting.isEnabled() ? replicaRouting.onPrimary(lookup) : lookup.get();
   }
 
   public boolean isNotExpiredUrl(Url url) {
@@ -0,0 +1,141 @@
+package io.github.korzepadawid.urlshortener.snapshots;
+
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-only, memory-mapped view of a file written by {@link UrlSnapshotWriter}. Lookups binary
+ * search the mapped id array and only copy the bytes of the url they return, nothing is loaded
+ * onto the heap up front.
+ *
+ * <pre>
+ * header   magic, version, count, heap size (ints), created at (long), store id (2 longs)
+ * ids      long[count], ascending
+ * expiries long[count], epoch seconds of expiringAt or {@link #NO_EXPIRY}
+ * offsets  int[count + 1], start of each url in the heap
+ * types    byte[count], redirect type ordinal + 1, 0 for the default
+ * heap     UTF-8 bytes of the urls
+ * </pre>
+ */
+public final class UrlSnapshot {
+
+  static final int MAGIC = 0x55524C53;
+  static final int VERSION = 2;
+  static final int HEADER_SIZE = 40;
+  static final long NO_EXPIRY = Long.MIN_VALUE;
+
+  private static final RedirectType[] REDIRECT_TYPES = RedirectType.values();
+
+  private final ByteBuffer buffer;
+  private final int count;
+  private final Instant createdAt;
+  private final UUID storeId;
+  private final int expiriesStart;
+  private final int offsetsStart;
+  private final int typesStart;
+  private final int heapStart;
+
+  private UrlSnapshot(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not an url snapshot.");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IOException("Unsupported url snapshot version " + buffer.getInt(4) + ".");
+    }
+    this.count = buffer.getInt(8);
+    int heapSize = buffer.getInt(12);
+    this.createdAt = Instant.ofEpochMilli(buffer.getLong(16));
+    this.storeId = new UUID(buffer.getLong(24), buffer.getLong(32));
+    this.expiriesStart = HEADER_SIZE + count * Long.BYTES;
+    this.offsetsStart = expiriesStart + count * Long.BYTES;
+    this.typesStart = offsetsStart + (count + 1) * Integer.BYTES;
+    this.heapStart = typesStart + count;
+    if ((long) heapStart + heapSize != buffer.capacity()) {
+      throw new IOException("Truncated url snapshot.");
+    }
+  }
+
+  public static UrlSnapshot open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      // The mapping outlives the channel and is released once the snapshot is unreachable.
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      return new UrlSnapshot(buffer);
+    }
+  }
+
+  /**
+   * The url as it was when the snapshot was built, expired ones included. Empty if the snapshot
+   * doesn't know the id.
+   */
+  public Optional<Url> find(long id) {
+    int index = indexOf(id);
+    if (index < 0) {
+      return Optional.empty();
+    }
+
+    int start = buffer.getInt(offsetsStart + index * Integer.BYTES);
+    int end = buffer.getInt(offsetsStart + (index + 1) * Integer.BYTES);
+    byte[] urlBytes = new byte[end - start];
+    ByteBuffer heap = buffer.duplicate();
+    heap.position(heapStart + start);
+    heap.get(urlBytes);
+
+    long expiry = buffer.getLong(expiriesStart + index * Long.BYTES);
+    byte redirectType = buffer.get(typesStart + index);
+    return Optional.of(Url.builder()
+        .id(id)
+        .url(new String(urlBytes, StandardCharsets.UTF_8))
+        .expiringAt(expiry == NO_EXPIRY
+            ? null
+            : LocalDateTime.ofEpochSecond(expiry, 0, ZoneOffset.UTC))
+        .redirectType(redirectType == 0 ? null : REDIRECT_TYPES[redirectType - 1])
+        .build());
+  }
+
+  private int indexOf(long id) {
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long middleId = buffer.getLong(HEADER_SIZE + middle * Long.BYTES);
+      if (middleId < id) {
+        low = middle + 1;
+      } else if (middleId > id) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  public int size() {
+    return count;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  /**
+   * Id of the url store the snapshot was built from, see {@link UrlRepository#getStoreId()}.
+   */
+  public UUID getStoreId() {
+    return storeId;
+  }
+}
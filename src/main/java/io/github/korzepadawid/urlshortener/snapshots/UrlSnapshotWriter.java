@@ -0,0 +1,133 @@
+package io.github.korzepadawid.urlshortener.snapshots;
+
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Streams urls, in ascending id order, into a new {@link UrlSnapshot} file. Every section is
+ * spooled to its own temporary file, so memory use doesn't depend on the number of urls. The
+ * target is replaced atomically, readers never see a partially written snapshot.
+ */
+public class UrlSnapshotWriter implements Closeable {
+
+  private final Path target;
+  private final Path[] sectionFiles = new Path[5];
+  private final DataOutputStream[] sections = new DataOutputStream[5];
+
+  private int count;
+  private long heapSize;
+  private long lastId = Long.MIN_VALUE;
+
+  public UrlSnapshotWriter(Path target) throws IOException {
+    this.target = target.toAbsolutePath();
+    Files.createDirectories(this.target.getParent());
+    try {
+      for (int i = 0; i < sections.length; i++) {
+        sectionFiles[i] = Files.createTempFile(this.target.getParent(), "urls", ".section");
+        sections[i] = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(sectionFiles[i])));
+      }
+      sections[2].writeInt(0);
+    } catch (IOException exception) {
+      close();
+      throw exception;
+    }
+  }
+
+  public void append(Url url) throws IOException {
+    long id = url.getId();
+    if (id <= lastId) {
+      throw new IllegalArgumentException("Urls have to be appended in ascending id order.");
+    }
+    byte[] urlBytes = url.getUrl().getBytes(StandardCharsets.UTF_8);
+    heapSize += urlBytes.length;
+    if (fileSize(count + 1, heapSize) > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Url snapshot would exceed 2 GiB.");
+    }
+
+    sections[0].writeLong(id);
+    sections[1].writeLong(url.getExpiringAt() == null
+        ? UrlSnapshot.NO_EXPIRY
+        : url.getExpiringAt().toEpochSecond(ZoneOffset.UTC));
+    sections[2].writeInt((int) heapSize);
+    sections[3].writeByte(url.getRedirectType() == null ? 0 : url.getRedirectType().ordinal() + 1);
+    sections[4].write(urlBytes);
+    lastId = id;
+    count++;
+  }
+
+  /**
+   * Writes the snapshot to the target path, replacing the previous one.
+   *
+   * @param storeId id of the url store the urls were read from
+   */
+  public void finish(long createdAtMillis, UUID storeId) throws IOException {
+    for (DataOutputStream section : sections) {
+      section.close();
+    }
+
+    Path file = Files.createTempFile(target.getParent(), "urls", ".snapshot");
+    try {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        ByteBuffer header = ByteBuffer.allocate(UrlSnapshot.HEADER_SIZE)
+            .putInt(UrlSnapshot.MAGIC)
+            .putInt(UrlSnapshot.VERSION)
+            .putInt(count)
+            .putInt((int) heapSize)
+            .putLong(createdAtMillis)
+            .putLong(storeId.getMostSignificantBits())
+            .putLong(storeId.getLeastSignificantBits())
+            .flip();
+        while (header.hasRemaining()) {
+          channel.write(header);
+        }
+        for (Path sectionFile : sectionFiles) {
+          try (FileChannel section = FileChannel.open(sectionFile, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < section.size()) {
+              position += section.transferTo(position, section.size() - position, channel);
+            }
+          }
+        }
+        channel.force(true);
+      }
+      Files.move(file, target, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (int i = 0; i < sections.length; i++) {
+      if (sections[i] != null) {
+        sections[i].close();
+      }
+      if (sectionFiles[i] != null) {
+        Files.deleteIfExists(sectionFiles[i]);
+      }
+    }
+  }
+
+  private static long fileSize(long count, long heapSize) {
+    return UrlSnapshot.HEADER_SIZE + count * (2L * Long.BYTES + Integer.BYTES + 1)
+        + Integer.BYTES + heapSize;
+  }
+}
@@ -0,0 +1,166 @@
+package io.github.korzepadawid.urlshortener.snapshots;
+
+import io.github.korzepadawid.urlshortener.config.UrlSnapshotProperties;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import io.github.korzepadawid.urlshortener.storage.UrlStoreIdentity;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves redirects from the current {@link UrlSnapshot}. The snapshot on disk is mapped at
+ * startup, without waiting for the database, and replaced periodically. It's dropped as soon as
+ * the id of the url store is known and differs from the one it was built from, see
+ * {@link UrlStoreIdentity}. Urls the snapshot doesn't know, e.g. created since it was built, are
+ * left to the database.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class UrlSnapshots {
+
+  private final UrlRepository urlRepository;
+  private final UrlSnapshotProperties urlSnapshotProperties;
+  private final UrlStoreIdentity urlStoreIdentity;
+
+  private volatile UrlSnapshot snapshot;
+  private volatile UrlSnapshot verifiedSnapshot;
+  private volatile FileTime loadedModifiedTime;
+
+  public Optional<Url> find(long id) {
+    UrlSnapshot current = snapshot;
+    if (current != null && current != verifiedSnapshot) {
+      current = verify(current);
+    }
+    return current == null ? Optional.empty() : current.find(id);
+  }
+
+  @PostConstruct
+  public void load() {
+    if (urlSnapshotProperties.isEnabled() && Files.exists(urlSnapshotProperties.getPath())) {
+      reload();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${url-shortener.snapshot.refresh-interval-millis:900000}")
+  public void refresh() {
+    if (!urlSnapshotProperties.isEnabled()) {
+      return;
+    }
+    if (urlSnapshotProperties.isBuild()) {
+      rebuild();
+    } else {
+      reload();
+    }
+  }
+
+  public void rebuild() {
+    long start = System.nanoTime();
+    Path path = urlSnapshotProperties.getPath();
+    int pageSize = urlSnapshotProperties.getPageSize();
+    LocalDateTime now = LocalDateTime.now();
+    long createdAtMillis = System.currentTimeMillis();
+    Optional<UUID> storeId = urlStoreIdentity.get();
+    if (storeId.isEmpty()) {
+      log.warn("Could not build the url snapshot without the id of the url store, keeping the"
+          + " previous one.");
+      return;
+    }
+
+    try (UrlSnapshotWriter writer = new UrlSnapshotWriter(path)) {
+      long watermark = -1;
+      List<Url> urls;
+      do {
+        urls = urlRepository.findLiveUrlsAfter(watermark, now, PageRequest.of(0, pageSize));
+        for (Url url : urls) {
+          writer.append(url);
+        }
+        if (!urls.isEmpty()) {
+          watermark = urls.get(urls.size() - 1).getId();
+        }
+      } while (urls.size() == pageSize);
+      writer.finish(createdAtMillis, storeId.get());
+      log.info("Built the url snapshot with {} urls in {} ms.", writer.getCount(),
+          (System.nanoTime() - start) / 1_000_000);
+    } catch (DataAccessException | IOException | IllegalStateException exception) {
+      log.warn("Could not build the url snapshot, keeping the previous one.", exception);
+      return;
+    }
+    reload();
+  }
+
+  /**
+   * Maps the snapshot file again if it has changed since it was last loaded.
+   */
+  public void reload() {
+    Path path = urlSnapshotProperties.getPath();
+    try {
+      FileTime modifiedTime = Files.getLastModifiedTime(path);
+      if (snapshot != null && modifiedTime.equals(loadedModifiedTime)) {
+        return;
+      }
+      UrlSnapshot opened = UrlSnapshot.open(path);
+      if (urlStoreIdentity.isForeign(opened.getStoreId())) {
+        log.warn("Ignoring the url snapshot {}, it was built from another url store.", path);
+        return;
+      }
+      snapshot = opened;
+      loadedModifiedTime = modifiedTime;
+      log.info("Loaded the url snapshot of {} with {} urls.", opened.getCreatedAt(),
+          opened.size());
+    } catch (IOException exception) {
+      log.warn("Could not load the url snapshot " + path + ", keeping the previous one.",
+          exception);
+    }
+  }
+
+  /**
+   * The snapshot unless the id of the url store is known by now and it was built from another one,
+   * e.g. before an in-memory database was recreated, and would send codes to the wrong urls.
+   */
+  private UrlSnapshot verify(UrlSnapshot candidate) {
+    Optional<UUID> storeId = urlStoreIdentity.getIfKnown();
+    if (storeId.isEmpty()) {
+      return candidate;
+    }
+    if (storeId.get().equals(candidate.getStoreId())) {
+      verifiedSnapshot = candidate;
+      return candidate;
+    }
+    synchronized (this) {
+      if (snapshot == candidate) {
+        snapshot = null;
+        log.warn("Dropped the url snapshot of {}, it was built from another url store.",
+            candidate.getCreatedAt());
+      }
+    }
+    return null;
+  }
+
+  public int getSnapshotUrls() {
+    UrlSnapshot current = snapshot;
+    return current == null ? 0 : current.size();
+  }
+
+  public Duration getSnapshotAge() {
+    UrlSnapshot current = snapshot;
+    return current == null
+        ? Duration.ZERO
+        : Duration.between(current.getCreatedAt(), Instant.now());
+  }
+}
@@ -0,0 +1,666 @@
+package io.github.korzepadawid.urlshortener.storage;
+
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only url store in a directory of segment files, indexed in memory by id and dedup key.
+ *
+ * <p>Each segment starts with a header (magic, version, flags, highest id assigned so far)
+ * followed by records: {@code [int length][int crc32][byte kind][long id]}, put records carrying
+ * the url fields after that. Writes append to the newest segment until it reaches the segment
+ * size. {@link #compact(LocalDateTime)} rewrites the live, unexpired urls of all older segments
+ * into one base segment, replay starts from the newest base segment. A torn record at the end of
+ * the newest segment, left by a crash, is truncated on open.
+ */
+@Slf4j
+public class UrlLog implements Closeable {
+
+  static final int MAGIC = 0x55524C4C;
+  static final byte VERSION = 1;
+  static final int HEADER_SIZE = 4 + 1 + 1 + 8;
+  static final int RECORD_HEADER_SIZE = 4 + 4;
+
+  private static final byte FLAG_BASE = 1;
+  private static final byte KIND_PUT = 1;
+  private static final byte KIND_DELETE = 2;
+  private static final long NO_TIME = Long.MIN_VALUE;
+  private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{20})\\.log");
+  private static final String COMPACTING_SUFFIX = ".compacting";
+  private static final String STORE_ID_FILE = "store-id";
+
+  private final Path directory;
+  private final long segmentSize;
+  private final boolean syncWrites;
+  private final ConcurrentSkipListMap<Long, Entry> entries = new ConcurrentSkipListMap<>();
+  private final Map<String, Long> idsByDedupKey = new ConcurrentHashMap<>();
+  private final List<Segment> segments = new ArrayList<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object compactionMonitor = new Object();
+
+  private Segment active;
+  private long maxId;
+  private UUID storeId;
+
+  private UrlLog(Path directory, long segmentSize, boolean syncWrites) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.syncWrites = syncWrites;
+  }
+
+  /**
+   * Opens the log in {@code directory}, creating it if needed, and replays its segments.
+   *
+   * @param syncWrites whether every write is forced to the device before returning, otherwise
+   *                   writes survive a crash of the process but not of the machine
+   */
+  public static UrlLog open(Path directory, long segmentSize, boolean syncWrites)
+      throws IOException {
+    Files.createDirectories(directory);
+    UrlLog urlLog = new UrlLog(directory, segmentSize, syncWrites);
+    try {
+      urlLog.storeId = loadStoreId(directory.resolve(STORE_ID_FILE));
+      urlLog.recover();
+    } catch (IOException | RuntimeException exception) {
+      urlLog.close();
+      throw exception;
+    }
+    return urlLog;
+  }
+
+  public Optional<Url> get(long id) {
+    lock.readLock().lock();
+    try {
+      Entry entry = entries.get(id);
+      return entry == null ? Optional.empty() : Optional.of(read(id, entry));
+    } catch (IOException exception) {
+      throw new UncheckedIOException("Could not read url " + id + ".", exception);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public Optional<Long> idOf(String dedupKey) {
+    return Optional.ofNullable(idsByDedupKey.get(dedupKey));
+  }
+
+  /**
+   * Appends the url, assigning it the next id if it has none. Returns false without writing when
+   * another url already holds its dedup key.
+   */
+  public boolean put(Url url) {
+    lock.writeLock().lock();
+    try {
+      Long holder = idsByDedupKey.get(url.getDedupKey());
+      if (holder != null && !holder.equals(url.getId())) {
+        return false;
+      }
+      if (url.getId() == null) {
+        url.setId(maxId + 1);
+      }
+      ByteBuffer record = encodePut(url);
+      long offset = append(record);
+      active.records++;
+      maxId = Math.max(maxId, url.getId());
+      index(url.getId(), new Entry(active, offset, record.limit(), url.getExpiringAt(),
+          url.getDedupKey()));
+      return true;
+    } catch (IOException exception) {
+      throw new UncheckedIOException("Could not append url " + url.getId() + ".", exception);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public boolean delete(long id) {
+    lock.writeLock().lock();
+    try {
+      if (!entries.containsKey(id)) {
+        return false;
+      }
+      append(encodeDelete(id));
+      active.records++;
+      unindex(id);
+      return true;
+    } catch (IOException exception) {
+      throw new UncheckedIOException("Could not delete url " + id + ".", exception);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Up to {@code limit} ids greater than {@code afterId}, in ascending order, whose expiry
+   * matches.
+   */
+  public List<Long> findIds(long afterId, Predicate<LocalDateTime> expiringAt, int limit) {
+    List<Long> ids = new ArrayList<>(Math.min(limit, 1024));
+    for (Map.Entry<Long, Entry> entry : entries.tailMap(afterId, false).entrySet()) {
+      if (ids.size() >= limit) {
+        break;
+      }
+      if (expiringAt.test(entry.getValue().expiringAt)) {
+        ids.add(entry.getKey());
+      }
+    }
+    return ids;
+  }
+
+  public long count(Predicate<LocalDateTime> expiringAt) {
+    return entries.values().stream()
+        .filter(entry -> expiringAt.test(entry.expiringAt))
+        .count();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Random id written next to the segments when the log was first opened.
+   */
+  public UUID getStoreId() {
+    return storeId;
+  }
+
+  public int getSegmentCount() {
+    lock.readLock().lock();
+    try {
+      return segments.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Rewrites all segments but the one being appended to into a single base segment, dropping
+   * overwritten, deleted and already expired urls. Reads and writes carry on meanwhile.
+   *
+   * @return the number of segments removed
+   */
+  public int compact(LocalDateTime now) throws IOException {
+    synchronized (compactionMonitor) {
+      List<Segment> sealed;
+      long baseMaxId;
+      boolean clean;
+      lock.writeLock().lock();
+      try {
+        if (active.size > HEADER_SIZE) {
+          rotate();
+        }
+        sealed = new ArrayList<>(segments.subList(0, segments.size() - 1));
+        baseMaxId = maxId;
+        clean = sealed.size() == 1 && sealed.get(0).base
+            && sealed.get(0).liveRecords == sealed.get(0).records;
+      } finally {
+        lock.writeLock().unlock();
+      }
+      Set<Segment> sealedSet = new HashSet<>(sealed);
+      if (sealed.isEmpty() || clean && !hasExpired(sealedSet, now)) {
+        return 0;
+      }
+
+      Segment last = sealed.get(sealed.size() - 1);
+      Path compacting = directory.resolve(last.path.getFileName() + COMPACTING_SUFFIX);
+      Map<Long, Entry> copied = new ConcurrentHashMap<>();
+      Segment base;
+      try (FileChannel channel = FileChannel.open(compacting, StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+        long position = writeHeader(channel, FLAG_BASE, baseMaxId);
+        base = new Segment(last.sequence, last.path, true);
+        for (Map.Entry<Long, Entry> indexed : entries.entrySet()) {
+          Entry entry = indexed.getValue();
+          if (!sealedSet.contains(entry.segment) || isExpired(entry, now)) {
+            continue;
+          }
+          ByteBuffer record = readRecord(entry);
+          Entry moved = new Entry(base, position, record.limit(), entry.expiringAt,
+              entry.dedupKey);
+          position += writeFully(channel, record, position);
+          copied.put(indexed.getKey(), moved);
+        }
+        channel.force(true);
+        base.size = position;
+      }
+
+      lock.writeLock().lock();
+      try {
+        Files.move(compacting, last.path, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        base.open();
+        base.records = copied.size();
+        for (Map.Entry<Long, Entry> indexed : entries.entrySet()) {
+          if (!sealedSet.contains(indexed.getValue().segment)) {
+            continue;
+          }
+          Entry moved = copied.get(indexed.getKey());
+          if (moved == null) {
+            unindex(indexed.getKey());
+          } else {
+            entries.put(indexed.getKey(), moved);
+            base.liveRecords++;
+          }
+        }
+        segments.removeAll(sealed);
+        segments.add(0, base);
+      } finally {
+        lock.writeLock().unlock();
+      }
+
+      for (Segment segment : sealed) {
+        segment.close();
+        if (segment != last) {
+          Files.deleteIfExists(segment.path);
+        }
+      }
+      log.info("Compacted {} url log segments into one with {} urls.", sealed.size(),
+          copied.size());
+      return sealed.size() - 1;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.writeLock().lock();
+    try {
+      for (Segment segment : segments) {
+        segment.close();
+      }
+      segments.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static UUID loadStoreId(Path path) throws IOException {
+    if (Files.notExists(path)) {
+      Path file = Files.createTempFile(path.getParent(), STORE_ID_FILE, ".tmp");
+      try {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+          ByteBuffer buffer = StandardCharsets.US_ASCII.encode(UUID.randomUUID().toString());
+          while (buffer.hasRemaining()) {
+            channel.write(buffer);
+          }
+          channel.force(true);
+        }
+        Files.move(file, path, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+    try {
+      return UUID.fromString(Files.readString(path, StandardCharsets.US_ASCII).trim());
+    } catch (IllegalArgumentException exception) {
+      throw new IOException(path + " isn't a url store id.", exception);
+    }
+  }
+
+  private void recover() throws IOException {
+    List<Path> paths = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        if (file.getFileName().toString().endsWith(COMPACTING_SUFFIX)) {
+          Files.delete(file);
+        } else if (SEGMENT_NAME.matcher(file.getFileName().toString()).matches()) {
+          paths.add(file);
+        }
+      }
+    }
+    paths.sort(null);
+
+    List<Segment> found = new ArrayList<>();
+    for (Path path : paths) {
+      Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+      matcher.matches();
+      found.add(new Segment(Long.parseLong(matcher.group(1)), path, false));
+    }
+
+    for (int i = 0; i < found.size(); i++) {
+      Segment segment = found.get(i);
+      segment.open();
+      segments.add(segment);
+      readHeader(segment, i == found.size() - 1);
+    }
+    for (int i = segments.size() - 1; i > 0; i--) {
+      if (segments.get(i).base) {
+        // Everything before a base segment has been compacted into it.
+        for (Segment superseded : new ArrayList<>(segments.subList(0, i))) {
+          superseded.close();
+          Files.delete(superseded.path);
+        }
+        segments.subList(0, i).clear();
+        break;
+      }
+    }
+    for (int i = 0; i < segments.size(); i++) {
+      replay(segments.get(i), i == segments.size() - 1);
+    }
+
+    if (segments.isEmpty()) {
+      active = createSegment(1);
+    } else {
+      active = segments.get(segments.size() - 1);
+    }
+    log.info("Opened the url log in {} with {} urls in {} segments.", directory, entries.size(),
+        segments.size());
+  }
+
+  private void readHeader(Segment segment, boolean newest) throws IOException {
+    if (segment.channel.size() < HEADER_SIZE) {
+      if (!newest) {
+        throw new IOException("Url log segment " + segment.path + " has no header.");
+      }
+      segment.channel.truncate(0);
+      writeHeader(segment.channel, (byte) 0, maxId);
+      return;
+    }
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    readFully(segment.channel, header, 0);
+    header.flip();
+    if (header.getInt() != MAGIC || header.get() != VERSION) {
+      throw new IOException(segment.path + " isn't an url log segment of a supported version.");
+    }
+    segment.base = (header.get() & FLAG_BASE) != 0;
+    maxId = Math.max(maxId, header.getLong());
+  }
+
+  private void replay(Segment segment, boolean newest) throws IOException {
+    long fileSize = segment.channel.size();
+    long position = HEADER_SIZE;
+    InputStream input = new BufferedInputStream(Channels.newInputStream(
+        segment.channel.position(HEADER_SIZE)), 1 << 16);
+    DataInputStream data = new DataInputStream(input);
+    CRC32 crc = new CRC32();
+    while (position < fileSize) {
+      byte[] body;
+      try {
+        int length = data.readInt();
+        int checksum = data.readInt();
+        if (length <= 0 || length > fileSize - position - RECORD_HEADER_SIZE) {
+          throw new EOFException();
+        }
+        body = new byte[length];
+        data.readFully(body);
+        crc.reset();
+        crc.update(body);
+        if ((int) crc.getValue() != checksum) {
+          throw new EOFException();
+        }
+      } catch (EOFException exception) {
+        if (!newest) {
+          throw new IOException("Url log segment " + segment.path + " is corrupt at " + position
+              + ".");
+        }
+        log.warn("Truncating a torn record at {} of url log segment {}.", position,
+            segment.path);
+        segment.channel.truncate(position);
+        break;
+      }
+
+      int length = RECORD_HEADER_SIZE + body.length;
+      ByteBuffer buffer = ByteBuffer.wrap(body);
+      byte kind = buffer.get();
+      long id = buffer.getLong();
+      segment.records++;
+      if (kind == KIND_PUT) {
+        Url url = decodePut(id, buffer);
+        index(id, new Entry(segment, position, length, url.getExpiringAt(), url.getDedupKey()));
+      } else {
+        unindex(id);
+      }
+      maxId = Math.max(maxId, id);
+      position += length;
+    }
+    segment.size = position;
+    segment.channel.position(0);
+  }
+
+  private void index(long id, Entry entry) {
+    Entry previous = entries.put(id, entry);
+    entry.segment.liveRecords++;
+    if (previous != null) {
+      previous.segment.liveRecords--;
+      if (!previous.dedupKey.equals(entry.dedupKey)) {
+        idsByDedupKey.remove(previous.dedupKey, id);
+      }
+    }
+    idsByDedupKey.put(entry.dedupKey, id);
+  }
+
+  private void unindex(long id) {
+    Entry previous = entries.remove(id);
+    if (previous != null) {
+      previous.segment.liveRecords--;
+      idsByDedupKey.remove(previous.dedupKey, id);
+    }
+  }
+
+  private long append(ByteBuffer record) throws IOException {
+    if (active.size + record.limit() > segmentSize && active.size > HEADER_SIZE) {
+      rotate();
+    }
+    long offset = active.size;
+    writeFully(active.channel, record, offset);
+    if (syncWrites) {
+      active.channel.force(false);
+    }
+    active.size += record.limit();
+    return offset;
+  }
+
+  private void rotate() throws IOException {
+    active.channel.force(false);
+    active = createSegment(active.sequence + 1);
+  }
+
+  private Segment createSegment(long sequence) throws IOException {
+    Segment segment = new Segment(sequence,
+        directory.resolve(String.format("segment-%020d.log", sequence)), false);
+    segment.open();
+    segment.size = writeHeader(segment.channel, (byte) 0, maxId);
+    segment.channel.force(true);
+    segments.add(segment);
+    return segment;
+  }
+
+  private Url read(long id, Entry entry) throws IOException {
+    ByteBuffer record = readRecord(entry);
+    record.position(RECORD_HEADER_SIZE + 1 + 8);
+    return decodePut(id, record);
+  }
+
+  private ByteBuffer readRecord(Entry entry) throws IOException {
+    ByteBuffer record = ByteBuffer.allocate(entry.length);
+    readFully(entry.segment.channel, record, entry.offset);
+    return record.flip();
+  }
+
+  private boolean hasExpired(Set<Segment> sealed, LocalDateTime now) {
+    return entries.values().stream()
+        .anyMatch(entry -> sealed.contains(entry.segment) && isExpired(entry, now));
+  }
+
+  private static boolean isExpired(Entry entry, LocalDateTime now) {
+    return entry.expiringAt != null && entry.expiringAt.isBefore(now);
+  }
+
+  private static long writeHeader(FileChannel channel, byte flags, long maxId)
+      throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+        .putInt(MAGIC)
+        .put(VERSION)
+        .put(flags)
+        .putLong(maxId)
+        .flip();
+    return writeFully(channel, header, 0);
+  }
+
+  private static int writeFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    int written = 0;
+    while (buffer.hasRemaining()) {
+      written += channel.write(buffer, position + written);
+    }
+    return written;
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    int read = 0;
+    while (buffer.hasRemaining()) {
+      int bytes = channel.read(buffer, position + read);
+      if (bytes < 0) {
+        throw new EOFException();
+      }
+      read += bytes;
+    }
+  }
+
+  static ByteBuffer encodePut(Url url) {
+    byte[] dedupKey = url.getDedupKey().getBytes(StandardCharsets.UTF_8);
+    byte[] address = url.getUrl().getBytes(StandardCharsets.UTF_8);
+    int bodyLength = 1 + 8 + 12 + 12 + 1 + 2 + dedupKey.length + 4 + address.length;
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + bodyLength)
+        .putInt(bodyLength)
+        .putInt(0)
+        .put(KIND_PUT)
+        .putLong(url.getId());
+    putTime(record, url.getCreatedAt());
+    putTime(record, url.getExpiringAt());
+    record.put(url.getRedirectType() == null ? 0 : (byte) (url.getRedirectType().ordinal() + 1))
+        .putShort((short) dedupKey.length)
+        .put(dedupKey)
+        .putInt(address.length)
+        .put(address);
+    return checksum(record);
+  }
+
+  static ByteBuffer encodeDelete(long id) {
+    int bodyLength = 1 + 8;
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + bodyLength)
+        .putInt(bodyLength)
+        .putInt(0)
+        .put(KIND_DELETE)
+        .putLong(id);
+    return checksum(record);
+  }
+
+  private static ByteBuffer checksum(ByteBuffer record) {
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), RECORD_HEADER_SIZE, record.capacity() - RECORD_HEADER_SIZE);
+    return record.putInt(4, (int) crc.getValue()).flip();
+  }
+
+  private static Url decodePut(long id, ByteBuffer body) {
+    LocalDateTime createdAt = getTime(body);
+    LocalDateTime expiringAt = getTime(body);
+    int redirectType = body.get();
+    byte[] dedupKey = new byte[body.getShort()];
+    body.get(dedupKey);
+    byte[] address = new byte[body.getInt()];
+    body.get(address);
+    return Url.builder()
+        .id(id)
+        .url(new String(address, StandardCharsets.UTF_8))
+        .createdAt(createdAt)
+        .expiringAt(expiringAt)
+        .redirectType(redirectType == 0 ? null : RedirectType.values()[redirectType - 1])
+        .dedupKey(new String(dedupKey, StandardCharsets.UTF_8))
+        .build();
+  }
+
+  private static void putTime(ByteBuffer buffer, LocalDateTime time) {
+    if (time == null) {
+      buffer.putLong(NO_TIME).putInt(0);
+    } else {
+      buffer.putLong(time.toEpochSecond(ZoneOffset.UTC)).putInt(time.getNano());
+    }
+  }
+
+  private static LocalDateTime getTime(ByteBuffer buffer) {
+    long seconds = buffer.getLong();
+    int nanos = buffer.getInt();
+    return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+  }
+
+  private static final class Entry {
+
+    private final Segment segment;
+    private final long offset;
+    private final int length;
+    private final LocalDateTime expiringAt;
+    private final String dedupKey;
+
+    private Entry(Segment segment, long offset, int length, LocalDateTime expiringAt,
+        String dedupKey) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+      this.expiringAt = expiringAt;
+      this.dedupKey = dedupKey;
+    }
+  }
+
+  private static final class Segment {
+
+    private final long sequence;
+    private final Path path;
+    private boolean base;
+    private FileChannel channel;
+    private long size;
+    private int records;
+    private int liveRecords;
+
+    private Segment(long sequence, Path path, boolean base) {
+      this.sequence = sequence;
+      this.path = path;
+      this.base = base;
+    }
+
+    private void open() throws IOException {
+      channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+    }
+
+    private void close() throws IOException {
+      if (channel != null) {
+        channel.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package io.github.korzepadawid.urlshortener.storage;
+
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Id of the url store this node uses, see {@link UrlRepository#getStoreId()}. Files stamped with
+ * it, like the redirect snapshot and the saved url cache, are only dropped once the id is known
+ * and differs: while the store can't be reached they keep being served, and the id is asked for
+ * again in the background.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class UrlStoreIdentity {
+
+  private final UrlRepository urlRepository;
+
+  private volatile UUID storeId;
+
+  /**
+   * The id, asking the store for it if it hasn't been read yet. Empty while the store can't be
+   * reached.
+   */
+  public Optional<UUID> get() {
+    UUID known = storeId;
+    if (known != null) {
+      return Optional.of(known);
+    }
+    synchronized (this) {
+      if (storeId == null) {
+        try {
+          storeId = urlRepository.getStoreId();
+        } catch (DataAccessException exception) {
+          log.warn("Could not read the id of the url store, checking the files stamped with it"
+              + " later.", exception);
+        }
+      }
+      return Optional.ofNullable(storeId);
+    }
+  }
+
+  /**
+   * The id if it has been read already, never waits for the store.
+   */
+  public Optional<UUID> getIfKnown() {
+    return Optional.ofNullable(storeId);
+  }
+
+  /**
+   * Whether a file stamped with {@code stamp} was written against another store. False while that
+   * can't be told yet.
+   */
+  public boolean isForeign(UUID stamp) {
+    return getIfKnown().map(known -> !known.equals(stamp)).orElse(false);
+  }
+
+  @Scheduled(fixedDelayString = "${url-shortener.storage.identify-interval-millis:5000}")
+  public void identify() {
+    if (storeId == null) {
+      get();
+    }
+  }
+}
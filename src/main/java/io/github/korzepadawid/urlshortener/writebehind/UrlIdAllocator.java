@@ -0,0 +1,38 @@
+package io.github.korzepadawid.urlshortener.writebehind;
+
+import io.github.korzepadawid.urlshortener.models.Url;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out url ids ahead of the insert. It shares Hibernate's generator, and with it the block
+ * of ids taken from the sequence, so ids never collide with urls saved through JPA.
+ */
+@Component
+public class UrlIdAllocator {
+
+  private final SessionFactoryImplementor sessionFactory;
+  private final IdentifierGenerator identifierGenerator;
+
+  public UrlIdAllocator(EntityManagerFactory entityManagerFactory) {
+    this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    this.identifierGenerator = sessionFactory.getMetamodel()
+        .entityPersister(Url.class)
+        .getIdentifierGenerator();
+  }
+
+  public long nextId() {
+    // Only reaches for a connection when the current block of ids has been used up.
+    StatelessSession session = sessionFactory.openStatelessSession();
+    try {
+      return ((Number) identifierGenerator.generate(
+          (SharedSessionContractImplementor) session, null)).longValue();
+    } finally {
+      session.close();
+    }
+  }
+}
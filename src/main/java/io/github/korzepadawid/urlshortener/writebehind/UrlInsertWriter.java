@@ -0,0 +1,39 @@
+package io.github.korzepadawid.urlshortener.writebehind;
+
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.sql.Types;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Inserts urls with already assigned ids as one JDBC batch in a single transaction.
+ */
+@RequiredArgsConstructor
+@Component
+public class UrlInsertWriter {
+
+  private static final String INSERT_SQL = "insert into url"
+      + " (id, url, created_at, expiring_at, redirect_type, dedup_key) values (?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  public void insert(List<Url> urls) {
+    transactionTemplate.executeWithoutResult(status ->
+        jdbcTemplate.batchUpdate(INSERT_SQL, urls, urls.size(), (ps, url) -> {
+          ps.setLong(1, url.getId());
+          ps.setString(2, url.getUrl());
+          ps.setObject(3, url.getCreatedAt());
+          if (url.getExpiringAt() == null) {
+            ps.setNull(4, Types.TIMESTAMP);
+          } else {
+            ps.setObject(4, url.getExpiringAt());
+          }
+          ps.setString(5, url.getRedirectType() == null ? null : url.getRedirectType().name());
+          ps.setString(6, url.getDedupKey());
+        }));
+  }
+}
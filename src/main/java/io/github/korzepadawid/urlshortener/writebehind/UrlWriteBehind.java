@@ -0,0 +1,334 @@
+package io.github.korzepadawid.urlshortener.writebehind;
+
+import io.github.korzepadawid.urlshortener.caches.LinkIndex;
+import io.github.korzepadawid.urlshortener.caches.LiveUrlFilter;
+import io.github.korzepadawid.urlshortener.config.WriteBehindProperties;
+import io.github.korzepadawid.urlshortener.config.WriteBehindProperties.Durability;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+/**
+ * Group commit of created urls. Urls get their id up front and are queued, a single writer
+ * thread inserts them in multi-row transactions once {@code max-batch-size} urls are waiting or
+ * {@code max-delay} has passed since the first one. Queued urls can be read right away. Whether
+ * a create is acknowledged before or after its commit depends on the {@link Durability}.
+ */
+@Slf4j
+@Component
+public class UrlWriteBehind {
+
+  private final UrlIdAllocator urlIdAllocator;
+  private final UrlInsertWriter urlInsertWriter;
+  private final UrlRepository urlRepository;
+  private final LiveUrlFilter liveUrlFilter;
+  private final LinkIndex linkIndex;
+  private final WriteBehindProperties writeBehindProperties;
+  private final BlockingQueue<QueuedUrl> queue;
+  private final Map<Long, QueuedUrl> queuedById = new ConcurrentHashMap<>();
+  private final Map<String, QueuedUrl> queuedByDedupKey = new ConcurrentHashMap<>();
+  private final LongAdder committedUrls = new LongAdder();
+  private final LongAdder conflictingUrls = new LongAdder();
+
+  private volatile boolean running;
+  private Thread writer;
+
+  public UrlWriteBehind(UrlIdAllocator urlIdAllocator, UrlInsertWriter urlInsertWriter,
+      UrlRepository urlRepository, LiveUrlFilter liveUrlFilter, LinkIndex linkIndex,
+      WriteBehindProperties writeBehindProperties) {
+    this.urlIdAllocator = urlIdAllocator;
+    this.urlInsertWriter = urlInsertWriter;
+    this.urlRepository = urlRepository;
+    this.liveUrlFilter = liveUrlFilter;
+    this.linkIndex = linkIndex;
+    this.writeBehindProperties = writeBehindProperties;
+    this.queue = new ArrayBlockingQueue<>(writeBehindProperties.getQueueCapacity());
+  }
+
+  public boolean isEnabled() {
+    return writeBehindProperties.isEnabled();
+  }
+
+  /**
+   * Whether {@link #enqueue(Url)} only returns once the url has been committed.
+   */
+  public boolean isCommittedOnReturn() {
+    return writeBehindProperties.getDurability() == Durability.COMMITTED;
+  }
+
+  public Optional<Url> findQueued(long id) {
+    QueuedUrl queuedUrl = queuedById.get(id);
+    return queuedUrl == null ? Optional.empty() : Optional.of(queuedUrl.url);
+  }
+
+  public Optional<Url> findQueued(String dedupKey) {
+    QueuedUrl queuedUrl = queuedByDedupKey.get(dedupKey);
+    return queuedUrl == null ? Optional.empty() : Optional.of(queuedUrl.url);
+  }
+
+  /**
+   * Assigns the url its id and queues it. With {@link Durability#COMMITTED} it waits for the
+   * commit and returns the url which ended up in the database. Throws a
+   * {@link TransientDataAccessResourceException} if the queue stays full for
+   * {@code queue-timeout}.
+   */
+  public Url enqueue(Url url) {
+    url.setId(urlIdAllocator.nextId());
+    url.setCreatedAt(LocalDateTime.now());
+    QueuedUrl queuedUrl = new QueuedUrl(url);
+
+    QueuedUrl alreadyQueued = queuedByDedupKey.putIfAbsent(url.getDedupKey(), queuedUrl);
+    if (alreadyQueued != null) {
+      return acknowledge(alreadyQueued);
+    }
+    queuedById.put(url.getId(), queuedUrl);
+
+    long timeoutNanos = writeBehindProperties.getQueueTimeout().toNanos();
+    try {
+      if (!queue.offer(queuedUrl, timeoutNanos, TimeUnit.NANOSECONDS)) {
+        TransientDataAccessResourceException exception = new TransientDataAccessResourceException(
+            "Url write-behind queue has been full for " + writeBehindProperties.getQueueTimeout()
+                + ".");
+        fail(queuedUrl, exception);
+        throw exception;
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      IllegalStateException failure =
+          new IllegalStateException("Interrupted while queueing an url.", exception);
+      fail(queuedUrl, failure);
+      throw failure;
+    }
+    return acknowledge(queuedUrl);
+  }
+
+  @PostConstruct
+  public synchronized void start() {
+    if (!writeBehindProperties.isEnabled()) {
+      return;
+    }
+    running = true;
+    writer = new Thread(this::write, "url-write-behind");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Stops the writer after it has committed everything queued so far.
+   */
+  @PreDestroy
+  public synchronized void stop() throws InterruptedException {
+    running = false;
+    if (writer != null) {
+      writer.join();
+      writer = null;
+    }
+  }
+
+  public int getQueuedUrls() {
+    return queuedById.size();
+  }
+
+  public long getCommittedUrls() {
+    return committedUrls.sum();
+  }
+
+  /**
+   * Urls which lost to an equal url committed first by another node.
+   */
+  public long getConflictingUrls() {
+    return conflictingUrls.sum();
+  }
+
+  private Url acknowledge(QueuedUrl queuedUrl) {
+    if (writeBehindProperties.getDurability() == Durability.BUFFERED) {
+      return queuedUrl.url;
+    }
+
+    long timeoutNanos = writeBehindProperties.getCommitTimeout().toNanos();
+    try {
+      return queuedUrl.committed.get(timeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for an url commit.", exception);
+    } catch (ExecutionException exception) {
+      if (exception.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exception.getCause();
+      }
+      throw new IllegalStateException(exception.getCause());
+    } catch (TimeoutException exception) {
+      throw new TransientDataAccessResourceException(
+          "Url " + queuedUrl.url.getId() + " hasn't been committed in time.", exception);
+    }
+  }
+
+  private void write() {
+    int maxBatchSize = writeBehindProperties.getMaxBatchSize();
+    long maxDelayNanos = writeBehindProperties.getMaxDelay().toNanos();
+    List<QueuedUrl> batch = new ArrayList<>(maxBatchSize);
+
+    while (running || !queue.isEmpty()) {
+      try {
+        QueuedUrl first = queue.poll(maxDelayNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize && running) {
+          queue.drainTo(batch, maxBatchSize - batch.size());
+          long remainingNanos = deadline - System.nanoTime();
+          if (batch.size() >= maxBatchSize || remainingNanos <= 0) {
+            break;
+          }
+          QueuedUrl next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        queue.drainTo(batch, maxBatchSize - batch.size());
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        running = false;
+      }
+
+      commitWithRetries(batch);
+      batch.clear();
+    }
+  }
+
+  /**
+   * Retries the batch while the database or its transactions fail, and gives up on it for any
+   * other error. The writer thread carries on either way.
+   */
+  private void commitWithRetries(List<QueuedUrl> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    while (true) {
+      try {
+        commit(batch);
+        return;
+      } catch (RuntimeException exception) {
+        if (!(exception instanceof DataAccessException)
+            && !(exception instanceof TransactionException)) {
+          log.error("Could not commit {} queued urls, they are lost.", batch.size(), exception);
+          batch.forEach(queuedUrl -> fail(queuedUrl, exception));
+          return;
+        }
+        if (!running) {
+          log.error("Could not commit {} queued urls while stopping, they are lost.",
+              batch.size(), exception);
+          batch.forEach(queuedUrl -> fail(queuedUrl, exception));
+          return;
+        }
+        log.warn("Could not commit {} queued urls, retrying in {}.", batch.size(),
+            writeBehindProperties.getRetryBackoff(), exception);
+        try {
+          Thread.sleep(writeBehindProperties.getRetryBackoff().toMillis());
+        } catch (InterruptedException interruptedException) {
+          Thread.currentThread().interrupt();
+          running = false;
+        }
+      }
+    }
+  }
+
+  private void commit(List<QueuedUrl> batch) {
+    try {
+      urlInsertWriter.insert(batch.stream()
+          .map(queuedUrl -> queuedUrl.url)
+          .collect(Collectors.toList()));
+      batch.forEach(queuedUrl -> committed(queuedUrl, queuedUrl.url));
+      return;
+    } catch (DataIntegrityViolationException exception) {
+      // Usually an equal url committed by another node, the batch has been rolled back.
+      log.debug("Group commit of {} urls rejected, inserting them one by one.", batch.size());
+    }
+
+    for (QueuedUrl queuedUrl : batch) {
+      if (queuedUrl.committed.isDone()) {
+        continue;
+      }
+      try {
+        urlInsertWriter.insert(List.of(queuedUrl.url));
+        committed(queuedUrl, queuedUrl.url);
+      } catch (DataIntegrityViolationException exception) {
+        resolveConflict(queuedUrl, exception);
+      }
+    }
+  }
+
+  private void resolveConflict(QueuedUrl queuedUrl, DataIntegrityViolationException exception) {
+    Optional<Url> winner = urlRepository.findByDedupKey(queuedUrl.url.getDedupKey());
+    if (winner.isEmpty()) {
+      log.error("Could not commit queued url {}.", queuedUrl.url.getId(), exception);
+      fail(queuedUrl, exception);
+      return;
+    }
+    if (winner.get().getId().equals(queuedUrl.url.getId())) {
+      // Committed by an earlier attempt whose outcome was lost.
+      committed(queuedUrl, queuedUrl.url);
+      return;
+    }
+
+    conflictingUrls.increment();
+    if (writeBehindProperties.getDurability() == Durability.BUFFERED) {
+      log.warn("Acknowledged url {} lost to the equal url {} created meanwhile.",
+          queuedUrl.url.getId(), winner.get().getId());
+    }
+    committed(queuedUrl, winner.get());
+  }
+
+  private void committed(QueuedUrl queuedUrl, Url url) {
+    if (url == queuedUrl.url) {
+      liveUrlFilter.add(url.getId());
+      linkIndex.add(url);
+      committedUrls.increment();
+    }
+    forget(queuedUrl);
+    queuedUrl.committed.complete(url);
+  }
+
+  private void fail(QueuedUrl queuedUrl, RuntimeException exception) {
+    forget(queuedUrl);
+    queuedUrl.committed.completeExceptionally(exception);
+  }
+
+  private void forget(QueuedUrl queuedUrl) {
+    queuedById.remove(queuedUrl.url.getId(), queuedUrl);
+    queuedByDedupKey.remove(queuedUrl.url.getDedupKey(), queuedUrl);
+  }
+
+  private static class QueuedUrl {
+
+    private final Url url;
+    private final CompletableFuture<Url> committed = new CompletableFuture<>();
+
+    private QueuedUrl(Url url) {
+      this.url = url;
+    }
+  }
+}
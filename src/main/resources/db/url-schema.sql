@@ -0,0 +1,16 @@
+create table if not exists url (
+  id bigint not null primary key,
+  url varchar(255) not null,
+  created_at timestamp,
+  expiring_at timestamp,
+  redirect_type varchar(255),
+  dedup_key varchar(64) not null,
+  constraint uk_url_dedup_key unique (dedup_key)
+);
+
+create index if not exists idx_url_expiring_at on url (expiring_at);
+
+create table if not exists url_store (
+  id integer not null primary key,
+  store_id varchar(36) not null
+);
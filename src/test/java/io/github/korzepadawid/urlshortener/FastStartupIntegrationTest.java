@@ -0,0 +1,57 @@
+package io.github.korzepadawid.urlshortener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.github.korzepadawid.urlshortener.api.v1.controllers.IndexController;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import io.github.korzepadawid.urlshortener.schedulers.DeferredTaskScheduler;
+import io.github.korzepadawid.urlshortener.services.Base62Service;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureMockMvc
+@ActiveProfiles("fast-startup")
+class FastStartupIntegrationTest {
+
+  @Autowired
+  private ConfigurableApplicationContext context;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private UrlRepository urlRepository;
+
+  @Autowired
+  private Base62Service base62Service;
+
+  @Test
+  void startup_WhenFastStartupProfile_ThenCreatesOnlyTheRedirectPathAndSchedulersUpFront() {
+    assertThat(context.getBeanFactory().containsSingleton("indexController")).isTrue();
+    assertThat(context.getBeanFactory().containsSingleton("restControllerExceptionHandler"))
+        .isTrue();
+    assertThat(context.getBeanFactory().containsSingleton("deleteExpiredUrlsScheduler")).isTrue();
+    assertThat(context.getBeanFactory().containsSingleton("basicErrorController")).isFalse();
+    assertThat(context.getBean(TaskScheduler.class)).isInstanceOf(DeferredTaskScheduler.class);
+  }
+
+  @Test
+  void httpGet_WhenFastStartupProfile_ThenRedirects() throws Exception {
+    Url savedUrl = urlRepository.save(Url.builder()
+        .url("https://www.fast-startup.org/")
+        .build());
+
+    mockMvc.perform(get(IndexController.BASE_URL + "/" + base62Service.encode(savedUrl.getId())))
+        .andExpect(status().is3xxRedirection());
+  }
+}
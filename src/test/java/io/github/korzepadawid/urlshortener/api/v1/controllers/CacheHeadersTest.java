@@ -0,0 +1,55 @@
+package io.github.korzepadawid.urlshortener.api.v1.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.config.RedirectProperties;
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class CacheHeadersTest {
+
+  private final RedirectProperties redirectProperties = new RedirectProperties();
+  private final CacheHeaders cacheHeaders = new CacheHeaders(redirectProperties);
+
+  @Test
+  void maxAge_WhenNeverExpires_ThenReturnsConfiguredMaxAge() {
+    assertThat(cacheHeaders.maxAge(true, null)).isEqualTo(Duration.ofDays(365));
+    assertThat(cacheHeaders.maxAge(false, null)).isEqualTo(Duration.ofHours(1));
+  }
+
+  @Test
+  void maxAge_WhenExpiresBeforeMaxAge_ThenReturnsTimeToExpiry() {
+    Duration maxAge = cacheHeaders.maxAge(true, LocalDateTime.now().plusMinutes(10));
+
+    assertThat(maxAge).isBetween(Duration.ofMinutes(9), Duration.ofMinutes(10));
+  }
+
+  @Test
+  void maxAge_WhenExpiresAfterMaxAge_ThenReturnsMaxAge() {
+    assertThat(cacheHeaders.maxAge(false, LocalDateTime.now().plusDays(3)))
+        .isEqualTo(Duration.ofHours(1));
+  }
+
+  @Test
+  void maxAge_WhenAlreadyExpired_ThenReturnsZero() {
+    assertThat(cacheHeaders.maxAge(true, LocalDateTime.now().minusSeconds(1)))
+        .isEqualTo(Duration.ZERO);
+  }
+
+  @Test
+  void eTag_WhenUrlChanges_ThenReturnsDifferentTag() {
+    UrlReadDto urlReadDto = UrlReadDto.builder()
+        .longUrl("https://stackoverflow.com/")
+        .shortUrl("/fhf2")
+        .build();
+    String eTag = CacheHeaders.eTag(urlReadDto);
+
+    urlReadDto.setRedirectType(RedirectType.PERMANENT_REDIRECT);
+
+    assertThat(eTag).startsWith("\"").endsWith("\"");
+    assertThat(CacheHeaders.eTag(urlReadDto)).isNotEqualTo(eTag);
+  }
+}
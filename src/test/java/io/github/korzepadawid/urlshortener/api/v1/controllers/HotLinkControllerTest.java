@@ -0,0 +1,52 @@
+package io.github.korzepadawid.urlshortener.api.v1.controllers;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.HotLinkReadDto;
+import io.github.korzepadawid.urlshortener.services.HotLinkService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+class HotLinkControllerTest {
+
+  @Mock
+  private HotLinkService hotLinkService;
+
+  @InjectMocks
+  private HotLinkController hotLinkController;
+
+  private MockMvc mockMvc;
+
+  private static final String SHORT_URL = "/fhf2";
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.standaloneSetup(hotLinkController).build();
+  }
+
+  @Test
+  void getTop_WhenLimitGiven_ThenReturnsHotLinksAndStatus200() throws Exception {
+    when(hotLinkService.getTopLinks(eq(5))).thenReturn(List.of(HotLinkReadDto.builder()
+        .shortUrl(SHORT_URL)
+        .hits(7)
+        .build()));
+
+    mockMvc.perform(get(HotLinkController.BASE_URL).param("limit", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].shortUrl", is(SHORT_URL)))
+        .andExpect(jsonPath("$[0].hits", is(7)));
+  }
+}
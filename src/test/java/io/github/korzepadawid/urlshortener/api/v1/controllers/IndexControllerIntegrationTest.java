@@ -1,11 +1,13 @@
 package io.github.korzepadawid.urlshortener.api.v1.controllers;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.ClickCountRepository;
 import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
 import io.github.korzepadawid.urlshortener.services.Base62Service;
 import java.time.LocalDateTime;
@@ -28,6 +30,9 @@ public class IndexControllerIntegrationTest {
   @Autowired
   private UrlRepository urlRepository;
 
+  @Autowired
+  private ClickCountRepository clickCountRepository;
+
   private static final String HTTPS_STACKOVERFLOW_COM = "https://stackoverflow.com/";
 
   @Test
@@ -56,6 +61,26 @@ public class IndexControllerIntegrationTest {
         .andExpect(status().is3xxRedirection());
   }
 
+  @Test
+  void httpGet_WhenRedirected_ThenClicksAreCountedAsynchronously() throws Exception {
+    // Committed, so it mustn't collide with urls created by other tests.
+    Url savedUrl = urlRepository.save(urlEntityWithExpiringAt(LocalDateTime.now().plusYears(1)));
+    final String shortUrl = "/" + base62Service.encode(savedUrl.getId());
+
+    mockMvc.perform(get(IndexController.BASE_URL + shortUrl));
+    mockMvc.perform(get(IndexController.BASE_URL + shortUrl));
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (clickCountRepository.findById(savedUrl.getId()).isEmpty()
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+    mockMvc.perform(get(UrlController.BASE_URL + shortUrl + "/clicks"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.shortUrl", is(shortUrl)))
+        .andExpect(jsonPath("$.clicks", is(2)));
+  }
+
   Url urlEntityWithExpiringAt(LocalDateTime expiringAt) {
     return Url.builder()
         .url(HTTPS_STACKOVERFLOW_COM)
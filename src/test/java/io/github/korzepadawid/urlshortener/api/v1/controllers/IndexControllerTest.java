@@ -2,21 +2,31 @@ package io.github.korzepadawid.urlshortener.api.v1.controllers;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
-import io.github.korzepadawid.urlshortener.exceptions.ResourceNotFoundException;
+import io.github.korzepadawid.urlshortener.clicks.ClickTracker;
+import io.github.korzepadawid.urlshortener.config.RedirectProperties;
+import io.github.korzepadawid.urlshortener.hotlinks.HotLinkTracker;
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
 import io.github.korzepadawid.urlshortener.services.UrlService;
+import java.time.LocalDateTime;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
@@ -26,12 +36,27 @@ class IndexControllerTest {
   @Mock
   private UrlService urlService;
 
+  @Mock
+  private ClickTracker clickTracker;
+
+  @Mock
+  private HotLinkTracker hotLinkTracker;
+
+  @Spy
+  private RedirectProperties redirectProperties = new RedirectProperties();
+
+  @Spy
+  private NotFoundResponses notFoundResponses = new NotFoundResponses();
+
+  @Spy
+  private CacheHeaders cacheHeaders = new CacheHeaders(redirectProperties);
+
   @InjectMocks
   private IndexController indexController;
 
   private MockMvc mockMvc;
 
-  private final static String ERROR_MESSAGE = "Not found";
+  private final static String ERROR_MESSAGE = "Invalid encoded id: fhf2. Url not found.";
   private static final String HTTPS_STACKOVERFLOW_COM = "https://stackoverflow.com/";
   private static final String BASE62ENCODED_ID = "fhf2";
   private static final String SHORT_URL = "/" + BASE62ENCODED_ID;
@@ -45,24 +70,77 @@ class IndexControllerTest {
 
   @Test
   void redirectToOriginalUrl_WhenNotExistingOrExpiredUrl_ThenReturnsStatus404() throws Exception {
-    when(urlService.getUrl(anyString())).thenThrow(new ResourceNotFoundException(ERROR_MESSAGE));
+    when(urlService.findRedirectUrl(anyString())).thenReturn(Optional.empty());
 
     mockMvc.perform(get(IndexController.BASE_URL + "/"  + BASE62ENCODED_ID))
         .andExpect(status().isNotFound())
-        .andExpect(jsonPath("$.message", is(ERROR_MESSAGE)));
+        .andExpect(jsonPath("$.message", is(ERROR_MESSAGE)))
+        .andExpect(jsonPath("$.status", is(404)));
   }
 
   @Test
-  void redirectToOriginalUrl_WhenExistingUrl_ThenReturnsStatus301AndRedirectsToOriginalPage()
+  void redirectToOriginalUrl_WhenExistingUrl_ThenReturnsDefaultStatusAndRedirectsToOriginalPage()
       throws Exception {
-    UrlReadDto urlReadDto = UrlReadDto.builder()
-        .longUrl(HTTPS_STACKOVERFLOW_COM)
-        .shortUrl(SHORT_URL)
-        .build();
-    when(urlService.getUrl(anyString())).thenReturn(urlReadDto);
+    when(urlService.findRedirectUrl(anyString()))
+        .thenReturn(Optional.of(urlWithRedirectType(null)));
 
     mockMvc.perform(get(IndexController.BASE_URL + "/" + BASE62ENCODED_ID))
-        .andExpect(status().is3xxRedirection())
-        .andExpect(redirectedUrl(urlReadDto.getLongUrl()));
+        .andExpect(status().isFound())
+        .andExpect(redirectedUrl(HTTPS_STACKOVERFLOW_COM));
+    verify(clickTracker, times(1)).record(1L);
+    verify(hotLinkTracker, times(1)).record(1L);
+  }
+
+  @Test
+  void redirectToOriginalUrl_WhenUrlHasRedirectType_ThenReturnsItsStatus() throws Exception {
+    when(urlService.findRedirectUrl(anyString()))
+        .thenReturn(Optional.of(urlWithRedirectType(RedirectType.MOVED_PERMANENTLY)));
+
+    mockMvc.perform(get(IndexController.BASE_URL + "/" + BASE62ENCODED_ID))
+        .andExpect(status().isMovedPermanently())
+        .andExpect(redirectedUrl(HTTPS_STACKOVERFLOW_COM));
+  }
+
+  @Test
+  void redirectToOriginalUrl_WhenDefaultTypeConfigured_ThenReturnsConfiguredStatus()
+      throws Exception {
+    redirectProperties.setDefaultType(RedirectType.TEMPORARY_REDIRECT);
+    when(urlService.findRedirectUrl(anyString()))
+        .thenReturn(Optional.of(urlWithRedirectType(null)));
+
+    mockMvc.perform(get(IndexController.BASE_URL + "/" + BASE62ENCODED_ID))
+        .andExpect(status().isTemporaryRedirect())
+        .andExpect(redirectedUrl(HTTPS_STACKOVERFLOW_COM));
+  }
+
+  @Test
+  void redirectToOriginalUrl_WhenPermanentUrlNeverExpires_ThenIsCachedForPermanentMaxAge()
+      throws Exception {
+    when(urlService.findRedirectUrl(anyString()))
+        .thenReturn(Optional.of(urlWithRedirectType(RedirectType.PERMANENT_REDIRECT)));
+
+    mockMvc.perform(get(IndexController.BASE_URL + "/" + BASE62ENCODED_ID))
+        .andExpect(status().isPermanentRedirect())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public"))
+        .andExpect(header().exists(HttpHeaders.EXPIRES));
+  }
+
+  @Test
+  void redirectToOriginalUrl_WhenUrlExpiresSoon_ThenIsCachedUntilItExpires() throws Exception {
+    Url url = urlWithRedirectType(RedirectType.PERMANENT_REDIRECT);
+    url.setExpiringAt(LocalDateTime.now().plusSeconds(90));
+    when(urlService.findRedirectUrl(anyString())).thenReturn(Optional.of(url));
+
+    mockMvc.perform(get(IndexController.BASE_URL + "/" + BASE62ENCODED_ID))
+        .andExpect(status().isPermanentRedirect())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=89, public"));
+  }
+
+  Url urlWithRedirectType(RedirectType redirectType) {
+    return Url.builder()
+        .id(1L)
+        .url(HTTPS_STACKOVERFLOW_COM)
+        .redirectType(redirectType)
+        .build();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package io.github.korzepadawid.urlshortener.api.v1.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+class NotFoundResponsesTest {
+
+  private final NotFoundResponses notFoundResponses = new NotFoundResponses();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void body_WhenPlainCode_ThenReturnsRestExceptionJson() throws Exception {
+    JsonNode body = objectMapper.readTree(notFoundResponses.body("fhf2"));
+
+    assertThat(body.get("message").asText()).isEqualTo("Invalid encoded id: fhf2. Url not found.");
+    assertThat(body.get("status").asInt()).isEqualTo(404);
+    assertThat(body.get("date").asText()).matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}");
+    assertThat(body.get("details").isNull()).isTrue();
+  }
+
+  @Test
+  void body_WhenCodeNeedsEscaping_ThenReturnsValidJson() throws Exception {
+    final String code = "a\"b\\c\nź";
+
+    JsonNode body = objectMapper.readTree(notFoundResponses.body(code));
+
+    assertThat(body.get("message").asText())
+        .isEqualTo("Invalid encoded id: " + code + ". Url not found.");
+  }
+
+  @Test
+  void escape_WhenNothingToEscape_ThenReturnsSameString() {
+    final String code = "fhf2";
+
+    assertThat(NotFoundResponses.escape(code)).isSameAs(code);
+  }
+}
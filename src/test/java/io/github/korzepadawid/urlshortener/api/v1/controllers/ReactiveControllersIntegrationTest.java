@@ -0,0 +1,164 @@
+package io.github.korzepadawid.urlshortener.api.v1.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import io.github.korzepadawid.urlshortener.services.Base62Service;
+import java.time.LocalDateTime;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.DispatcherHandler;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+class ReactiveControllersIntegrationTest {
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  @Autowired
+  private ApplicationContext applicationContext;
+
+  @Autowired
+  private Base62Service base62Service;
+
+  @Autowired
+  private UrlRepository urlRepository;
+
+  private static final String HTTPS_STACKOVERFLOW_COM = "https://stackoverflow.com/";
+
+  @Test
+  void context_WhenReactiveProfile_ThenOnlyReactiveControllersAreRegistered() {
+    assertThat(applicationContext.getBeansOfType(DispatcherHandler.class)).isNotEmpty();
+    assertThat(applicationContext.getBeansOfType(IndexController.class)).isEmpty();
+    assertThat(applicationContext.getBeansOfType(UrlController.class)).isEmpty();
+  }
+
+  @Test
+  void httpPost_WhenValidUrl_ThenCreatesUrlWhichRedirects() {
+    UrlReadDto createdUrl = webTestClient.post().uri(UrlController.BASE_URL)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"url\":\"https://www.tensorflow.org/\"}")
+        .exchange()
+        .expectStatus().isCreated()
+        .expectBody(UrlReadDto.class)
+        .returnResult()
+        .getResponseBody();
+    assertThat(createdUrl).isNotNull();
+    assertThat(createdUrl.getLongUrl()).isEqualTo("https://www.tensorflow.org/");
+
+    webTestClient.get().uri(IndexController.BASE_URL + createdUrl.getShortUrl())
+        .exchange()
+        .expectStatus().isFound()
+        .expectHeader().valueEquals(HttpHeaders.LOCATION, "https://www.tensorflow.org/");
+  }
+
+  @Test
+  void httpGet_WhenUrlSavedOutsideTheCache_ThenReadsItThroughR2dbc() {
+    Url savedUrl = urlRepository.save(Url.builder()
+        .url(HTTPS_STACKOVERFLOW_COM)
+        .expiringAt(LocalDateTime.now().plusYears(2))
+        .redirectType(RedirectType.PERMANENT_REDIRECT)
+        .build());
+    final String shortUrl = "/" + base62Service.encode(savedUrl.getId());
+
+    webTestClient.get().uri(IndexController.BASE_URL + shortUrl)
+        .exchange()
+        .expectStatus().isPermanentRedirect()
+        .expectHeader().valueEquals(HttpHeaders.LOCATION, HTTPS_STACKOVERFLOW_COM);
+    webTestClient.get().uri(UrlController.BASE_URL + shortUrl)
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.longUrl").isEqualTo(HTTPS_STACKOVERFLOW_COM)
+        .jsonPath("$.shortUrl").isEqualTo(shortUrl);
+  }
+
+  @Test
+  void httpGet_WhenIfNoneMatchEqualsETag_ThenReturns304() {
+    Url savedUrl = urlRepository.save(Url.builder()
+        .url(HTTPS_STACKOVERFLOW_COM)
+        .redirectType(RedirectType.PERMANENT_REDIRECT)
+        .build());
+    final String shortUrl = "/" + base62Service.encode(savedUrl.getId());
+
+    webTestClient.get().uri(IndexController.BASE_URL + shortUrl)
+        .exchange()
+        .expectStatus().isPermanentRedirect()
+        .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public");
+    String eTag = webTestClient.get().uri(UrlController.BASE_URL + shortUrl)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=3600, public")
+        .returnResult(String.class)
+        .getResponseHeaders()
+        .getETag();
+    assertThat(eTag).isNotNull();
+
+    webTestClient.get().uri(UrlController.BASE_URL + shortUrl)
+        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        .exchange()
+        .expectStatus().isNotModified()
+        .expectBody().isEmpty();
+  }
+
+  @Test
+  void httpGet_WhenExpiredUrl_ThenReturns404() {
+    Url savedUrl = urlRepository.save(Url.builder()
+        .url(HTTPS_STACKOVERFLOW_COM)
+        .expiringAt(LocalDateTime.now().minusSeconds(1))
+        .build());
+    final String shortUrl = "/" + base62Service.encode(savedUrl.getId());
+
+    webTestClient.get().uri(IndexController.BASE_URL + shortUrl)
+        .exchange()
+        .expectStatus().isNotFound()
+        .expectBody()
+        .jsonPath("$.message").value(Matchers.containsString("not found"));
+  }
+
+  @Test
+  void httpGet_WhenUnknownCode_ThenReturns404() {
+    webTestClient.get().uri(UrlController.BASE_URL + "/sdad")
+        .exchange()
+        .expectStatus().isNotFound()
+        .expectHeader().contentType(MediaType.APPLICATION_JSON)
+        .expectBody()
+        .jsonPath("$.message").value(Matchers.containsString("not found"))
+        .jsonPath("$.status").isEqualTo(404);
+  }
+
+  @Test
+  void httpPost_WhenBlankUrl_ThenReturnsValidationError() {
+    webTestClient.post().uri(UrlController.BASE_URL)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"url\":\"\"}")
+        .exchange()
+        .expectStatus().isBadRequest()
+        .expectBody()
+        .jsonPath("$.message").isEqualTo("Validation error.")
+        .jsonPath("$.details.url").exists();
+  }
+
+  @Test
+  void httpPost_WhenMalformedJson_ThenReturnsParseError() {
+    webTestClient.post().uri(UrlController.BASE_URL)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"url\":")
+        .exchange()
+        .expectStatus().isBadRequest()
+        .expectBody()
+        .jsonPath("$.message").isEqualTo("JSON Parse error.");
+  }
+}
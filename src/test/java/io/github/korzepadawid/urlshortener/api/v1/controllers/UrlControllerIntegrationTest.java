@@ -1,5 +1,6 @@
 package io.github.korzepadawid.urlshortener.api.v1.controllers;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
@@ -23,9 +24,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@Transactional
 class UrlControllerIntegrationTest {
 
   @Autowired
@@ -142,6 +145,46 @@ class UrlControllerIntegrationTest {
         .andExpect(jsonPath("$.expiringAt", nullValue()));
   }
 
+  @Test
+  void httpPostBatch_WhenNdjson_ThenReturnsResultPerItemInInputOrder() throws Exception {
+    UrlWriteDto validUrl = UrlWriteDto.builder().url("https://spring.io/").build();
+    UrlWriteDto invalidUrl = UrlWriteDto.builder().url("invalid url").build();
+    String body = JsonMapper.toJson(validUrl) + "\n" + JsonMapper.toJson(invalidUrl) + "\n"
+        + JsonMapper.toJson(validUrl) + "\n";
+
+    String response = mockMvc.perform(post(UrlController.BASE_URL + "/batch")
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .content(body))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+
+    String[] lines = response.split("\n");
+    assertThat(lines).hasSize(3);
+    assertThat(lines[0]).contains("\"longUrl\":\"https://spring.io/\"");
+    assertThat(lines[1]).contains("\"status\":400").contains("Invalid url.");
+    assertThat(lines[2]).isEqualTo(lines[0]);
+  }
+
+  @Test
+  void httpPostBatch_WhenJsonArray_ThenCreatesEveryUrl() throws Exception {
+    String body = "[{\"url\": \"https://start.spring.io/\"}, {\"url\": \"https://github.com/\"}]";
+
+    String response = mockMvc.perform(post(UrlController.BASE_URL + "/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(body))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+
+    String[] lines = response.split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).contains("https://start.spring.io/");
+    assertThat(lines[1]).contains("https://github.com/");
+  }
+
   Url urlEntityWithExpiringAt(LocalDateTime expiringAt) {
     return Url.builder()
         .url(HTTPS_STACKOVERFLOW_COM)
@@ -6,21 +6,29 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import io.github.korzepadawid.urlshortener.JsonMapper;
+import io.github.korzepadawid.urlshortener.api.v1.models.ClickCountReadDto;
 import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
 import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
-import io.github.korzepadawid.urlshortener.exceptions.ResourceNotFoundException;
+import io.github.korzepadawid.urlshortener.config.RedirectProperties;
+import io.github.korzepadawid.urlshortener.services.ClickService;
+import io.github.korzepadawid.urlshortener.services.UrlBatchService;
 import io.github.korzepadawid.urlshortener.services.UrlService;
 import java.time.LocalDateTime;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -31,6 +39,18 @@ class UrlControllerTest {
   @Mock
   private UrlService urlService;
 
+  @Mock
+  private UrlBatchService urlBatchService;
+
+  @Mock
+  private ClickService clickService;
+
+  @Spy
+  private NotFoundResponses notFoundResponses = new NotFoundResponses();
+
+  @Spy
+  private CacheHeaders cacheHeaders = new CacheHeaders(new RedirectProperties());
+
   @InjectMocks
   private UrlController urlController;
 
@@ -118,8 +138,8 @@ class UrlControllerTest {
 
   @Test
   void getOne_WhenHttpGetWithNotExistingOrExpiredUrl_ThenReturnsStatus404() throws Exception {
-    final String errorMessage = "Not found";
-    when(urlService.getUrl(anyString())).thenThrow(new ResourceNotFoundException(errorMessage));
+    final String errorMessage = "Invalid encoded id: ds2. Url not found.";
+    when(urlService.findUrl(anyString())).thenReturn(Optional.empty());
 
     mockMvc.perform(get(UrlController.BASE_URL + "/ds2"))
         .andExpect(status().isNotFound())
@@ -128,7 +148,7 @@ class UrlControllerTest {
 
   @Test
   void getOne_WhenHttpGetWithExistingUrl_ThenReturnsUrlReadDtoAndStatus200() throws Exception {
-    when(urlService.getUrl(anyString())).thenReturn(urlReadDto);
+    when(urlService.findUrl(anyString())).thenReturn(Optional.of(urlReadDto));
 
     mockMvc.perform(get(UrlController.BASE_URL + "/ds2"))
         .andExpect(status().isOk())
@@ -136,4 +156,46 @@ class UrlControllerTest {
         .andExpect(jsonPath("$.longUrl", is(urlReadDto.getLongUrl())))
         .andExpect(jsonPath("$.expiringAt", is(urlReadDto.getExpiringAt())));
   }
-}
\ No newline at end of file
+
+  @Test
+  void getOne_WhenHttpGetWithExistingUrl_ThenReturnsETagAndCacheControl() throws Exception {
+    when(urlService.findUrl(anyString())).thenReturn(Optional.of(urlReadDto));
+
+    mockMvc.perform(get(UrlController.BASE_URL + "/ds2"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, CacheHeaders.eTag(urlReadDto)))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"));
+  }
+
+  @Test
+  void getOne_WhenIfNoneMatchEqualsETag_ThenReturnsStatus304WithoutBody() throws Exception {
+    when(urlService.findUrl(anyString())).thenReturn(Optional.of(urlReadDto));
+
+    mockMvc.perform(get(UrlController.BASE_URL + "/ds2")
+            .header(HttpHeaders.IF_NONE_MATCH, CacheHeaders.eTag(urlReadDto)))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void getClicks_WhenExistingUrl_ThenReturnsClickCountAndStatus200() throws Exception {
+    when(clickService.getClicks(anyString())).thenReturn(ClickCountReadDto.builder()
+        .shortUrl(SHORT_URL)
+        .clicks(42)
+        .build());
+
+    mockMvc.perform(get(UrlController.BASE_URL + SHORT_URL + "/clicks"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.shortUrl", is(SHORT_URL)))
+        .andExpect(jsonPath("$.clicks", is(42)));
+  }
+
+  @Test
+  void getOne_WhenCodeIsTop_ThenLooksUpTheShortCode() throws Exception {
+    when(urlService.findUrl("top")).thenReturn(Optional.of(urlReadDto));
+
+    mockMvc.perform(get(UrlController.BASE_URL + "/top"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.longUrl", is(urlReadDto.getLongUrl())));
+  }
+}
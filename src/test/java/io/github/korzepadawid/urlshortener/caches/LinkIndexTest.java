@@ -0,0 +1,98 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import io.github.korzepadawid.urlshortener.config.LinkIndexProperties;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
+
+@ExtendWith(MockitoExtension.class)
+class LinkIndexTest {
+
+  @Mock
+  private UrlRepository urlRepository;
+
+  private LinkIndexProperties linkIndexProperties;
+  private LinkIndex linkIndex;
+
+  @BeforeEach
+  void setUp() {
+    linkIndexProperties = new LinkIndexProperties();
+    linkIndexProperties.setEnabled(true);
+    linkIndexProperties.setExpectedUrls(16);
+    linkIndexProperties.setRebuildPageSize(2);
+    linkIndex = new LinkIndex(urlRepository, linkIndexProperties);
+  }
+
+  @Test
+  void find_WhenRebuilt_ThenReturnsEveryPageOfUrls() {
+    givenLiveUrls(List.of(url(2), url(5)), List.of(url(9)));
+
+    linkIndex.rebuild();
+
+    assertThat(linkIndex.getIndexedUrls()).isEqualTo(3);
+    assertThat(linkIndex.find(9).map(Url::getUrl)).contains("https://stackoverflow.com/9");
+    assertThat(linkIndex.find(4)).isEmpty();
+  }
+
+  @Test
+  void find_WhenAddedAfterRebuild_ThenReturnsUrl() {
+    givenLiveUrls(List.of(url(2)));
+    linkIndex.rebuild();
+
+    linkIndex.add(url(11));
+
+    assertThat(linkIndex.find(11)).isPresent();
+  }
+
+  @Test
+  void rebuild_WhenDatabaseFails_ThenKeepsPreviousIndex() {
+    givenLiveUrls(List.of(url(2)));
+    linkIndex.rebuild();
+    when(urlRepository.findLiveUrlsAfter(eq(-1L), any(), any(Pageable.class)))
+        .thenThrow(new DataAccessResourceFailureException("down"));
+
+    linkIndex.rebuild();
+
+    assertThat(linkIndex.find(2)).isPresent();
+  }
+
+  @Test
+  void add_WhenDisabled_ThenIgnoresUrl() {
+    linkIndexProperties.setEnabled(false);
+    LinkIndex disabledIndex = new LinkIndex(urlRepository, linkIndexProperties);
+
+    disabledIndex.add(url(3));
+    disabledIndex.rebuild();
+
+    assertThat(disabledIndex.find(3)).isEmpty();
+  }
+
+  @SafeVarargs
+  private void givenLiveUrls(List<Url>... pages) {
+    long afterId = -1;
+    for (List<Url> page : pages) {
+      when(urlRepository.findLiveUrlsAfter(eq(afterId), any(), any(Pageable.class)))
+          .thenReturn(page);
+      afterId = page.get(page.size() - 1).getId();
+    }
+  }
+
+  private static Url url(long id) {
+    return Url.builder()
+        .id(id)
+        .url("https://stackoverflow.com/" + id)
+        .build();
+  }
+}
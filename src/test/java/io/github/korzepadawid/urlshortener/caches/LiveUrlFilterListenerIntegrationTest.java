@@ -0,0 +1,35 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class LiveUrlFilterListenerIntegrationTest {
+
+  @Autowired
+  private UrlRepository urlRepository;
+
+  @Autowired
+  private LiveUrlFilter liveUrlFilter;
+
+  @Test
+  void save_WhenUrlInsertedThroughJpa_ThenFilterLearnsItsId() {
+    long previousId = urlRepository.save(newUrl("https://www.listener.org/1")).getId();
+    // Ids come from this node's block one after another
+    liveUrlFilter.markMissing(previousId + 1);
+
+    long id = urlRepository.save(newUrl("https://www.listener.org/2")).getId();
+
+    assertThat(id).isEqualTo(previousId + 1);
+    assertThat(liveUrlFilter.mightExist(id)).isTrue();
+  }
+
+  private static Url newUrl(String longUrl) {
+    return Url.builder().url(longUrl).build();
+  }
+}
@@ -0,0 +1,77 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.korzepadawid.urlshortener.config.LiveUrlFilterProperties;
+import io.github.korzepadawid.urlshortener.ids.FeistelPermutation;
+import io.github.korzepadawid.urlshortener.ids.SnowflakeIds;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LiveUrlFilterTest {
+
+  private LiveUrlFilterProperties liveUrlFilterProperties;
+  private LiveUrlFilter liveUrlFilter;
+
+  @BeforeEach
+  void setUp() {
+    liveUrlFilterProperties = new LiveUrlFilterProperties();
+    liveUrlFilter = new LiveUrlFilter(liveUrlFilterProperties);
+  }
+
+  @Test
+  void mightExist_WhenNeverLookedUp_ThenLetsIdThrough() {
+    assertThat(liveUrlFilter.mightExist(7)).isTrue();
+  }
+
+  @Test
+  void mightExist_WhenMarkedMissing_ThenRejectsIdUntilAdded() {
+    liveUrlFilter.markMissing(12);
+
+    assertThat(liveUrlFilter.mightExist(12)).isFalse();
+
+    liveUrlFilter.add(12);
+
+    assertThat(liveUrlFilter.mightExist(12)).isTrue();
+  }
+
+  @Test
+  void mightExist_WhenMarkedMissingLongAgo_ThenLetsIdThroughAgain() throws InterruptedException {
+    liveUrlFilterProperties.setNegativeCacheTtl(Duration.ofMillis(1));
+    liveUrlFilter = new LiveUrlFilter(liveUrlFilterProperties);
+    liveUrlFilter.markMissing(12);
+
+    Thread.sleep(10);
+
+    assertThat(liveUrlFilter.mightExist(12)).isTrue();
+  }
+
+  @Test
+  void mightExist_WhenDisabled_ThenLetsEveryIdThrough() {
+    liveUrlFilterProperties.setEnabled(false);
+    liveUrlFilter.markMissing(12);
+
+    assertThat(liveUrlFilter.mightExist(12)).isTrue();
+  }
+
+  @Test
+  void mightExist_WhenSnowflakeIds_ThenRejectsOnlyIdsNobodyCanHaveMintedYet() {
+    AtomicLong clock = new AtomicLong(System.currentTimeMillis() - Duration.ofDays(1).toMillis());
+    FeistelPermutation permutation = new FeistelPermutation(SnowflakeIds.ID_BITS, 42);
+    SnowflakeIds otherNode = new SnowflakeIds(1, 10, 12, Instant.parse("2021-01-01T00:00:00Z"),
+        Duration.ofSeconds(5), permutation, clock::get);
+    // Long minted, maybe still waiting in another node's write-behind queue
+    long mintedLongAgo = otherNode.nextId();
+    clock.set(System.currentTimeMillis() + Duration.ofHours(1).toMillis());
+    long mintedAhead = otherNode.nextId();
+    liveUrlFilter = new LiveUrlFilter(liveUrlFilterProperties,
+        new SnowflakeIds(0, 10, 12, Instant.parse("2021-01-01T00:00:00Z"), Duration.ofSeconds(5),
+            permutation, System::currentTimeMillis));
+
+    assertThat(liveUrlFilter.mightExist(mintedLongAgo)).isTrue();
+    assertThat(liveUrlFilter.mightExist(mintedAhead)).isFalse();
+  }
+}
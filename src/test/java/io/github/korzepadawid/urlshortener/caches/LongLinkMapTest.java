@@ -0,0 +1,137 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class LongLinkMapTest {
+
+  @Test
+  void get_WhenPut_ThenReturnsUrlAsStored() {
+    LongLinkMap map = new LongLinkMap(16, 1024);
+    LocalDateTime expiringAt = LocalDateTime.of(2030, 1, 2, 3, 4, 5);
+    map.put(url(7, "https://zażółć.pl/", expiringAt, RedirectType.MOVED_PERMANENTLY));
+
+    assertThat(map.get(7)).hasValueSatisfying(url -> {
+      assertThat(url.getId()).isEqualTo(7);
+      assertThat(url.getUrl()).isEqualTo("https://zażółć.pl/");
+      assertThat(url.getExpiringAt()).isEqualTo(expiringAt);
+      assertThat(url.getRedirectType()).isEqualTo(RedirectType.MOVED_PERMANENTLY);
+    });
+    assertThat(map.get(8)).isEmpty();
+  }
+
+  @Test
+  void put_WhenSameId_ThenReplacesUrl() {
+    LongLinkMap map = new LongLinkMap(16, 1024);
+    map.put(url(7, "https://stackoverflow.com/", null, null));
+
+    map.put(url(7, "https://www.nytimes.com/", null, null));
+
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.get(7)).hasValueSatisfying(
+        url -> assertThat(url.getUrl()).isEqualTo("https://www.nytimes.com/"));
+  }
+
+  @Test
+  void put_WhenBeyondExpectedEntriesAndChunkSize_ThenKeepsEveryUrl() {
+    LongLinkMap map = new LongLinkMap(16, 64);
+    for (long id = 1; id <= 10_000; id++) {
+      map.put(url(id, "https://stackoverflow.com/" + id, null, null));
+    }
+
+    assertThat(map.size()).isEqualTo(10_000);
+    for (long id = 1; id <= 10_000; id++) {
+      assertThat(map.get(id).map(Url::getUrl)).contains("https://stackoverflow.com/" + id);
+    }
+    assertThat(map.offHeapBytes()).isPositive();
+  }
+
+  @Test
+  void put_WhenUrlLargerThanChunk_ThenStoresItInADedicatedChunk() {
+    LongLinkMap map = new LongLinkMap(16, 16);
+    String longUrl = "https://stackoverflow.com/" + "a".repeat(100);
+
+    map.put(url(1, longUrl, null, null));
+    map.put(url(2, "https://www.nytimes.com/", null, null));
+
+    assertThat(map.get(1).map(Url::getUrl)).contains(longUrl);
+    assertThat(map.get(2).map(Url::getUrl)).contains("https://www.nytimes.com/");
+  }
+
+  @Test
+  void put_WhenIdNotPositive_ThenThrowsIllegalArgumentException() {
+    LongLinkMap map = new LongLinkMap(16, 1024);
+
+    Throwable throwable = catchThrowable(
+        () -> map.put(url(0, "https://stackoverflow.com/", null, null)));
+
+    assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void remove_WhenCollidingEntries_ThenKeepsTheOthersReachable() {
+    LongLinkMap map = new LongLinkMap(16, 1024);
+    for (long id = 1; id <= 12; id++) {
+      map.put(url(id, "https://stackoverflow.com/" + id, null, null));
+    }
+
+    for (long id = 1; id <= 12; id += 2) {
+      map.remove(id);
+    }
+
+    assertThat(map.size()).isEqualTo(6);
+    for (long id = 1; id <= 12; id++) {
+      assertThat(map.get(id).isPresent()).isEqualTo(id % 2 == 0);
+    }
+  }
+
+  @Test
+  void get_WhenWrittenConcurrently_ThenNeverReturnsTornUrls() throws Exception {
+    LongLinkMap map = new LongLinkMap(16, 256);
+    AtomicBoolean writing = new AtomicBoolean(true);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> writer = executor.submit(() -> {
+        for (long id = 1; id <= 50_000; id++) {
+          map.put(url(id, "https://stackoverflow.com/" + id, null, null));
+        }
+        writing.set(false);
+      });
+      Future<Long> reader = executor.submit(() -> {
+        long mismatches = 0;
+        while (writing.get()) {
+          long id = 1 + (long) (Math.random() * 50_000);
+          String expected = "https://stackoverflow.com/" + id;
+          mismatches += map.get(id).filter(url -> !url.getUrl().equals(expected)).isPresent()
+              ? 1 : 0;
+        }
+        return mismatches;
+      });
+
+      writer.get(30, TimeUnit.SECONDS);
+      assertThat(reader.get(30, TimeUnit.SECONDS)).isZero();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Url url(long id, String url, LocalDateTime expiringAt,
+      RedirectType redirectType) {
+    return Url.builder()
+        .id(id)
+        .url(url)
+        .expiringAt(expiringAt)
+        .redirectType(redirectType)
+        .build();
+  }
+}
@@ -0,0 +1,71 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.korzepadawid.urlshortener.config.UrlCacheProperties;
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UrlCacheTest {
+
+  private static final String HTTPS_STACKOVERFLOW_COM = "https://stackoverflow.com/";
+  private static final Long ID = 4538735L;
+
+  private UrlCache urlCache;
+
+  @BeforeEach
+  void setUp() {
+    urlCache = new UrlCache(new UrlCacheProperties());
+  }
+
+  @Test
+  void get_WhenNotCached_ThenReturnsEmptyAndCountsMiss() {
+    assertThat(urlCache.get(ID)).isEmpty();
+    assertThat(urlCache.stats().missCount()).isEqualTo(1);
+  }
+
+  @Test
+  void get_WhenCachedWithoutExpiringAt_ThenReturnsUrlAndCountsHit() {
+    Url url = urlWithExpiringAt(null);
+
+    urlCache.put(url);
+
+    assertThat(urlCache.get(ID)).containsSame(url);
+    assertThat(urlCache.stats().hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void put_WhenExpiredUrl_ThenDoesNotCache() {
+    urlCache.put(urlWithExpiringAt(LocalDateTime.now().minusSeconds(1)));
+
+    assertThat(urlCache.get(ID)).isEmpty();
+  }
+
+  @Test
+  void get_WhenUrlExpiredWhileCached_ThenReturnsEmpty() throws InterruptedException {
+    urlCache.put(urlWithExpiringAt(LocalDateTime.now().plusNanos(50_000_000)));
+
+    Thread.sleep(100);
+
+    assertThat(urlCache.get(ID)).isEmpty();
+  }
+
+  @Test
+  void invalidate_WhenCached_ThenRemovesUrl() {
+    urlCache.put(urlWithExpiringAt(LocalDateTime.now().plusDays(1)));
+
+    urlCache.invalidate(ID);
+
+    assertThat(urlCache.get(ID)).isEmpty();
+  }
+
+  Url urlWithExpiringAt(LocalDateTime expiringAt) {
+    return Url.builder()
+        .id(ID)
+        .url(HTTPS_STACKOVERFLOW_COM)
+        .expiringAt(expiringAt)
+        .build();
+  }
+}
@@ -0,0 +1,202 @@
+package io.github.korzepadawid.urlshortener.caches;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import io.github.korzepadawid.urlshortener.config.UrlCacheProperties;
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import io.github.korzepadawid.urlshortener.storage.UrlStoreIdentity;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class UrlCacheWarmerTest {
+
+  private static final UUID STORE_ID = UUID.randomUUID();
+
+  @TempDir
+  Path directory;
+
+  @Mock
+  private UrlRepository urlRepository;
+
+  private UrlCacheProperties properties;
+  private UrlCache urlCache;
+  private UrlStoreIdentity urlStoreIdentity;
+
+  @BeforeEach
+  void setUp() {
+    properties = new UrlCacheProperties();
+    properties.getWarmRestart().setEnabled(true);
+    properties.getWarmRestart().setPath(directory.resolve("cache").resolve("urls.bin"));
+    urlCache = new UrlCache(properties);
+    lenient().when(urlRepository.getStoreId()).thenReturn(STORE_ID);
+    urlStoreIdentity = new UrlStoreIdentity(urlRepository);
+    urlStoreIdentity.identify();
+  }
+
+  @Test
+  void restore_WhenSavedOnShutdown_ThenCachesTheSameUrlsAgain() {
+    Url url = Url.builder()
+        .id(1L)
+        .url("https://www.example.org/")
+        .expiringAt(LocalDateTime.now().plusDays(1).withNano(123_000_000))
+        .redirectType(RedirectType.PERMANENT_REDIRECT)
+        .build();
+    Url neverExpiring = Url.builder()
+        .id(2L)
+        .url("https://www.example.com/")
+        .build();
+    urlCache.put(url);
+    urlCache.put(neverExpiring);
+    new UrlCacheWarmer(urlCache, urlStoreIdentity, properties).save();
+
+    UrlCache restarted = new UrlCache(properties);
+    int restored = new UrlCacheWarmer(restarted, urlStoreIdentity, properties).restore();
+
+    assertThat(restored).isEqualTo(2);
+    assertThat(restarted.get(1L)).hasValueSatisfying(restoredUrl -> {
+      assertThat(restoredUrl.getUrl()).isEqualTo(url.getUrl());
+      assertThat(restoredUrl.getExpiringAt()).isEqualTo(url.getExpiringAt());
+      assertThat(restoredUrl.getRedirectType()).isEqualTo(RedirectType.PERMANENT_REDIRECT);
+      assertThat(restoredUrl.getDedupKey())
+          .isEqualTo(Url.dedupKeyOf(url.getUrl(), url.getExpiringAt(), url.getRedirectType()));
+    });
+    assertThat(restarted.get(2L)).hasValueSatisfying(restoredUrl ->
+        assertThat(restoredUrl.getExpiringAt()).isNull());
+  }
+
+  @Test
+  void restore_WhenUrlExpiredSinceSaved_ThenSkipsIt() throws Exception {
+    Url expiringSoon = Url.builder()
+        .id(1L)
+        .url("https://www.example.org/")
+        .expiringAt(LocalDateTime.now().plusNanos(300_000_000))
+        .build();
+    urlCache.put(expiringSoon);
+    new UrlCacheWarmer(urlCache, urlStoreIdentity, properties).save();
+    Thread.sleep(400);
+
+    UrlCache restarted = new UrlCache(properties);
+
+    assertThat(new UrlCacheWarmer(restarted, urlStoreIdentity, properties).restore()).isZero();
+    assertThat(restarted.get(1L)).isEmpty();
+  }
+
+  @Test
+  void restore_WhenMoreUrlsThanTheLimit_ThenStopsAtTheLimit() {
+    for (long id = 1; id <= 10; id++) {
+      urlCache.put(Url.builder()
+          .id(id)
+          .url("https://www.example.org/" + id)
+          .build());
+    }
+    new UrlCacheWarmer(urlCache, urlStoreIdentity, properties).save();
+    properties.getWarmRestart().setMaxUrls(4);
+
+    UrlCache restarted = new UrlCache(properties);
+
+    assertThat(new UrlCacheWarmer(restarted, urlStoreIdentity, properties).restore()).isEqualTo(4);
+  }
+
+  @Test
+  void restore_WhenUrlCachedMeanwhile_ThenKeepsTheCachedOne() {
+    urlCache.put(Url.builder()
+        .id(1L)
+        .url("https://www.example.org/")
+        .build());
+    new UrlCacheWarmer(urlCache, urlStoreIdentity, properties).save();
+    UrlCache restarted = new UrlCache(properties);
+    Url fresh = Url.builder()
+        .id(1L)
+        .url("https://www.example.org/")
+        .build();
+    restarted.put(fresh);
+
+    new UrlCacheWarmer(restarted, urlStoreIdentity, properties).restore();
+
+    assertThat(restarted.get(1L)).containsSame(fresh);
+  }
+
+  @Test
+  void restore_WhenSavedAgainstAnotherStore_ThenRestoresNothing() {
+    urlCache.put(Url.builder()
+        .id(42L)
+        .url("https://www.example.org/")
+        .build());
+    new UrlCacheWarmer(urlCache, urlStoreIdentity, properties).save();
+    when(urlRepository.getStoreId()).thenReturn(UUID.randomUUID());
+    UrlStoreIdentity recreated = new UrlStoreIdentity(urlRepository);
+
+    UrlCache restarted = new UrlCache(properties);
+
+    assertThat(new UrlCacheWarmer(restarted, recreated, properties).restore()).isZero();
+    assertThat(restarted.get(42L)).isEmpty();
+  }
+
+  @Test
+  void restore_WhenStoreUnreachable_ThenRestoresAndDropsThemOnceTheStoreTurnsOutToDiffer() {
+    urlCache.put(Url.builder()
+        .id(42L)
+        .url("https://www.example.org/")
+        .build());
+    new UrlCacheWarmer(urlCache, urlStoreIdentity, properties).save();
+    when(urlRepository.getStoreId()).thenThrow(new DataAccessResourceFailureException("down"));
+    UrlStoreIdentity unreachable = new UrlStoreIdentity(urlRepository);
+    UrlCache restarted = new UrlCache(properties);
+    UrlCacheWarmer warmer = new UrlCacheWarmer(restarted, unreachable, properties);
+
+    assertThat(warmer.restore()).isEqualTo(1);
+    assertThat(restarted.get(42L)).isPresent();
+    assertThat(warmer.checkRestored()).isFalse();
+
+    doReturn(UUID.randomUUID()).when(urlRepository).getStoreId();
+    unreachable.identify();
+
+    assertThat(warmer.checkRestored()).isTrue();
+    assertThat(restarted.get(42L)).isEmpty();
+  }
+
+  @Test
+  void save_WhenStoreIdNeverRead_ThenKeepsThePreviousFile() {
+    urlCache.put(Url.builder()
+        .id(42L)
+        .url("https://www.example.org/")
+        .build());
+    new UrlCacheWarmer(urlCache, urlStoreIdentity, properties).save();
+    when(urlRepository.getStoreId()).thenThrow(new DataAccessResourceFailureException("down"));
+    UrlStoreIdentity unreachable = new UrlStoreIdentity(urlRepository);
+    unreachable.identify();
+
+    new UrlCacheWarmer(new UrlCache(properties), unreachable, properties).save();
+
+    UrlCache restarted = new UrlCache(properties);
+    assertThat(new UrlCacheWarmer(restarted, urlStoreIdentity, properties).restore()).isEqualTo(1);
+  }
+
+  @Test
+  void restore_WhenNoFileOrForeignFile_ThenRestoresNothing() throws IOException {
+    UrlCacheWarmer warmer = new UrlCacheWarmer(urlCache, urlStoreIdentity, properties);
+    assertThat(warmer.restore()).isZero();
+
+    Files.createDirectories(properties.getWarmRestart().getPath().getParent());
+    Files.write(properties.getWarmRestart().getPath(), List.of("not a cache file"));
+
+    assertThat(warmer.restore()).isZero();
+  }
+}
@@ -0,0 +1,85 @@
+package io.github.korzepadawid.urlshortener.clicks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ClickRingBufferTest {
+
+  @Test
+  void constructor_WhenCapacityIsNotPowerOfTwo_ThenThrowsIllegalArgumentException() {
+    Throwable exception = catchThrowable(() -> new ClickRingBuffer(100));
+
+    assertThat(exception)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("power of two");
+  }
+
+  @Test
+  void poll_WhenEmpty_ThenReturnsEmpty() {
+    ClickRingBuffer ringBuffer = new ClickRingBuffer(4);
+
+    assertThat(ringBuffer.poll()).isEqualTo(ClickRingBuffer.EMPTY);
+  }
+
+  @Test
+  void poll_WhenOffered_ThenReturnsIdsInOrder() {
+    ClickRingBuffer ringBuffer = new ClickRingBuffer(4);
+
+    for (long round = 0; round < 3; round++) {
+      ringBuffer.offer(round);
+      ringBuffer.offer(round + 10);
+
+      assertThat(ringBuffer.poll()).isEqualTo(round);
+      assertThat(ringBuffer.poll()).isEqualTo(round + 10);
+    }
+    assertThat(ringBuffer.size()).isZero();
+  }
+
+  @Test
+  void offer_WhenFull_ThenReturnsFalseUntilPolled() {
+    ClickRingBuffer ringBuffer = new ClickRingBuffer(2);
+
+    assertThat(ringBuffer.offer(1)).isTrue();
+    assertThat(ringBuffer.offer(2)).isTrue();
+    assertThat(ringBuffer.offer(3)).isFalse();
+
+    ringBuffer.poll();
+
+    assertThat(ringBuffer.offer(3)).isTrue();
+  }
+
+  @Test
+  void offer_WhenConcurrentProducers_ThenNoIdIsLost() throws InterruptedException {
+    final int producers = 4;
+    final int idsPerProducer = 10_000;
+    ClickRingBuffer ringBuffer = new ClickRingBuffer(65_536);
+
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      final long firstId = (long) p * idsPerProducer;
+      Thread thread = new Thread(() -> {
+        for (long id = firstId; id < firstId + idsPerProducer; id++) {
+          ringBuffer.offer(id);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    Set<Long> polledIds = new HashSet<>();
+    long id;
+    while ((id = ringBuffer.poll()) != ClickRingBuffer.EMPTY) {
+      polledIds.add(id);
+    }
+    assertThat(polledIds).hasSize(producers * idsPerProducer);
+  }
+}
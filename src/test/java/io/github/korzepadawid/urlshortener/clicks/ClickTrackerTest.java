@@ -0,0 +1,101 @@
+package io.github.korzepadawid.urlshortener.clicks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+import io.github.korzepadawid.urlshortener.config.ClickTrackingProperties;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+@ExtendWith(MockitoExtension.class)
+class ClickTrackerTest {
+
+  @Mock
+  private ClickCountWriter clickCountWriter;
+
+  private ClickTrackingProperties clickTrackingProperties;
+
+  @BeforeEach
+  void setUp() {
+    clickTrackingProperties = new ClickTrackingProperties();
+    clickTrackingProperties.setBufferCapacity(16);
+  }
+
+  @Test
+  void stop_WhenClicksRecorded_ThenFlushesAggregatedCounts() throws InterruptedException {
+    Map<Long, Long> writtenClicks = new HashMap<>();
+    doAnswer(invocation -> {
+      Map<Long, Long> clicks = invocation.getArgument(0);
+      clicks.forEach((urlId, count) -> writtenClicks.merge(urlId, count, Long::sum));
+      return null;
+    }).when(clickCountWriter).write(anyMap());
+    ClickTracker clickTracker = new ClickTracker(clickCountWriter, clickTrackingProperties);
+
+    clickTracker.start();
+    clickTracker.record(1);
+    clickTracker.record(2);
+    clickTracker.record(1);
+    clickTracker.stop();
+
+    assertThat(writtenClicks).containsEntry(1L, 2L).containsEntry(2L, 1L);
+    assertThat(clickTracker.getFlushedClicks()).isEqualTo(3);
+    assertThat(clickTracker.getDroppedClicks()).isZero();
+  }
+
+  @Test
+  void record_WhenBufferIsFull_ThenDropsClicks() {
+    ClickTracker clickTracker = new ClickTracker(clickCountWriter, clickTrackingProperties);
+
+    for (int i = 0; i < 20; i++) {
+      clickTracker.record(1);
+    }
+
+    assertThat(clickTracker.getBufferedClicks()).isEqualTo(16);
+    assertThat(clickTracker.getDroppedClicks()).isEqualTo(4);
+  }
+
+  @Test
+  void stop_WhenFlushFails_ThenCountsClicksAsDropped() throws InterruptedException {
+    doThrow(new DataAccessResourceFailureException("Connection refused"))
+        .when(clickCountWriter).write(anyMap());
+    ClickTracker clickTracker = new ClickTracker(clickCountWriter, clickTrackingProperties);
+
+    clickTracker.record(1);
+    clickTracker.record(1);
+    clickTracker.start();
+    clickTracker.stop();
+
+    assertThat(clickTracker.getDroppedClicks()).isEqualTo(2);
+    assertThat(clickTracker.getFlushedClicks()).isZero();
+  }
+
+  @Test
+  void record_WhenTransactionCouldNotBeStarted_ThenKeepsConsuming() throws InterruptedException {
+    clickTrackingProperties.setFlushInterval(Duration.ofMillis(1));
+    doThrow(new CannotCreateTransactionException("Connection refused"))
+        .doNothing()
+        .when(clickCountWriter).write(anyMap());
+    ClickTracker clickTracker = new ClickTracker(clickCountWriter, clickTrackingProperties);
+
+    clickTracker.record(1);
+    clickTracker.start();
+    while (clickTracker.getDroppedClicks() == 0) {
+      Thread.sleep(10);
+    }
+    clickTracker.record(2);
+    clickTracker.stop();
+
+    assertThat(clickTracker.getDroppedClicks()).isEqualTo(1);
+    assertThat(clickTracker.getFlushedClicks()).isEqualTo(1);
+  }
+}
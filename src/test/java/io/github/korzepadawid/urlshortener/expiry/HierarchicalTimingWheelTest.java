@@ -0,0 +1,81 @@
+package io.github.korzepadawid.urlshortener.expiry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTest {
+
+  private static final long TICK_MILLIS = 1000;
+  private static final long START_MILLIS = 1_634_000_000_000L;
+
+  private HierarchicalTimingWheel timingWheel;
+  private List<Long> expiredIds;
+
+  @BeforeEach
+  void setUp() {
+    timingWheel = new HierarchicalTimingWheel(TICK_MILLIS, START_MILLIS);
+    expiredIds = new ArrayList<>();
+  }
+
+  @Test
+  void schedule_WhenDeadlineHasPassed_ThenReturnsFalse() {
+    boolean result = timingWheel.schedule(1L, START_MILLIS - 1);
+
+    assertThat(result).isFalse();
+    assertThat(timingWheel.size()).isZero();
+  }
+
+  @Test
+  void advance_WhenDeadlineNotReached_ThenExpiresNothing() {
+    timingWheel.schedule(1L, START_MILLIS + 10 * TICK_MILLIS);
+
+    timingWheel.advance(START_MILLIS + 9 * TICK_MILLIS, expiredIds::add);
+
+    assertThat(expiredIds).isEmpty();
+    assertThat(timingWheel.size()).isEqualTo(1);
+  }
+
+  @Test
+  void advance_WhenDeadlinesOnDifferentLevels_ThenExpiresEachOnItsTick() {
+    long[] delays = {1, 63, 64, 65, 4095, 4097, 300_000, 20_000_000};
+    for (int i = 0; i < delays.length; i++) {
+      timingWheel.schedule(i, START_MILLIS + delays[i] * TICK_MILLIS);
+    }
+
+    for (int i = 0; i < delays.length; i++) {
+      timingWheel.advance(START_MILLIS + (delays[i] - 1) * TICK_MILLIS, expiredIds::add);
+      assertThat(expiredIds).hasSize(i);
+
+      timingWheel.advance(START_MILLIS + delays[i] * TICK_MILLIS, expiredIds::add);
+      assertThat(expiredIds).hasSize(i + 1).endsWith((long) i);
+    }
+    assertThat(timingWheel.size()).isZero();
+  }
+
+  @Test
+  void cancel_WhenScheduled_ThenNeverExpires() {
+    timingWheel.schedule(1L, START_MILLIS + 100 * TICK_MILLIS);
+
+    boolean result = timingWheel.cancel(1L);
+    timingWheel.advance(START_MILLIS + 200 * TICK_MILLIS, expiredIds::add);
+
+    assertThat(result).isTrue();
+    assertThat(expiredIds).isEmpty();
+  }
+
+  @Test
+  void schedule_WhenAlreadyScheduled_ThenReplacesDeadline() {
+    timingWheel.schedule(1L, START_MILLIS + 10 * TICK_MILLIS);
+    timingWheel.schedule(1L, START_MILLIS + 100 * TICK_MILLIS);
+
+    timingWheel.advance(START_MILLIS + 50 * TICK_MILLIS, expiredIds::add);
+    assertThat(expiredIds).isEmpty();
+
+    timingWheel.advance(START_MILLIS + 100 * TICK_MILLIS, expiredIds::add);
+    assertThat(expiredIds).containsExactly(1L);
+  }
+}
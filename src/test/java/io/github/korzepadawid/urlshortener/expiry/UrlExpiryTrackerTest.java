@@ -0,0 +1,94 @@
+package io.github.korzepadawid.urlshortener.expiry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.korzepadawid.urlshortener.caches.UrlCache;
+import io.github.korzepadawid.urlshortener.config.UrlCacheProperties;
+import io.github.korzepadawid.urlshortener.config.UrlExpiryProperties;
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UrlExpiryTrackerTest {
+
+  private UrlExpiryProperties urlExpiryProperties;
+  private UrlCache urlCache;
+  private UrlExpiryTracker urlExpiryTracker;
+
+  @BeforeEach
+  void setUp() {
+    urlExpiryProperties = new UrlExpiryProperties();
+    urlExpiryProperties.setTickMillis(10);
+    urlCache = new UrlCache(new UrlCacheProperties());
+    urlExpiryTracker = new UrlExpiryTracker(urlCache, urlExpiryProperties);
+  }
+
+  @Test
+  void tick_WhenTrackedUrlExpires_ThenEvictsItAndQueuesItsPurge() throws InterruptedException {
+    Url url = url(1, LocalDateTime.now().plusNanos(50_000_000));
+    urlCache.put(url);
+    urlExpiryTracker.track(url);
+    urlExpiryTracker.tick();
+    assertThat(urlExpiryTracker.getTrackedUrls()).isEqualTo(1);
+
+    Thread.sleep(100);
+    urlExpiryTracker.tick();
+
+    assertThat(urlCache.get(1L)).isEmpty();
+    assertThat(urlExpiryTracker.drainExpiredIds(10)).containsExactly(1L);
+    assertThat(urlExpiryTracker.getTrackedUrls()).isZero();
+  }
+
+  @Test
+  void track_WhenAlreadyExpired_ThenQueuesItsPurgeRightAway() {
+    urlExpiryTracker.track(url(1, LocalDateTime.now().minusSeconds(1)));
+
+    assertThat(urlExpiryTracker.hasExpiredIds()).isTrue();
+    assertThat(urlExpiryTracker.drainExpiredIds(10)).containsExactly(1L);
+  }
+
+  @Test
+  void tick_WhenTrackedFromManyThreads_ThenSchedulesEveryUrl() throws InterruptedException {
+    LocalDateTime expiringAt = LocalDateTime.now().plusHours(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int thread = 0; thread < 4; thread++) {
+      long firstId = thread * 1_000L;
+      threads.add(new Thread(() -> {
+        for (long id = firstId; id < firstId + 1_000; id++) {
+          urlExpiryTracker.track(url(id, expiringAt));
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    urlExpiryTracker.tick();
+
+    assertThat(urlExpiryTracker.getTrackedUrls()).isEqualTo(4_000);
+  }
+
+  @Test
+  void track_WhenLimitReached_ThenLeavesTheUrlToThePurgeScan() {
+    urlExpiryProperties.setMaxTrackedUrls(1);
+    LocalDateTime expiringAt = LocalDateTime.now().plusHours(1);
+
+    urlExpiryTracker.track(url(1, expiringAt));
+    urlExpiryTracker.track(url(2, expiringAt));
+    urlExpiryTracker.tick();
+
+    assertThat(urlExpiryTracker.getTrackedUrls()).isEqualTo(1);
+  }
+
+  private static Url url(long id, LocalDateTime expiringAt) {
+    return Url.builder()
+        .id(id)
+        .url("https://www.example.org/" + id)
+        .expiringAt(expiringAt)
+        .build();
+  }
+}
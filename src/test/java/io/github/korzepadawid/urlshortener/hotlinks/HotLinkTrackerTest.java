@@ -0,0 +1,67 @@
+package io.github.korzepadawid.urlshortener.hotlinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.korzepadawid.urlshortener.config.HotLinkProperties;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HotLinkTrackerTest {
+
+  private HotLinkProperties hotLinkProperties;
+  private HotLinkTracker hotLinkTracker;
+
+  @BeforeEach
+  void setUp() {
+    hotLinkProperties = new HotLinkProperties();
+    hotLinkProperties.setWindows(3);
+    hotLinkTracker = new HotLinkTracker(hotLinkProperties);
+  }
+
+  @Test
+  void top_WhenHitsInCurrentWindow_ThenReturnsMostHitUrlsFirst() {
+    recordHits(1, 2);
+    recordHits(2, 5);
+    recordHits(3, 1);
+
+    assertThat(hotLinkTracker.top(2)).containsExactly(Map.entry(2L, 5L), Map.entry(1L, 2L));
+  }
+
+  @Test
+  void top_WhenHitsSpanWindows_ThenSumsThemUntilTheyLeaveTheSlidingWindow() {
+    recordHits(1, 3);
+    hotLinkTracker.rotate();
+    recordHits(1, 2);
+
+    assertThat(hotLinkTracker.top(1)).containsExactly(Map.entry(1L, 5L));
+
+    hotLinkTracker.rotate();
+    hotLinkTracker.rotate();
+
+    assertThat(hotLinkTracker.top(1)).containsExactly(Map.entry(1L, 2L));
+
+    hotLinkTracker.rotate();
+
+    assertThat(hotLinkTracker.top(1)).isEmpty();
+  }
+
+  @Test
+  void record_WhenWindowIsFull_ThenCountsHitsAsUntracked() {
+    hotLinkProperties.setMaxKeysPerWindow(2);
+
+    recordHits(1, 1);
+    recordHits(2, 1);
+    recordHits(3, 4);
+    recordHits(1, 1);
+
+    assertThat(hotLinkTracker.top(3)).containsExactly(Map.entry(1L, 2L), Map.entry(2L, 1L));
+    assertThat(hotLinkTracker.getUntrackedHits()).isEqualTo(4);
+  }
+
+  void recordHits(long urlId, int hits) {
+    for (int i = 0; i < hits; i++) {
+      hotLinkTracker.record(urlId);
+    }
+  }
+}
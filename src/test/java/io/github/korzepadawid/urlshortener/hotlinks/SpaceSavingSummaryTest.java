@@ -0,0 +1,47 @@
+package io.github.korzepadawid.urlshortener.hotlinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class SpaceSavingSummaryTest {
+
+  @Test
+  void top_WhenFewerKeysThanCapacity_ThenReturnsExactCountsMostFrequentFirst() {
+    SpaceSavingSummary summary = new SpaceSavingSummary(10);
+
+    summary.add(1, 5);
+    summary.add(2, 7);
+    summary.add(3, 1);
+    summary.add(1, 4);
+
+    assertThat(summary.top(2)).containsExactly(Map.entry(1L, 9L), Map.entry(2L, 7L));
+  }
+
+  @Test
+  void add_WhenFull_ThenNewKeyReplacesSmallestCounter() {
+    SpaceSavingSummary summary = new SpaceSavingSummary(2);
+
+    summary.add(1, 10);
+    summary.add(2, 3);
+    summary.add(3, 1);
+
+    assertThat(summary.size()).isEqualTo(2);
+    assertThat(summary.top(2)).containsExactly(Map.entry(1L, 10L), Map.entry(3L, 4L));
+  }
+
+  @Test
+  void top_WhenHeavyKeyAmongManyLightOnes_ThenKeepsHeavyKey() {
+    SpaceSavingSummary summary = new SpaceSavingSummary(8);
+
+    for (long key = 100; key < 1000; key++) {
+      summary.add(key, 1);
+      if (key % 5 == 0) {
+        summary.add(42, 1);
+      }
+    }
+
+    assertThat(summary.top(1).get(0).getKey()).isEqualTo(42L);
+  }
+}
@@ -0,0 +1,55 @@
+package io.github.korzepadawid.urlshortener.ids;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class FeistelPermutationTest {
+
+  @Test
+  void invert_WhenPermuted_ThenReturnsTheOriginalValue() {
+    FeistelPermutation permutation = new FeistelPermutation(62, 42);
+    Random random = new Random(7);
+
+    for (int i = 0; i < 10_000; i++) {
+      long value = random.nextLong() >>> 2;
+      long permuted = permutation.permute(value);
+
+      assertThat(permuted).isBetween(0L, (1L << 62) - 1);
+      assertThat(permutation.invert(permuted)).isEqualTo(value);
+    }
+  }
+
+  @Test
+  void permute_WhenWholeDomain_ThenMapsEveryValueToADistinctOne() {
+    FeistelPermutation permutation = new FeistelPermutation(16, 42);
+    Set<Long> permuted = new HashSet<>();
+
+    for (long value = 0; value < 1 << 16; value++) {
+      permuted.add(permutation.permute(value));
+    }
+
+    assertThat(permuted).hasSize(1 << 16).allMatch(value -> value >= 0 && value < 1 << 16);
+  }
+
+  @Test
+  void permute_WhenConsecutiveValues_ThenResultsAreNeitherConsecutiveNorSameForOtherKey() {
+    FeistelPermutation permutation = new FeistelPermutation(62, 42);
+
+    long first = permutation.permute(1000);
+    long second = permutation.permute(1001);
+
+    assertThat(Math.abs(second - first)).isGreaterThan(1 << 20);
+    assertThat(new FeistelPermutation(62, 43).permute(1000)).isNotEqualTo(first);
+  }
+
+  @Test
+  void constructor_WhenOddBits_ThenThrows() {
+    assertThatThrownBy(() -> new FeistelPermutation(63, 42))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
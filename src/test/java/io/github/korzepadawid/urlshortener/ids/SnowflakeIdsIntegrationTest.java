@@ -0,0 +1,60 @@
+package io.github.korzepadawid.urlshortener.ids;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import io.github.korzepadawid.urlshortener.services.Base62Service;
+import io.github.korzepadawid.urlshortener.services.UrlService;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "url-shortener.ids.strategy=snowflake",
+    "url-shortener.ids.node-id=7",
+    "url-shortener.ids.permutation-key=42",
+    "url-shortener.ids.reservation-path=target/snowflake-ids.reservation"})
+class SnowflakeIdsIntegrationTest {
+
+  @Autowired
+  private UrlService urlService;
+
+  @Autowired
+  private UrlRepository urlRepository;
+
+  @Autowired
+  private Base62Service base62Service;
+
+  @Autowired
+  private SnowflakeIds snowflakeIds;
+
+  @Test
+  void createUrl_WhenSnowflakeIds_ThenIdIsMintedByThisNode() {
+    long before = System.currentTimeMillis();
+    UrlReadDto created = urlService.createUrl(UrlWriteDto.builder()
+        .url("https://www.snowflake.org/")
+        .build());
+    String code = created.getShortUrl().substring(1);
+    long id = base62Service.decode(code);
+
+    assertThat(code.length()).isLessThanOrEqualTo(11);
+    assertThat(snowflakeIds.timestampOf(id)).isCloseTo(before, within(60_000L));
+    assertThat(urlRepository.findById(id)).isPresent();
+    assertThat(urlService.findRedirectUrl(code)).isPresent();
+  }
+
+  @Test
+  void createUrls_WhenSnowflakeIds_ThenBatchGetsDistinctIds() {
+    List<UrlReadDto> created = urlService.createUrls(List.of(
+        UrlWriteDto.builder().url("https://www.snowflake.org/1").build(),
+        UrlWriteDto.builder().url("https://www.snowflake.org/2").build()));
+
+    assertThat(created).extracting(UrlReadDto::getShortUrl).doesNotHaveDuplicates();
+    created.forEach(url -> assertThat(urlRepository.findById(
+        base62Service.decode(url.getShortUrl().substring(1)))).isPresent());
+  }
+}
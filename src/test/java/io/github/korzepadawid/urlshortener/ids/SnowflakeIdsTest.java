@@ -0,0 +1,147 @@
+package io.github.korzepadawid.urlshortener.ids;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnowflakeIdsTest {
+
+  private static final Instant EPOCH = Instant.parse("2021-01-01T00:00:00Z");
+  private static final Duration MAX_CLOCK_SKEW = Duration.ofSeconds(5);
+
+  private final AtomicLong clock = new AtomicLong(Instant.parse("2026-01-01T00:00:00Z")
+      .toEpochMilli());
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void nextId_WhenSameMillisecond_ThenIncreasesAndFitsElevenBase62Digits() {
+    SnowflakeIds ids = snowflakeIds(3, null);
+
+    long first = ids.nextId();
+    long second = ids.nextId();
+
+    assertThat(second).isGreaterThan(first);
+    assertThat(second).isLessThan(1L << SnowflakeIds.ID_BITS);
+    assertThat(ids.timestampOf(second)).isEqualTo(clock.get());
+  }
+
+  @Test
+  void nextId_WhenNodesShareTheirClock_ThenNeverCollide() {
+    SnowflakeIds first = snowflakeIds(1, new FeistelPermutation(SnowflakeIds.ID_BITS, 42));
+    SnowflakeIds second = snowflakeIds(2, new FeistelPermutation(SnowflakeIds.ID_BITS, 42));
+    Set<Long> minted = new HashSet<>();
+
+    for (int i = 0; i < 10_000; i++) {
+      minted.add(first.nextId());
+      minted.add(second.nextId());
+      clock.addAndGet(i % 3 == 0 ? 1 : 0);
+    }
+
+    assertThat(minted).hasSize(20_000);
+  }
+
+  @Test
+  void nextId_WhenClockTurnedBack_ThenKeepsIncreasing() {
+    SnowflakeIds ids = snowflakeIds(1, null);
+    long beforeTurn = ids.nextId();
+
+    clock.addAndGet(-Duration.ofMinutes(1).toMillis());
+    List<Long> afterTurn = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      afterTurn.add(ids.nextId());
+    }
+
+    assertThat(afterTurn).isSorted().doesNotHaveDuplicates().allMatch(id -> id > beforeTurn);
+  }
+
+  @Test
+  void nextId_WhenSequenceUsedUp_ThenBorrowsTheNextMillisecond() {
+    SnowflakeIds ids = new SnowflakeIds(1, 10, 2, EPOCH, MAX_CLOCK_SKEW, null, clock::get);
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(ids.timestampOf(ids.nextId())).isEqualTo(clock.get());
+    }
+
+    assertThat(ids.timestampOf(ids.nextId())).isEqualTo(clock.get() + 1);
+  }
+
+  @Test
+  void timestampOf_WhenPermuted_ThenRecoversTheMintingTime() {
+    SnowflakeIds ids = snowflakeIds(1, new FeistelPermutation(SnowflakeIds.ID_BITS, 42));
+
+    long id = ids.nextId();
+
+    assertThat(ids.timestampOf(id)).isEqualTo(clock.get());
+  }
+
+  @Test
+  void mayHaveBeenMinted_WhenMintedFurtherAheadThanTheSkew_ThenRejectsId() {
+    SnowflakeIds ids = snowflakeIds(1, new FeistelPermutation(SnowflakeIds.ID_BITS, 42));
+    SnowflakeIds otherNode = snowflakeIds(2, new FeistelPermutation(SnowflakeIds.ID_BITS, 42));
+    long mintedAt = clock.get();
+
+    clock.addAndGet(MAX_CLOCK_SKEW.toMillis());
+    long justWithinSkew = otherNode.nextId();
+    clock.addAndGet(1);
+    long beyondSkew = otherNode.nextId();
+    clock.set(mintedAt);
+
+    assertThat(ids.mayHaveBeenMinted(justWithinSkew)).isTrue();
+    assertThat(ids.mayHaveBeenMinted(beyondSkew)).isFalse();
+  }
+
+  @Test
+  void nextId_WhenRestartedWithClockTurnedBack_ThenCarriesOnAfterTheReservation() {
+    SnowflakeReservation reservation = new SnowflakeReservation(directory.resolve("reservation"));
+    SnowflakeIds ids = new SnowflakeIds(1, 10, 12, EPOCH, MAX_CLOCK_SKEW, null, clock::get,
+        reservation);
+    List<Long> beforeRestart = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      beforeRestart.add(ids.nextId());
+      clock.addAndGet(1);
+    }
+
+    clock.addAndGet(-2_000);
+    SnowflakeIds restarted = new SnowflakeIds(1, 10, 12, EPOCH, MAX_CLOCK_SKEW, null, clock::get,
+        reservation);
+    long afterRestart = restarted.nextId();
+
+    assertThat(afterRestart).isGreaterThan(beforeRestart.get(beforeRestart.size() - 1));
+    assertThat(restarted.timestampOf(afterRestart))
+        .isLessThanOrEqualTo(clock.get() + MAX_CLOCK_SKEW.toMillis());
+  }
+
+  @Test
+  void constructor_WhenClockFurtherBehindTheReservationThanTheSkew_ThenThrows() {
+    SnowflakeReservation reservation = new SnowflakeReservation(directory.resolve("reservation"));
+    new SnowflakeIds(1, 10, 12, EPOCH, MAX_CLOCK_SKEW, null, clock::get, reservation).nextId();
+
+    clock.addAndGet(-Duration.ofMinutes(1).toMillis());
+
+    assertThatThrownBy(() -> new SnowflakeIds(1, 10, 12, EPOCH, MAX_CLOCK_SKEW, null, clock::get,
+        reservation))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void constructor_WhenNodeIdDoesNotFitItsBits_ThenThrows() {
+    assertThatThrownBy(() -> snowflakeIds(1024, null))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private SnowflakeIds snowflakeIds(int nodeId, FeistelPermutation permutation) {
+    return new SnowflakeIds(nodeId, 10, 12, EPOCH, MAX_CLOCK_SKEW, permutation, clock::get);
+  }
+}
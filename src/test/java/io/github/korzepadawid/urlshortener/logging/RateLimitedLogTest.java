@@ -0,0 +1,25 @@
+package io.github.korzepadawid.urlshortener.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class RateLimitedLogTest {
+
+  @Test
+  void tryAcquire_WhenPermitsUsedUp_ThenSuppressesUntilNextInterval() throws InterruptedException {
+    RateLimitedLog rateLimitedLog = new RateLimitedLog(2, Duration.ofMillis(50));
+
+    assertThat(rateLimitedLog.tryAcquire()).isTrue();
+    assertThat(rateLimitedLog.tryAcquire()).isTrue();
+    assertThat(rateLimitedLog.tryAcquire()).isFalse();
+    assertThat(rateLimitedLog.tryAcquire()).isFalse();
+
+    Thread.sleep(60);
+
+    assertThat(rateLimitedLog.tryAcquire()).isTrue();
+    assertThat(rateLimitedLog.drainSuppressed()).isEqualTo(2);
+    assertThat(rateLimitedLog.drainSuppressed()).isZero();
+  }
+}
@@ -0,0 +1,36 @@
+package io.github.korzepadawid.urlshortener.metrics;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.github.korzepadawid.urlshortener.api.v1.controllers.IndexController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class PrometheusEndpointIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  void httpGet_WhenRequestsWereServed_ThenExposesApplicationMetrics() throws Exception {
+    mockMvc.perform(get(IndexController.BASE_URL + "/asdf"));
+
+    mockMvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString("urlshortener_redirect_seconds_bucket")))
+        .andExpect(content().string(containsString("spring_data_repository_invocations")))
+        .andExpect(content().string(containsString("urlshortener_codec_calls_total")))
+        .andExpect(content().string(containsString("urlshortener_purge_backlog")))
+        .andExpect(content().string(containsString("urlshortener_clicks_total")));
+  }
+}
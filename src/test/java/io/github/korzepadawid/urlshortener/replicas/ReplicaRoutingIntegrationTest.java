@@ -0,0 +1,104 @@
+package io.github.korzepadawid.urlshortener.replicas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import io.github.korzepadawid.urlshortener.services.Base62Service;
+import io.github.korzepadawid.urlshortener.services.UrlService;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+@SpringBootTest(properties = {
+    "url-shortener.purge.cron=-",
+    "url-shortener.replicas.enabled=true",
+    "url-shortener.replicas.databases[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+    "url-shortener.replicas.databases[0].username=sa"})
+class ReplicaRoutingIntegrationTest {
+
+  static final String REPLICA_URL = "jdbc:h2:mem:url-replica;DB_CLOSE_DELAY=-1";
+  private static final long REPLICA_ONLY_ID = 900_001L;
+
+  @Autowired
+  private UrlRepository urlRepository;
+
+  @Autowired
+  private UrlService urlService;
+
+  @Autowired
+  private Base62Service base62Service;
+
+  @Autowired
+  private ReplicaRouting replicaRouting;
+
+  @Autowired
+  private HikariDataSource primaryDataSource;
+
+  private JdbcTemplate replica;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+    new ResourceDatabasePopulator(new ClassPathResource("db/url-schema.sql")).execute(dataSource);
+    replica = new JdbcTemplate(dataSource);
+  }
+
+  @AfterEach
+  void tearDown() {
+    replica.update("delete from url");
+  }
+
+  @Test
+  void findById_WhenUrlOnlyOnTheReplica_ThenReadsItFromTheReplica() {
+    insertOnReplica(null);
+
+    assertThat(urlRepository.findById(REPLICA_ONLY_ID))
+        .hasValueSatisfying(url -> assertThat(url.getUrl()).isEqualTo("https://replica.org/"));
+    assertThat(new JdbcTemplate(primaryDataSource).queryForObject(
+        "select count(*) from url where id = ?", Long.class, REPLICA_ONLY_ID)).isZero();
+  }
+
+  @Test
+  void findByDedupKey_WhenUrlOnlyOnTheReplica_ThenReadsItFromTheReplica() {
+    insertOnReplica(null);
+
+    assertThat(urlRepository.findByDedupKey(Url.dedupKeyOf("https://replica.org/", null, null)))
+        .hasValueSatisfying(url -> assertThat(url.getId()).isEqualTo(REPLICA_ONLY_ID));
+  }
+
+  @Test
+  void findRedirectUrl_WhenReplicaHasNotCaughtUp_ThenReadsTheUrlFromThePrimary() {
+    Url saved = urlRepository.save(Url.builder()
+        .url("https://primary.org/")
+        .build());
+    long primaryReads = replicaRouting.getPrimaryReads();
+
+    assertThat(urlService.findRedirectUrl(base62Service.encode(saved.getId())))
+        .hasValueSatisfying(url -> assertThat(url.getUrl()).isEqualTo("https://primary.org/"));
+    assertThat(replicaRouting.getPrimaryReads()).isEqualTo(primaryReads + 1);
+  }
+
+  @Test
+  void findExpiredIds_WhenExpiredUrlOnlyOnTheReplica_ThenScansThePrimary() {
+    insertOnReplica(LocalDateTime.of(1971, 1, 1, 0, 0));
+
+    assertThat(urlRepository.findExpiredIds(LocalDateTime.now(), PageRequest.of(0, 100)))
+        .doesNotContain(REPLICA_ONLY_ID);
+  }
+
+  private void insertOnReplica(LocalDateTime expiringAt) {
+    replica.update("insert into url (id, url, created_at, expiring_at, dedup_key)"
+            + " values (?, ?, ?, ?, ?)", REPLICA_ONLY_ID, "https://replica.org/",
+        LocalDateTime.now(), expiringAt, Url.dedupKeyOf("https://replica.org/", expiringAt, null));
+  }
+}
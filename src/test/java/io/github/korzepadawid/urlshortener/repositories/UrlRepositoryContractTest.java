@@ -0,0 +1,156 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Behaviour every {@link UrlRepository} implementation has to share. Urls are unique per test and
+ * expired ones are dated 1971, so implementations backed by a shared database can run it too.
+ */
+abstract class UrlRepositoryContractTest {
+
+  private static final LocalDateTime LONG_AGO = LocalDateTime.of(1971, 6, 1, 0, 0);
+
+  protected abstract UrlRepository urlRepository();
+
+  protected <T> T inTransaction(Supplier<T> operation) {
+    return operation.get();
+  }
+
+  @Test
+  void save_WhenNewUrl_ThenAssignsIdAndCanBeFoundById() {
+    LocalDateTime expiringAt = LocalDateTime.now().plusDays(1).withNano(0);
+    Url url = newUrl(expiringAt);
+    url.setRedirectType(RedirectType.PERMANENT_REDIRECT);
+
+    Url saved = urlRepository().save(url);
+
+    assertThat(saved.getId()).isNotNull();
+    assertThat(urlRepository().findById(saved.getId())).hasValueSatisfying(found -> {
+      assertThat(found.getUrl()).isEqualTo(url.getUrl());
+      assertThat(found.getExpiringAt()).isEqualTo(expiringAt);
+      assertThat(found.getRedirectType()).isEqualTo(RedirectType.PERMANENT_REDIRECT);
+      assertThat(found.getDedupKey())
+          .isEqualTo(Url.dedupKeyOf(url.getUrl(), expiringAt, url.getRedirectType()));
+      assertThat(found.getCreatedAt()).isNotNull();
+    });
+  }
+
+  @Test
+  void save_WhenNewUrls_ThenAssignsAscendingIds() {
+    Url first = urlRepository().save(newUrl(null));
+    Url second = urlRepository().save(newUrl(null));
+
+    assertThat(second.getId()).isGreaterThan(first.getId());
+  }
+
+  @Test
+  void save_WhenDedupKeyTaken_ThenThrowsDataIntegrityViolationException() {
+    Url url = urlRepository().save(newUrl(null));
+
+    Throwable throwable = catchThrowable(() -> urlRepository().save(Url.builder()
+        .url(url.getUrl())
+        .dedupKey(url.getDedupKey())
+        .build()));
+
+    assertThat(throwable).isInstanceOf(DataIntegrityViolationException.class);
+  }
+
+  @Test
+  void getStoreId_WhenAskedAgain_ThenReturnsTheSameId() {
+    UUID storeId = urlRepository().getStoreId();
+
+    assertThat(urlRepository().getStoreId()).isEqualTo(storeId);
+  }
+
+  @Test
+  void findById_WhenUnknownId_ThenReturnsEmpty() {
+    assertThat(urlRepository().findById(Long.MAX_VALUE)).isEmpty();
+  }
+
+  @Test
+  void findByDedupKey_WhenSaved_ThenReturnsUrl() {
+    Url url = urlRepository().save(newUrl(null));
+
+    assertThat(urlRepository().findByDedupKey(url.getDedupKey()))
+        .hasValueSatisfying(found -> assertThat(found.getId()).isEqualTo(url.getId()));
+    assertThat(urlRepository().findByDedupKey(Url.dedupKeyOf("https://unknown.org/", null, null)))
+        .isEmpty();
+  }
+
+  @Test
+  void findByDedupKeyIn_WhenSomeKeysSaved_ThenReturnsOnlyThoseUrls() {
+    Url first = newUrl(null);
+    Url second = newUrl(null);
+    inTransaction(() -> urlRepository().saveAll(List.of(first, second)));
+
+    List<Url> found = urlRepository().findByDedupKeyIn(Set.of(first.getDedupKey(),
+        second.getDedupKey(), Url.dedupKeyOf("https://unknown.org/", null, null)));
+
+    assertThat(found).extracting(Url::getId)
+        .containsExactlyInAnyOrder(first.getId(), second.getId());
+  }
+
+  @Test
+  void deleteUrlsByIdIn_WhenSaved_ThenDeletesThem() {
+    Url deleted = urlRepository().save(newUrl(null));
+    Url kept = urlRepository().save(newUrl(null));
+
+    int count = inTransaction(() -> urlRepository().deleteUrlsByIdIn(List.of(deleted.getId())));
+    int countAgain = inTransaction(() ->
+        urlRepository().deleteUrlsByIdIn(List.of(deleted.getId())));
+
+    assertThat(count).isEqualTo(1);
+    assertThat(countAgain).isZero();
+    assertThat(urlRepository().findById(deleted.getId())).isEmpty();
+    assertThat(urlRepository().findByDedupKey(deleted.getDedupKey())).isEmpty();
+    assertThat(urlRepository().findById(kept.getId())).isPresent();
+  }
+
+  @Test
+  void findExpiredIds_WhenExpiredUrls_ThenReturnsOnlyThoseExpiredBefore() {
+    Url first = urlRepository().save(newUrl(LONG_AGO.minusMonths(2)));
+    Url second = urlRepository().save(newUrl(LONG_AGO.minusMonths(1)));
+    urlRepository().save(newUrl(LONG_AGO.plusMonths(1)));
+
+    assertThat(urlRepository().findExpiredIds(LONG_AGO, PageRequest.of(0, 10)))
+        .containsExactlyInAnyOrder(first.getId(), second.getId());
+    assertThat(urlRepository().findExpiredIds(LONG_AGO, PageRequest.of(0, 1))).hasSize(1);
+    assertThat(urlRepository().countByExpiringAtBefore(LONG_AGO)).isEqualTo(2);
+    inTransaction(() -> urlRepository().deleteUrlsByIdIn(List.of(first.getId(),
+        second.getId())));
+    assertThat(urlRepository().countByExpiringAtBefore(LONG_AGO)).isZero();
+  }
+
+  @Test
+  void findLiveUrlsAfter_WhenSomeExpired_ThenPagesLiveUrlsInIdOrder() {
+    LocalDateTime now = LocalDateTime.now();
+    Url first = urlRepository().save(newUrl(null));
+    urlRepository().save(newUrl(now.minusMinutes(1)));
+    Url third = urlRepository().save(newUrl(now.plusDays(1)));
+    Url fourth = urlRepository().save(newUrl(null));
+    long afterId = first.getId() - 1;
+
+    assertThat(urlRepository().findLiveUrlsAfter(afterId, now, PageRequest.of(0, 3)))
+        .extracting(Url::getId)
+        .containsExactly(first.getId(), third.getId(), fourth.getId());
+  }
+
+  private static Url newUrl(LocalDateTime expiringAt) {
+    return Url.builder()
+        .url("https://www.example.org/" + UUID.randomUUID())
+        .expiringAt(expiringAt)
+        .build();
+  }
+}
@@ -0,0 +1,44 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
+import io.github.korzepadawid.urlshortener.services.UrlService;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(properties = "url-shortener.storage.type=log")
+class UrlRepositoryLogIntegrationTest {
+
+  @TempDir
+  static Path directory;
+
+  @Autowired
+  private UrlService urlService;
+
+  @Autowired
+  private UrlRepository urlRepository;
+
+  @DynamicPropertySource
+  static void storageDirectory(DynamicPropertyRegistry registry) {
+    registry.add("url-shortener.storage.directory", directory::toString);
+  }
+
+  @Test
+  void createUrl_WhenLogStorage_ThenStoresAndRedirectsFromTheLog() {
+    UrlReadDto created = urlService.createUrl(UrlWriteDto.builder()
+        .url("https://www.log-structured.org/")
+        .build());
+
+    assertThat(urlRepository).isInstanceOf(UrlRepositoryLog.class);
+    assertThat(urlService.findRedirectUrl(created.getShortUrl().substring(1)))
+        .hasValueSatisfying(url ->
+            assertThat(url.getUrl()).isEqualTo("https://www.log-structured.org/"));
+  }
+}
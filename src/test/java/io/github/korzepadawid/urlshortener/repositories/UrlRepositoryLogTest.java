@@ -0,0 +1,88 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.verify;
+
+import io.github.korzepadawid.urlshortener.caches.LinkIndexListener;
+import io.github.korzepadawid.urlshortener.caches.LiveUrlFilterListener;
+import io.github.korzepadawid.urlshortener.config.UrlStorageProperties;
+import io.github.korzepadawid.urlshortener.config.WriteBehindProperties;
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UrlRepositoryLogTest extends UrlRepositoryContractTest {
+
+  @TempDir
+  Path directory;
+
+  @Mock
+  private LiveUrlFilterListener liveUrlFilterListener;
+
+  @Mock
+  private LinkIndexListener linkIndexListener;
+
+  private UrlStorageProperties urlStorageProperties;
+  private UrlRepositoryLog urlRepositoryLog;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    urlStorageProperties = new UrlStorageProperties();
+    urlStorageProperties.setType(UrlStorageProperties.Type.LOG);
+    urlStorageProperties.setDirectory(directory);
+    urlRepositoryLog = new UrlRepositoryLog(urlStorageProperties, new WriteBehindProperties(),
+        liveUrlFilterListener, linkIndexListener);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    urlRepositoryLog.close();
+  }
+
+  @Override
+  protected UrlRepository urlRepository() {
+    return urlRepositoryLog;
+  }
+
+  @Test
+  void save_WhenNewUrl_ThenNotifiesListeners() {
+    Url url = urlRepositoryLog.save(Url.builder().url("https://spring.io/").build());
+
+    verify(liveUrlFilterListener).urlPersisted(url);
+    verify(linkIndexListener).urlPersisted(url);
+  }
+
+  @Test
+  void open_WhenReopened_ThenRecoversUrls() throws IOException {
+    Url url = urlRepositoryLog.save(Url.builder().url("https://spring.io/").build());
+    urlRepositoryLog.close();
+
+    urlRepositoryLog = new UrlRepositoryLog(urlStorageProperties, new WriteBehindProperties(),
+        liveUrlFilterListener, linkIndexListener);
+
+    assertThat(urlRepositoryLog.findById(url.getId()))
+        .hasValueSatisfying(found -> assertThat(found.getUrl()).isEqualTo("https://spring.io/"));
+    assertThat(urlRepositoryLog.save(Url.builder().url("https://www.tensorflow.org/").build())
+        .getId()).isGreaterThan(url.getId());
+  }
+
+  @Test
+  void constructor_WhenWriteBehindEnabled_ThenThrowsIllegalStateException() {
+    WriteBehindProperties writeBehindProperties = new WriteBehindProperties();
+    writeBehindProperties.setEnabled(true);
+
+    Throwable throwable = catchThrowable(() -> new UrlRepositoryLog(urlStorageProperties,
+        writeBehindProperties, liveUrlFilterListener, linkIndexListener));
+
+    assertThat(throwable).isInstanceOf(IllegalStateException.class);
+  }
+}
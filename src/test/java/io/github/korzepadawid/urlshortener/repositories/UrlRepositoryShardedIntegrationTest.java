@@ -0,0 +1,36 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
+import io.github.korzepadawid.urlshortener.services.UrlService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "url-shortener.storage.type=sharded",
+    "url-shortener.sharding.shards[0].url=jdbc:h2:mem:url-shard-0;DB_CLOSE_DELAY=-1",
+    "url-shortener.sharding.shards[0].username=sa",
+    "url-shortener.sharding.shards[1].url=jdbc:h2:mem:url-shard-1;DB_CLOSE_DELAY=-1",
+    "url-shortener.sharding.shards[1].username=sa"})
+class UrlRepositoryShardedIntegrationTest {
+
+  @Autowired
+  private UrlService urlService;
+
+  @Autowired
+  private UrlRepository urlRepository;
+
+  @Test
+  void createUrl_WhenShardedStorage_ThenRedirectsFromTheShardTaggedInTheCode() {
+    UrlReadDto created = urlService.createUrl(UrlWriteDto.builder()
+        .url("https://www.sharded.org/")
+        .build());
+
+    assertThat(urlRepository).isInstanceOf(UrlRepositorySharded.class);
+    assertThat(urlService.findRedirectUrl(created.getShortUrl().substring(1)))
+        .hasValueSatisfying(url -> assertThat(url.getUrl()).isEqualTo("https://www.sharded.org/"));
+  }
+}
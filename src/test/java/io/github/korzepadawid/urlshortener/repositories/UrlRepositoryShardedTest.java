@@ -0,0 +1,179 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.lenient;
+
+import io.github.korzepadawid.urlshortener.caches.LinkIndexListener;
+import io.github.korzepadawid.urlshortener.caches.LiveUrlFilterListener;
+import io.github.korzepadawid.urlshortener.config.UrlShardingProperties;
+import io.github.korzepadawid.urlshortener.config.WriteBehindProperties;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.writebehind.UrlIdAllocator;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+@ExtendWith(MockitoExtension.class)
+class UrlRepositoryShardedTest extends UrlRepositoryContractTest {
+
+  private static final int SHARDS = 2;
+
+  @Mock
+  private UrlIdAllocator urlIdAllocator;
+
+  @Mock
+  private LiveUrlFilterListener liveUrlFilterListener;
+
+  @Mock
+  private LinkIndexListener linkIndexListener;
+
+  private UrlShardingProperties urlShardingProperties;
+  private UrlRepositorySharded urlRepositorySharded;
+  private List<JdbcTemplate> shardTemplates;
+
+  @BeforeEach
+  void setUp() {
+    AtomicLong ids = new AtomicLong();
+    lenient().when(urlIdAllocator.nextId()).thenAnswer(invocation -> ids.incrementAndGet());
+
+    urlShardingProperties = new UrlShardingProperties();
+    shardTemplates = new ArrayList<>();
+    String run = UUID.randomUUID().toString();
+    for (int i = 0; i < SHARDS; i++) {
+      UrlShardingProperties.Shard shard = new UrlShardingProperties.Shard();
+      shard.setUrl("jdbc:h2:mem:shard-" + i + "-" + run + ";DB_CLOSE_DELAY=-1");
+      shard.setUsername("sa");
+      shard.setPassword("");
+      urlShardingProperties.getShards().add(shard);
+      shardTemplates.add(new JdbcTemplate(new DriverManagerDataSource(shard.getUrl(), "sa", "")));
+    }
+    urlRepositorySharded = new UrlRepositorySharded(urlShardingProperties,
+        new WriteBehindProperties(), urlIdAllocator, liveUrlFilterListener, linkIndexListener);
+  }
+
+  @AfterEach
+  void tearDown() {
+    urlRepositorySharded.close();
+    shardTemplates.forEach(jdbcTemplate -> jdbcTemplate.execute("drop all objects"));
+  }
+
+  @Override
+  protected UrlRepository urlRepository() {
+    return urlRepositorySharded;
+  }
+
+  @Test
+  void save_WhenNewUrls_ThenStoresEachOnlyOnTheShardTaggedInItsId() {
+    List<Url> urls = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      urls.add(urlRepositorySharded.save(Url.builder()
+          .url("https://www.example.org/" + i)
+          .build()));
+    }
+
+    for (int shard = 0; shard < SHARDS; shard++) {
+      int tag = shard;
+      List<Long> expectedIds = urls.stream()
+          .map(Url::getId)
+          .filter(id -> urlRepositorySharded.shardTagOf(id).orElseThrow() == tag)
+          .sorted()
+          .collect(Collectors.toList());
+      assertThat(expectedIds).isNotEmpty();
+      assertThat(shardTemplates.get(shard).queryForList("select id from url order by id",
+          Long.class)).isEqualTo(expectedIds);
+    }
+  }
+
+  @Test
+  void saveAll_WhenNewUrls_ThenBatchesThemPerShard() {
+    List<Url> urls = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      urls.add(Url.builder().url("https://www.example.org/" + i).build());
+    }
+
+    urlRepositorySharded.saveAll(urls);
+
+    assertThat(urls).allSatisfy(url ->
+        assertThat(urlRepositorySharded.findById(url.getId())).isPresent());
+    assertThat(shardTemplates.stream()
+        .mapToLong(jdbcTemplate -> jdbcTemplate.queryForObject("select count(*) from url",
+            Long.class))
+        .sum()).isEqualTo(20);
+  }
+
+  @Test
+  void findById_WhenTagNamesNoShard_ThenReturnsEmpty() {
+    assertThat(urlRepositorySharded.findById(3L)).isEmpty();
+    assertThat(urlRepositorySharded.shardTagOf(3)).isEmpty();
+  }
+
+  @Test
+  void deleteUrlsByIdIn_WhenExpiredUrlsOnAllShards_ThenPurgesEveryShard() {
+    LocalDateTime expiredAt = LocalDateTime.now().minusDays(1);
+    for (int i = 0; i < 20; i++) {
+      urlRepositorySharded.save(Url.builder()
+          .url("https://www.example.org/" + i)
+          .expiringAt(expiredAt)
+          .build());
+    }
+
+    List<Long> expiredIds = urlRepositorySharded.findExpiredIds(LocalDateTime.now(),
+        PageRequest.of(0, 100));
+    int deleted = urlRepositorySharded.deleteUrlsByIdIn(expiredIds);
+
+    assertThat(deleted).isEqualTo(20);
+    assertThat(urlRepositorySharded.countByExpiringAtBefore(LocalDateTime.now())).isZero();
+  }
+
+  @Test
+  void findByDedupKey_WhenShardAppendedSinceCreated_ThenStillFindsUrl() {
+    UrlShardingProperties.Shard appended = urlShardingProperties.getShards().remove(SHARDS - 1);
+    urlRepositorySharded.close();
+    urlRepositorySharded = new UrlRepositorySharded(urlShardingProperties,
+        new WriteBehindProperties(), urlIdAllocator, liveUrlFilterListener, linkIndexListener);
+    List<Url> urls = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      urls.add(urlRepositorySharded.save(Url.builder()
+          .url("https://www.example.org/" + i)
+          .build()));
+    }
+    urlShardingProperties.getShards().add(appended);
+    urlRepositorySharded.close();
+    urlRepositorySharded = new UrlRepositorySharded(urlShardingProperties,
+        new WriteBehindProperties(), urlIdAllocator, liveUrlFilterListener, linkIndexListener);
+
+    assertThat(urls).allSatisfy(url -> assertThat(
+        urlRepositorySharded.findByDedupKey(url.getDedupKey()))
+        .hasValueSatisfying(found -> assertThat(found.getId()).isEqualTo(url.getId())));
+    assertThat(urlRepositorySharded.findByDedupKeyIn(urls.stream()
+        .map(Url::getDedupKey)
+        .collect(Collectors.toList())))
+        .extracting(Url::getId)
+        .containsExactlyInAnyOrderElementsOf(urls.stream()
+            .map(Url::getId)
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  void constructor_WhenMoreShardsThanTheTagHolds_ThenThrowsIllegalStateException() {
+    urlShardingProperties.setShardBits(0);
+
+    Throwable throwable = catchThrowable(() -> new UrlRepositorySharded(urlShardingProperties,
+        new WriteBehindProperties(), urlIdAllocator, liveUrlFilterListener, linkIndexListener));
+
+    assertThat(throwable).isInstanceOf(IllegalStateException.class);
+  }
+}
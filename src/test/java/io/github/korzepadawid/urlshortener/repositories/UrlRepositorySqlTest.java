@@ -0,0 +1,26 @@
+package io.github.korzepadawid.urlshortener.repositories;
+
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = "url-shortener.purge.cron=-")
+class UrlRepositorySqlTest extends UrlRepositoryContractTest {
+
+  @Autowired
+  private UrlRepositorySql urlRepositorySql;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Override
+  protected UrlRepository urlRepository() {
+    return urlRepositorySql;
+  }
+
+  @Override
+  protected <T> T inTransaction(Supplier<T> operation) {
+    return transactionTemplate.execute(status -> operation.get());
+  }
+}
@@ -0,0 +1,73 @@
+package io.github.korzepadawid.urlshortener.schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.support.PeriodicTrigger;
+
+class DeferredTaskSchedulerTest {
+
+  private static final long START_DELAY_MILLIS = 300;
+
+  private DeferredTaskScheduler scheduler;
+
+  @AfterEach
+  void tearDown() {
+    scheduler.shutdown();
+  }
+
+  @Test
+  void scheduleWithFixedDelay_WhenStartDelay_ThenFirstRunWaitsForIt() throws Exception {
+    scheduler = start(Duration.ofMillis(START_DELAY_MILLIS));
+    long scheduledAt = System.nanoTime();
+    AtomicLong firstRunAt = new AtomicLong();
+    CountDownLatch ran = new CountDownLatch(1);
+
+    scheduler.scheduleWithFixedDelay(() -> {
+      firstRunAt.compareAndSet(0, System.nanoTime());
+      ran.countDown();
+    }, 10);
+
+    assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(firstRunAt.get() - scheduledAt)
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(START_DELAY_MILLIS));
+  }
+
+  @Test
+  void schedule_WhenTriggerFiresBeforeStartDelay_ThenSkipsToTheFirstRunAfterIt() throws Exception {
+    scheduler = start(Duration.ofMillis(START_DELAY_MILLIS));
+    long scheduledAt = System.nanoTime();
+    AtomicLong firstRunAt = new AtomicLong();
+    CountDownLatch ran = new CountDownLatch(1);
+
+    scheduler.schedule(() -> {
+      firstRunAt.compareAndSet(0, System.nanoTime());
+      ran.countDown();
+    }, new PeriodicTrigger(10));
+
+    assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(firstRunAt.get() - scheduledAt)
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(START_DELAY_MILLIS));
+  }
+
+  @Test
+  void scheduleAtFixedRate_WhenNoStartDelay_ThenRunsRightAway() throws Exception {
+    scheduler = start(Duration.ZERO);
+    CountDownLatch ran = new CountDownLatch(1);
+
+    scheduler.scheduleAtFixedRate(ran::countDown, 60_000);
+
+    assertThat(ran.await(START_DELAY_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+  }
+
+  private static DeferredTaskScheduler start(Duration startDelay) {
+    DeferredTaskScheduler scheduler = new DeferredTaskScheduler(startDelay);
+    scheduler.initialize();
+    return scheduler;
+  }
+}
@@ -0,0 +1,130 @@
+package io.github.korzepadawid.urlshortener.schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.korzepadawid.urlshortener.config.PurgeProperties;
+import io.github.korzepadawid.urlshortener.expiry.UrlExpiryTracker;
+import io.github.korzepadawid.urlshortener.metrics.RequestLatencyMonitor;
+import io.github.korzepadawid.urlshortener.repositories.ClickCountRepository;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class DeleteExpiredUrlsSchedulerTest {
+
+  @Mock
+  private UrlRepository urlRepository;
+
+  @Mock
+  private ClickCountRepository clickCountRepository;
+
+  @Mock
+  private RequestLatencyMonitor requestLatencyMonitor;
+
+  @Mock
+  private UrlExpiryTracker urlExpiryTracker;
+
+  private PurgeProperties purgeProperties;
+  private DeleteExpiredUrlsScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    purgeProperties = new PurgeProperties();
+    purgeProperties.setChunkSize(2);
+    purgeProperties.setPauseBetweenChunks(Duration.ZERO);
+    purgeProperties.setThrottleBackoff(Duration.ofMillis(1));
+    purgeProperties.setThrottleAttempts(1);
+
+    TransactionTemplate transactionTemplate =
+        new TransactionTemplate(mock(PlatformTransactionManager.class));
+    scheduler = new DeleteExpiredUrlsScheduler(urlRepository, clickCountRepository,
+        transactionTemplate, urlExpiryTracker, requestLatencyMonitor, purgeProperties);
+  }
+
+  @Test
+  void deleteExpiredUrls_WhenBacklogSpansChunks_ThenDeletesChunkByChunkUntilShortChunk() {
+    when(requestLatencyMonitor.sampleAverageLatency()).thenReturn(Duration.ZERO);
+    when(urlRepository.findExpiredIds(any(LocalDateTime.class), any(Pageable.class)))
+        .thenReturn(List.of(1L, 2L))
+        .thenReturn(List.of(3L, 4L))
+        .thenReturn(List.of(5L));
+    when(urlRepository.deleteUrlsByIdIn(anyCollection())).thenReturn(2, 2, 1);
+
+    scheduler.deleteExpiredUrls();
+
+    verify(urlRepository, times(3)).deleteUrlsByIdIn(anyCollection());
+    verify(clickCountRepository, times(1)).deleteCountsByUrlIdIn(List.of(1L, 2L));
+    verify(clickCountRepository, times(1)).deleteCountsByUrlIdIn(List.of(3L, 4L));
+    verify(clickCountRepository, times(1)).deleteCountsByUrlIdIn(List.of(5L));
+    assertThat(scheduler.getPurgedUrls()).isEqualTo(5);
+    assertThat(scheduler.getBacklog()).isZero();
+  }
+
+  @Test
+  void deleteExpiredUrls_WhenMaxChunksReached_ThenLeavesBacklogForNextRun() {
+    purgeProperties.setMaxChunksPerRun(1);
+    when(requestLatencyMonitor.sampleAverageLatency()).thenReturn(Duration.ZERO);
+    when(urlRepository.findExpiredIds(any(LocalDateTime.class), any(Pageable.class)))
+        .thenReturn(List.of(1L, 2L));
+    when(urlRepository.deleteUrlsByIdIn(anyCollection())).thenReturn(2);
+    when(urlRepository.countByExpiringAtBefore(any(LocalDateTime.class))).thenReturn(7L);
+
+    scheduler.deleteExpiredUrls();
+
+    verify(urlRepository, times(1)).deleteUrlsByIdIn(anyCollection());
+    assertThat(scheduler.getBacklog()).isEqualTo(7);
+  }
+
+  @Test
+  void deleteExpiredUrls_WhenRequestLatencyStaysHigh_ThenBacksOffWithoutDeleting() {
+    when(requestLatencyMonitor.sampleAverageLatency()).thenReturn(Duration.ofSeconds(2));
+
+    scheduler.deleteExpiredUrls();
+
+    verify(urlRepository, never()).deleteUrlsByIdIn(anyCollection());
+    verify(clickCountRepository, never()).deleteCountsByUrlIdIn(anyCollection());
+  }
+
+  @Test
+  void deleteTrackedExpiredUrls_WhenTrackerReportsExpiredIds_ThenDeletesThem() {
+    when(urlExpiryTracker.hasExpiredIds()).thenReturn(true, false);
+    when(requestLatencyMonitor.sampleAverageLatency()).thenReturn(Duration.ZERO);
+    when(urlExpiryTracker.drainExpiredIds(anyInt())).thenReturn(List.of(1L, 2L));
+    when(urlRepository.deleteUrlsByIdIn(List.of(1L, 2L))).thenReturn(2);
+
+    scheduler.deleteTrackedExpiredUrls();
+
+    verify(urlRepository, times(1)).deleteUrlsByIdIn(List.of(1L, 2L));
+    verify(clickCountRepository, times(1)).deleteCountsByUrlIdIn(List.of(1L, 2L));
+    assertThat(scheduler.getPurgedUrls()).isEqualTo(2);
+  }
+
+  @Test
+  void deleteTrackedExpiredUrls_WhenLatencyStaysHigh_ThenLeavesIdsInTheTracker() {
+    when(urlExpiryTracker.hasExpiredIds()).thenReturn(true);
+    when(requestLatencyMonitor.sampleAverageLatency()).thenReturn(Duration.ofSeconds(2));
+
+    scheduler.deleteTrackedExpiredUrls();
+
+    verify(urlExpiryTracker, never()).drainExpiredIds(anyInt());
+    verify(urlRepository, never()).deleteUrlsByIdIn(anyCollection());
+  }
+}
@@ -3,16 +3,20 @@ package io.github.korzepadawid.urlshortener.services;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.catchThrowable;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 class Base62ServiceImplTest {
 
+  private MeterRegistry meterRegistry;
   private Base62Service base62Service;
 
   @BeforeEach
   void setUp() {
-    base62Service = new Base62ServiceImpl();
+    meterRegistry = new SimpleMeterRegistry();
+    base62Service = new Base62ServiceImpl(meterRegistry);
   }
 
   @Test
@@ -115,4 +119,62 @@ class Base62ServiceImplTest {
 
     assertThat(result).isEqualTo(13943437364L);
   }
-}
\ No newline at end of file
+
+  @Test
+  void encode_WhenPrimitiveLong_ThenReturnsSameAsBoxed() {
+    String result = base62Service.encode(4538735L);
+
+    assertThat(result).isEqualTo(base62Service.encode(Long.valueOf(4538735L)));
+  }
+
+  @Test
+  void encode_WhenMaxLong_ThenDecodesBackExactly() {
+    String encoded = base62Service.encode(Long.MAX_VALUE);
+
+    assertThat(encoded).isEqualTo("aZl8N0y58M7");
+    assertThat(base62Service.decodeLong(encoded)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  void decode_WhenLongerThanLongRange_ThenThrowsIllegalArgumentException() {
+    final String tooLongString = "aZl8N0y58M8";
+
+    Throwable exception = catchThrowable(() -> base62Service.decodeLong(tooLongString));
+
+    assertThat(exception)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("exceeds the range of long");
+  }
+
+  @Test
+  void decode_WhenLeadingZeros_ThenIgnoresThem() {
+    long result = base62Service.decodeLong("00fdDf12");
+
+    assertThat(result).isEqualTo(13943437364L);
+  }
+
+  @Test
+  void decode_WhenCalled_ThenCountsSuccessesAndFailures() {
+    base62Service.decodeLong("fdDf12");
+    catchThrowable(() -> base62Service.decodeLong("k@f2"));
+
+    assertThat(codecCount("decode", "success")).isEqualTo(1.0);
+    assertThat(codecCount("decode", "failure")).isEqualTo(1.0);
+  }
+
+  @Test
+  void tryDecode_WhenInvalidOrOutOfRange_ThenReturnsEmptyWithoutThrowing() {
+    assertThat(base62Service.tryDecode("k@f2")).isEmpty();
+    assertThat(base62Service.tryDecode("")).isEmpty();
+    assertThat(base62Service.tryDecode("aZl8N0y58M8")).isEmpty();
+    assertThat(base62Service.tryDecode("fdDf12")).hasValue(13943437364L);
+  }
+
+  double codecCount(String operation, String outcome) {
+    return meterRegistry.get(Base62ServiceImpl.CODEC_METRIC)
+        .tag("operation", operation)
+        .tag("outcome", outcome)
+        .counter()
+        .count();
+  }
+}
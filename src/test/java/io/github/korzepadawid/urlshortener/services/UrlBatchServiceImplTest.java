@@ -0,0 +1,67 @@
+package io.github.korzepadawid.urlshortener.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
+import io.github.korzepadawid.urlshortener.config.UrlBatchProperties;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import javax.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@ExtendWith(MockitoExtension.class)
+class UrlBatchServiceImplTest {
+
+  @Mock
+  private UrlService urlService;
+
+  private UrlBatchServiceImpl urlBatchService;
+
+  private static final String SPRING_IO = "https://spring.io/";
+  private static final String GITHUB_COM = "https://github.com/";
+
+  @BeforeEach
+  void setUp() {
+    urlBatchService = new UrlBatchServiceImpl(urlService,
+        new ObjectMapper().findAndRegisterModules(),
+        Validation.buildDefaultValidatorFactory().getValidator(), new UrlBatchProperties());
+  }
+
+  @Test
+  void createUrls_WhenChunkHitsUniqueConstraint_ThenOnlyConflictingUrlFails() throws Exception {
+    when(urlService.createUrls(anyList()))
+        .thenThrow(new DataIntegrityViolationException("uk_url_dedup_key"));
+    when(urlService.createUrl(any(UrlWriteDto.class))).thenAnswer(invocation -> {
+      UrlWriteDto urlWriteDto = invocation.getArgument(0);
+      if (GITHUB_COM.equals(urlWriteDto.getUrl())) {
+        throw new DataIntegrityViolationException("uk_url_dedup_key");
+      }
+      return UrlReadDto.builder().longUrl(urlWriteDto.getUrl()).shortUrl("/b").build();
+    });
+
+    String[] lines = createUrls("{\"url\":\"" + SPRING_IO + "\"}\n{\"url\":\"" + GITHUB_COM
+        + "\"}\n");
+
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).contains("\"longUrl\":\"" + SPRING_IO + "\"");
+    assertThat(lines[1]).contains("\"status\":500").contains("Could not save url.");
+  }
+
+  private String[] createUrls(String body) throws Exception {
+    ByteArrayOutputStream results = new ByteArrayOutputStream();
+    urlBatchService.createUrls(
+        new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), results);
+    return results.toString(StandardCharsets.UTF_8).split("\n");
+  }
+}
@@ -1,10 +1,13 @@
 package io.github.korzepadawid.urlshortener.services;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
-import static org.assertj.core.api.AssertionsForClassTypes.catchThrowable;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -12,19 +15,28 @@ import static org.mockito.Mockito.when;
 import io.github.korzepadawid.urlshortener.api.v1.mappers.UrlMapper;
 import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
 import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
+import io.github.korzepadawid.urlshortener.caches.LinkIndex;
+import io.github.korzepadawid.urlshortener.caches.LiveUrlFilter;
+import io.github.korzepadawid.urlshortener.caches.UrlCache;
 import io.github.korzepadawid.urlshortener.exceptions.ResourceNotFoundException;
+import io.github.korzepadawid.urlshortener.expiry.UrlExpiryTracker;
+import io.github.korzepadawid.urlshortener.models.RedirectType;
 import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.replicas.ReplicaRouting;
 import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import io.github.korzepadawid.urlshortener.snapshots.UrlSnapshots;
+import io.github.korzepadawid.urlshortener.writebehind.UrlWriteBehind;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 @ExtendWith(MockitoExtension.class)
 class UrlServiceImplTest {
@@ -38,7 +50,27 @@ class UrlServiceImplTest {
   @Mock
   private UrlMapper urlMapper;
 
-  @InjectMocks
+  @Mock
+  private UrlCache urlCache;
+
+  @Mock
+  private UrlExpiryTracker urlExpiryTracker;
+
+  @Mock
+  private LiveUrlFilter liveUrlFilter;
+
+  @Mock
+  private UrlSnapshots urlSnapshots;
+
+  @Mock
+  private LinkIndex linkIndex;
+
+  @Mock
+  private UrlWriteBehind urlWriteBehind;
+
+  @Mock
+  private ReplicaRouting replicaRouting;
+
   private UrlServiceImpl urlService;
 
   private static final String HTTPS_STACKOVERFLOW_COM = "https://stackoverflow.com/";
@@ -46,15 +78,12 @@ class UrlServiceImplTest {
   private static final String SHORT_URL = "/" + BASE62ENCODED_ID;
   private static final Long DECODED_ID = 3641200L;
 
-  private Set<Url> urls;
   private Url url;
   private UrlWriteDto urlWriteDto;
   private UrlReadDto urlReadDto;
 
   @BeforeEach
   void setUp() {
-    urls = new HashSet<>();
-
     urlWriteDto = UrlWriteDto.builder()
         .url(HTTPS_STACKOVERFLOW_COM)
         .build();
@@ -69,6 +98,12 @@ class UrlServiceImplTest {
         .url(HTTPS_STACKOVERFLOW_COM)
         .build();
 
+    lenient().when(liveUrlFilter.mightExist(anyLong())).thenReturn(true);
+
+    UrlLookup urlLookup = new UrlLookup(urlCache, urlExpiryTracker, liveUrlFilter, urlSnapshots,
+        linkIndex, urlWriteBehind);
+    urlService = new UrlServiceImpl(urlRepository, base62Service, urlMapper, urlExpiryTracker,
+        urlLookup, urlWriteBehind, replicaRouting);
   }
 
   @Test
@@ -99,9 +134,8 @@ class UrlServiceImplTest {
 
   @Test
   void createUrl_WhenAlreadyExistingUrlAndExpiringAtIsNull_ThenReturnsExistingUrl() {
-    urls.add(url);
-
-    when(urlRepository.findByUrl(anyString())).thenReturn(urls);
+    when(urlRepository.findByDedupKey(Url.dedupKeyOf(HTTPS_STACKOVERFLOW_COM, null, null)))
+        .thenReturn(Optional.of(url));
     when(urlMapper.convertUrlToUrlReadDto(any(Url.class))).thenReturn(urlReadDto);
 
     UrlReadDto result = urlService.createUrl(urlWriteDto);
@@ -112,7 +146,7 @@ class UrlServiceImplTest {
         .hasFieldOrPropertyWithValue("shortUrl", urlReadDto.getShortUrl())
         .hasFieldOrPropertyWithValue("expiringAt", null);
 
-    verify(urlRepository, times(1)).findByUrl(anyString());
+    verify(urlRepository, times(1)).findByDedupKey(anyString());
     verify(urlRepository, times(0)).save(any());
   }
 
@@ -122,9 +156,9 @@ class UrlServiceImplTest {
     url.setExpiringAt(expiringAt);
     urlWriteDto.setExpiringAt(expiringAt);
     urlReadDto.setExpiringAt(expiringAt);
-    urls.add(url);
 
-    when(urlRepository.findByUrl(anyString())).thenReturn(urls);
+    when(urlRepository.findByDedupKey(Url.dedupKeyOf(HTTPS_STACKOVERFLOW_COM, expiringAt, null)))
+        .thenReturn(Optional.of(url));
     when(urlMapper.convertUrlToUrlReadDto(any(Url.class))).thenReturn(urlReadDto);
 
     UrlReadDto result = urlService.createUrl(urlWriteDto);
@@ -135,7 +169,7 @@ class UrlServiceImplTest {
         .hasFieldOrPropertyWithValue("shortUrl", urlReadDto.getShortUrl())
         .hasFieldOrPropertyWithValue("expiringAt", expiringAt);
 
-    verify(urlRepository, times(1)).findByUrl(anyString());
+    verify(urlRepository, times(1)).findByDedupKey(anyString());
     verify(urlRepository, times(0)).save(any());
   }
 
@@ -145,9 +179,8 @@ class UrlServiceImplTest {
     final LocalDateTime expiringAt = LocalDateTime.now().plusSeconds(55);
     urlWriteDto.setExpiringAt(expiringAt);
     urlReadDto.setExpiringAt(expiringAt);
-    urls.add(url);
 
-    when(urlRepository.findByUrl(anyString())).thenReturn(urls);
+    when(urlRepository.findByDedupKey(anyString())).thenReturn(Optional.empty());
     when(urlMapper.convertUrlWriteDtoToUrl(any(UrlWriteDto.class))).thenReturn(url);
     when(urlRepository.save(any(Url.class))).thenReturn(url);
     when(urlMapper.convertUrlToUrlReadDto(any(Url.class))).thenReturn(urlReadDto);
@@ -160,13 +193,115 @@ class UrlServiceImplTest {
         .hasFieldOrPropertyWithValue("shortUrl", urlReadDto.getShortUrl())
         .hasFieldOrPropertyWithValue("expiringAt", expiringAt);
 
-    verify(urlRepository, times(1)).findByUrl(anyString());
+    verify(urlRepository, times(1)).findByDedupKey(anyString());
     verify(urlRepository, times(1)).save(any());
+    verify(urlCache, times(1)).put(url);
+    verify(urlExpiryTracker, times(1)).track(url);
+  }
+
+  @Test
+  void createUrl_WhenSameUrlWithOtherRedirectType_ThenLooksUpItsOwnDedupKey() {
+    urlWriteDto.setRedirectType(RedirectType.MOVED_PERMANENTLY);
+    url.setRedirectType(RedirectType.MOVED_PERMANENTLY);
+
+    when(urlRepository.findByDedupKey(anyString())).thenReturn(Optional.empty());
+    when(urlMapper.convertUrlWriteDtoToUrl(any(UrlWriteDto.class))).thenReturn(url);
+    when(urlRepository.save(any(Url.class))).thenReturn(url);
+    when(urlMapper.convertUrlToUrlReadDto(url)).thenReturn(urlReadDto);
+
+    urlService.createUrl(urlWriteDto);
+
+    verify(urlRepository, times(1)).findByDedupKey(
+        Url.dedupKeyOf(HTTPS_STACKOVERFLOW_COM, null, RedirectType.MOVED_PERMANENTLY));
+    assertThat(url.getDedupKey())
+        .isNotEqualTo(Url.dedupKeyOf(HTTPS_STACKOVERFLOW_COM, null, null));
+  }
+
+  @Test
+  void createUrl_WhenCreatedConcurrently_ThenReturnsUrlWhichWonTheRace() {
+    when(urlRepository.findByDedupKey(anyString()))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(url));
+    when(urlMapper.convertUrlWriteDtoToUrl(any(UrlWriteDto.class))).thenReturn(new Url());
+    when(urlRepository.save(any(Url.class)))
+        .thenThrow(new DataIntegrityViolationException(Url.DEDUP_KEY_CONSTRAINT));
+    when(urlMapper.convertUrlToUrlReadDto(url)).thenReturn(urlReadDto);
+
+    UrlReadDto result = urlService.createUrl(urlWriteDto);
+
+    assertThat(result).isSameAs(urlReadDto);
+    verify(urlRepository, times(2)).findByDedupKey(anyString());
+  }
+
+  @Test
+  void createUrl_WhenWriteBehindEnabled_ThenQueuesUrlInsteadOfSaving() {
+    when(urlWriteBehind.findQueued(anyString())).thenReturn(Optional.empty());
+    when(urlRepository.findByDedupKey(anyString())).thenReturn(Optional.empty());
+    when(urlWriteBehind.isEnabled()).thenReturn(true);
+    when(urlWriteBehind.isCommittedOnReturn()).thenReturn(true);
+    when(urlMapper.convertUrlWriteDtoToUrl(any(UrlWriteDto.class))).thenReturn(url);
+    when(urlWriteBehind.enqueue(url)).thenReturn(url);
+    when(urlMapper.convertUrlToUrlReadDto(url)).thenReturn(urlReadDto);
+
+    UrlReadDto result = urlService.createUrl(urlWriteDto);
+
+    assertThat(result).isSameAs(urlReadDto);
+    verify(urlRepository, never()).save(any());
+    verify(urlCache, times(1)).put(url);
+  }
+
+  @Test
+  void createUrl_WhenWriteBehindBuffered_ThenDoesNotCacheUncommittedUrl() {
+    when(urlWriteBehind.findQueued(anyString())).thenReturn(Optional.empty());
+    when(urlRepository.findByDedupKey(anyString())).thenReturn(Optional.empty());
+    when(urlWriteBehind.isEnabled()).thenReturn(true);
+    when(urlWriteBehind.isCommittedOnReturn()).thenReturn(false);
+    when(urlMapper.convertUrlWriteDtoToUrl(any(UrlWriteDto.class))).thenReturn(url);
+    when(urlWriteBehind.enqueue(url)).thenReturn(url);
+    when(urlMapper.convertUrlToUrlReadDto(url)).thenReturn(urlReadDto);
+
+    UrlReadDto result = urlService.createUrl(urlWriteDto);
+
+    assertThat(result).isSameAs(urlReadDto);
+    verify(urlCache, never()).put(any());
+  }
+
+  @Test
+  void createUrl_WhenSameUrlQueued_ThenReturnsQueuedUrl() {
+    when(urlWriteBehind.findQueued(anyString())).thenReturn(Optional.of(url));
+    when(urlMapper.convertUrlToUrlReadDto(url)).thenReturn(urlReadDto);
+
+    UrlReadDto result = urlService.createUrl(urlWriteDto);
+
+    assertThat(result).isSameAs(urlReadDto);
+    verify(urlRepository, never()).findByDedupKey(anyString());
+    verify(urlWriteBehind, never()).enqueue(any());
+    verify(urlCache, never()).put(any());
+  }
+
+  @Test
+  void createUrls_WhenDuplicatesInBatchAndExistingUrl_ThenSavesEachNewUrlOnce() {
+    UrlWriteDto existingUrlWriteDto = UrlWriteDto.builder().url(HTTPS_STACKOVERFLOW_COM).build();
+    UrlWriteDto newUrlWriteDto = UrlWriteDto.builder().url("https://spring.io/").build();
+    url.setDedupKey(Url.dedupKeyOf(HTTPS_STACKOVERFLOW_COM, null, null));
+    Url newUrl = Url.builder().url("https://spring.io/").build();
+    UrlReadDto newUrlReadDto = UrlReadDto.builder().longUrl("https://spring.io/").build();
+
+    when(urlRepository.findByDedupKeyIn(anyCollection())).thenReturn(List.of(url));
+    when(urlMapper.convertUrlWriteDtoToUrl(newUrlWriteDto)).thenReturn(newUrl);
+    when(urlMapper.convertUrlToUrlReadDto(url)).thenReturn(urlReadDto);
+    when(urlMapper.convertUrlToUrlReadDto(newUrl)).thenReturn(newUrlReadDto);
+
+    List<UrlReadDto> result = urlService.createUrls(
+        List.of(newUrlWriteDto, existingUrlWriteDto, newUrlWriteDto));
+
+    assertThat(result).containsExactly(newUrlReadDto, urlReadDto, newUrlReadDto);
+    verify(urlRepository, times(1)).saveAll(List.of(newUrl));
   }
 
   @Test
   void getUrl_WhenNoMatch_ThenThrowsResourceNotFoundException() {
-    when(base62Service.decode(anyString())).thenReturn(DECODED_ID);
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
     when(urlRepository.findById(anyLong())).thenReturn(Optional.empty());
 
     Throwable exception = catchThrowable(() -> urlService.getUrl(BASE62ENCODED_ID));
@@ -179,7 +314,7 @@ class UrlServiceImplTest {
   @Test
   void getUrl_WhenMatchButUrlHasAlreadyExpired_ThenThrowsResourceNotFoundException() {
     url.setExpiringAt(LocalDateTime.now().minusSeconds(1));
-    when(base62Service.decode(anyString())).thenReturn(DECODED_ID);
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
     when(urlRepository.findById(anyLong())).thenReturn(Optional.of(url));
 
     Throwable exception = catchThrowable(() -> urlService.getUrl(BASE62ENCODED_ID));
@@ -191,7 +326,7 @@ class UrlServiceImplTest {
 
   @Test
   void getUrl_WhenMatchAndExpiringAtIsNull_ThenReturnsUrl() {
-    when(base62Service.decode(anyString())).thenReturn(DECODED_ID);
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
     when(urlRepository.findById(anyLong())).thenReturn(Optional.of(url));
     when(urlMapper.convertUrlToUrlReadDto(any(Url.class))).thenReturn(urlReadDto);
 
@@ -209,7 +344,7 @@ class UrlServiceImplTest {
     final LocalDateTime expiringAt = LocalDateTime.now().plusSeconds(10);
     url.setExpiringAt(expiringAt);
     urlReadDto.setExpiringAt(expiringAt);
-    when(base62Service.decode(anyString())).thenReturn(DECODED_ID);
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
     when(urlRepository.findById(anyLong())).thenReturn(Optional.of(url));
     when(urlMapper.convertUrlToUrlReadDto(any(Url.class))).thenReturn(urlReadDto);
 
@@ -221,4 +356,134 @@ class UrlServiceImplTest {
         .hasFieldOrPropertyWithValue("shortUrl", urlReadDto.getShortUrl())
         .hasFieldOrPropertyWithValue("expiringAt", expiringAt);
   }
-}
\ No newline at end of file
+
+  @Test
+  void getUrl_WhenCachedUrl_ThenReturnsUrlWithoutQueryingRepository() {
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
+    when(urlCache.get(DECODED_ID)).thenReturn(Optional.of(url));
+    when(urlMapper.convertUrlToUrlReadDto(any(Url.class))).thenReturn(urlReadDto);
+
+    UrlReadDto result = urlService.getUrl(BASE62ENCODED_ID);
+
+    assertThat(result)
+        .isNotNull()
+        .hasFieldOrPropertyWithValue("longUrl", urlReadDto.getLongUrl());
+    verify(urlRepository, never()).findById(anyLong());
+  }
+
+  @Test
+  void getUrl_WhenNotCachedButFound_ThenCachesUrl() {
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
+    when(urlRepository.findById(anyLong())).thenReturn(Optional.of(url));
+    when(urlMapper.convertUrlToUrlReadDto(any(Url.class))).thenReturn(urlReadDto);
+
+    urlService.getUrl(BASE62ENCODED_ID);
+
+    verify(urlCache, times(1)).put(url);
+  }
+
+  @Test
+  void findRedirectUrl_WhenCachedUrl_ThenReturnsEntityWithoutMapping() {
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
+    when(urlCache.get(DECODED_ID)).thenReturn(Optional.of(url));
+
+    Optional<Url> result = urlService.findRedirectUrl(BASE62ENCODED_ID);
+
+    assertThat(result).containsSame(url);
+    verify(urlMapper, never()).convertUrlToUrlReadDto(any(Url.class));
+  }
+
+  @Test
+  void findRedirectUrl_WhenInSnapshot_ThenReturnsUrlWithoutQueryingRepository() {
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
+    when(urlSnapshots.find(DECODED_ID)).thenReturn(Optional.of(url));
+
+    Optional<Url> result = urlService.findRedirectUrl(BASE62ENCODED_ID);
+
+    assertThat(result).containsSame(url);
+    verify(urlRepository, never()).findById(anyLong());
+  }
+
+  @Test
+  void findRedirectUrl_WhenExpiredInSnapshot_ThenReturnsEmptyWithoutQueryingRepository() {
+    url.setExpiringAt(LocalDateTime.now().minusSeconds(1));
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
+    when(urlSnapshots.find(DECODED_ID)).thenReturn(Optional.of(url));
+
+    Optional<Url> result = urlService.findRedirectUrl(BASE62ENCODED_ID);
+
+    assertThat(result).isEmpty();
+    verify(urlRepository, never()).findById(anyLong());
+  }
+
+  @Test
+  void findRedirectUrl_WhenInLinkIndex_ThenReturnsUrlWithoutQueryingRepository() {
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
+    when(linkIndex.find(DECODED_ID)).thenReturn(Optional.of(url));
+
+    Optional<Url> result = urlService.findRedirectUrl(BASE62ENCODED_ID);
+
+    assertThat(result).containsSame(url);
+    verify(urlRepository, never()).findById(anyLong());
+  }
+
+  @Test
+  void findRedirectUrl_WhenQueuedForWriteBehind_ThenReturnsUrlWithoutQueryingRepository() {
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
+    when(urlWriteBehind.findQueued(DECODED_ID)).thenReturn(Optional.of(url));
+
+    Optional<Url> result = urlService.findRedirectUrl(BASE62ENCODED_ID);
+
+    assertThat(result).containsSame(url);
+    verify(urlRepository, never()).findById(anyLong());
+  }
+
+  @Test
+  void findRedirectUrl_WhenFilterRejectsId_ThenReturnsEmptyWithoutQueryingRepository() {
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
+    when(liveUrlFilter.mightExist(DECODED_ID)).thenReturn(false);
+
+    Optional<Url> result = urlService.findRedirectUrl(BASE62ENCODED_ID);
+
+    assertThat(result).isEmpty();
+    verify(urlRepository, never()).findById(anyLong());
+  }
+
+  @Test
+  void findRedirectUrl_WhenNotFound_ThenReturnsEmptyAndMarksIdAsMissing() {
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
+    when(urlRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+    Optional<Url> result = urlService.findRedirectUrl(BASE62ENCODED_ID);
+
+    assertThat(result).isEmpty();
+    verify(liveUrlFilter, times(1)).markMissing(DECODED_ID);
+  }
+
+  @Test
+  void findRedirectUrl_WhenReplicaMissesUrl_ThenReadsItFromThePrimary() {
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.of(DECODED_ID));
+    when(replicaRouting.isEnabled()).thenReturn(true);
+    when(replicaRouting.onPrimary(any())).thenAnswer(invocation ->
+        invocation.<Supplier<?>>getArgument(0).get());
+    when(urlRepository.findById(anyLong()))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(url));
+
+    Optional<Url> result = urlService.findRedirectUrl(BASE62ENCODED_ID);
+
+    assertThat(result).contains(url);
+    verify(urlRepository, times(2)).findById(DECODED_ID);
+    verify(liveUrlFilter, never()).markMissing(anyLong());
+  }
+
+  @Test
+  void findUrl_WhenMalformedCode_ThenReturnsEmptyWithoutQueryingRepository() {
+    when(base62Service.tryDecode(anyString())).thenReturn(OptionalLong.empty());
+
+    Optional<UrlReadDto> result = urlService.findUrl("k@f2");
+
+    assertThat(result).isEmpty();
+    verify(urlRepository, never()).findById(anyLong());
+  }
+}
@@ -0,0 +1,113 @@
+package io.github.korzepadawid.urlshortener.snapshots;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import io.github.korzepadawid.urlshortener.models.RedirectType;
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UrlSnapshotTest {
+
+  private static final UUID STORE_ID = UUID.randomUUID();
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void find_WhenWritten_ThenReturnsEveryUrlAsStored() throws IOException {
+    Path path = directory.resolve("urls.snapshot");
+    LocalDateTime expiringAt = LocalDateTime.of(2030, 1, 2, 3, 4, 5);
+    try (UrlSnapshotWriter writer = new UrlSnapshotWriter(path)) {
+      writer.append(url(3, "https://stackoverflow.com/", null, null));
+      writer.append(url(7, "https://zażółć.pl/gęślą", expiringAt,
+          RedirectType.PERMANENT_REDIRECT));
+      writer.append(url(120, "https://www.nytimes.com/", null, RedirectType.FOUND));
+      writer.finish(1_000, STORE_ID);
+    }
+
+    UrlSnapshot snapshot = UrlSnapshot.open(path);
+
+    assertThat(snapshot.size()).isEqualTo(3);
+    assertThat(snapshot.getStoreId()).isEqualTo(STORE_ID);
+    assertThat(snapshot.getCreatedAt()).isEqualTo(Instant.ofEpochMilli(1_000));
+    assertThat(snapshot.find(3)).hasValueSatisfying(url -> {
+      assertThat(url.getUrl()).isEqualTo("https://stackoverflow.com/");
+      assertThat(url.getExpiringAt()).isNull();
+      assertThat(url.getRedirectType()).isNull();
+    });
+    assertThat(snapshot.find(7)).hasValueSatisfying(url -> {
+      assertThat(url.getId()).isEqualTo(7);
+      assertThat(url.getUrl()).isEqualTo("https://zażółć.pl/gęślą");
+      assertThat(url.getExpiringAt()).isEqualTo(expiringAt);
+      assertThat(url.getRedirectType()).isEqualTo(RedirectType.PERMANENT_REDIRECT);
+    });
+    assertThat(snapshot.find(120)).hasValueSatisfying(
+        url -> assertThat(url.getUrl()).isEqualTo("https://www.nytimes.com/"));
+    assertThat(snapshot.find(1)).isEmpty();
+    assertThat(snapshot.find(8)).isEmpty();
+    assertThat(snapshot.find(121)).isEmpty();
+  }
+
+  @Test
+  void find_WhenEmptySnapshot_ThenReturnsEmpty() throws IOException {
+    Path path = directory.resolve("urls.snapshot");
+    try (UrlSnapshotWriter writer = new UrlSnapshotWriter(path)) {
+      writer.finish(1_000, STORE_ID);
+    }
+
+    UrlSnapshot snapshot = UrlSnapshot.open(path);
+
+    assertThat(snapshot.size()).isZero();
+    assertThat(snapshot.find(1)).isEmpty();
+  }
+
+  @Test
+  void append_WhenIdsNotAscending_ThenThrowsIllegalArgumentException() throws IOException {
+    try (UrlSnapshotWriter writer = new UrlSnapshotWriter(directory.resolve("urls.snapshot"))) {
+      writer.append(url(5, "https://stackoverflow.com/", null, null));
+
+      Throwable throwable = catchThrowable(
+          () -> writer.append(url(5, "https://www.nytimes.com/", null, null)));
+
+      assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Test
+  void close_WhenFinished_ThenLeavesOnlyTheSnapshot() throws IOException {
+    Path path = directory.resolve("urls.snapshot");
+    try (UrlSnapshotWriter writer = new UrlSnapshotWriter(path)) {
+      writer.append(url(5, "https://stackoverflow.com/", null, null));
+      writer.finish(1_000, STORE_ID);
+    }
+
+    assertThat(Files.list(directory)).containsExactly(path);
+  }
+
+  @Test
+  void open_WhenNotASnapshot_ThenThrowsIOException() throws IOException {
+    Path path = Files.write(directory.resolve("urls.snapshot"), new byte[64]);
+
+    Throwable throwable = catchThrowable(() -> UrlSnapshot.open(path));
+
+    assertThat(throwable).isInstanceOf(IOException.class);
+  }
+
+  private static Url url(long id, String url, LocalDateTime expiringAt,
+      RedirectType redirectType) {
+    return Url.builder()
+        .id(id)
+        .url(url)
+        .expiringAt(expiringAt)
+        .redirectType(redirectType)
+        .build();
+  }
+}
@@ -0,0 +1,175 @@
+package io.github.korzepadawid.urlshortener.snapshots;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import io.github.korzepadawid.urlshortener.config.UrlSnapshotProperties;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import io.github.korzepadawid.urlshortener.storage.UrlStoreIdentity;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
+
+@ExtendWith(MockitoExtension.class)
+class UrlSnapshotsTest {
+
+  private static final UUID STORE_ID = UUID.randomUUID();
+
+  @Mock
+  private UrlRepository urlRepository;
+
+  @TempDir
+  Path directory;
+
+  private UrlSnapshotProperties urlSnapshotProperties;
+  private UrlSnapshots urlSnapshots;
+
+  @BeforeEach
+  void setUp() {
+    urlSnapshotProperties = new UrlSnapshotProperties();
+    urlSnapshotProperties.setEnabled(true);
+    urlSnapshotProperties.setPath(directory.resolve("urls.snapshot"));
+    urlSnapshotProperties.setPageSize(2);
+    urlSnapshots = new UrlSnapshots(urlRepository, urlSnapshotProperties,
+        new UrlStoreIdentity(urlRepository));
+    lenient().when(urlRepository.getStoreId()).thenReturn(STORE_ID);
+  }
+
+  @Test
+  void find_WhenNotBuiltYet_ThenReturnsEmpty() {
+    urlSnapshots.load();
+
+    assertThat(urlSnapshots.find(1)).isEmpty();
+    assertThat(urlSnapshots.getSnapshotUrls()).isZero();
+  }
+
+  @Test
+  void refresh_WhenBuilding_ThenServesEveryPageOfUrls() {
+    givenLiveUrls(List.of(url(2), url(5)), List.of(url(9)));
+
+    urlSnapshots.refresh();
+
+    assertThat(urlSnapshots.getSnapshotUrls()).isEqualTo(3);
+    assertThat(urlSnapshots.find(9)).hasValueSatisfying(
+        url -> assertThat(url.getUrl()).isEqualTo("https://stackoverflow.com/9"));
+    assertThat(urlSnapshots.find(4)).isEmpty();
+  }
+
+  @Test
+  void refresh_WhenDatabaseFails_ThenKeepsPreviousSnapshot() {
+    givenLiveUrls(List.of(url(2)));
+    urlSnapshots.refresh();
+    when(urlRepository.findLiveUrlsAfter(eq(-1L), any(), any(Pageable.class)))
+        .thenThrow(new DataAccessResourceFailureException("down"));
+
+    urlSnapshots.refresh();
+
+    assertThat(urlSnapshots.find(2)).isPresent();
+  }
+
+  @Test
+  void refresh_WhenStoreIdUnknown_ThenKeepsPreviousSnapshot() {
+    givenLiveUrls(List.of(url(2)));
+    urlSnapshots.refresh();
+
+    UrlSnapshots restarted = new UrlSnapshots(urlRepository, urlSnapshotProperties,
+        unreachableStoreIdentity());
+    restarted.load();
+    restarted.refresh();
+
+    assertThat(restarted.find(2)).isPresent();
+  }
+
+  @Test
+  void load_WhenStoreUnreachable_ThenServesSnapshotWithoutTheDatabase() {
+    givenLiveUrls(List.of(url(2)));
+    urlSnapshots.refresh();
+    UrlStoreIdentity urlStoreIdentity = unreachableStoreIdentity();
+
+    UrlSnapshots restarted = new UrlSnapshots(urlRepository, urlSnapshotProperties,
+        urlStoreIdentity);
+    restarted.load();
+    urlStoreIdentity.identify();
+
+    assertThat(restarted.find(2)).isPresent();
+  }
+
+  @Test
+  void load_WhenBuiltFromAnotherStore_ThenIgnoresIt() {
+    givenLiveUrls(List.of(url(2), url(5)));
+    urlSnapshots.refresh();
+    when(urlRepository.getStoreId()).thenReturn(UUID.randomUUID());
+    UrlStoreIdentity urlStoreIdentity = new UrlStoreIdentity(urlRepository);
+    urlStoreIdentity.identify();
+
+    UrlSnapshots restarted = new UrlSnapshots(urlRepository, urlSnapshotProperties,
+        urlStoreIdentity);
+    restarted.load();
+
+    assertThat(restarted.find(2)).isEmpty();
+    assertThat(restarted.getSnapshotUrls()).isZero();
+  }
+
+  @Test
+  void find_WhenStoreTurnsOutToBeAnotherOne_ThenDropsTheSnapshot() {
+    givenLiveUrls(List.of(url(2)));
+    urlSnapshots.refresh();
+    UrlStoreIdentity urlStoreIdentity = unreachableStoreIdentity();
+    UrlSnapshots restarted = new UrlSnapshots(urlRepository, urlSnapshotProperties,
+        urlStoreIdentity);
+    restarted.load();
+    assertThat(restarted.find(2)).isPresent();
+
+    doReturn(UUID.randomUUID()).when(urlRepository).getStoreId();
+    urlStoreIdentity.identify();
+
+    assertThat(restarted.find(2)).isEmpty();
+    assertThat(restarted.getSnapshotUrls()).isZero();
+  }
+
+  @Test
+  void refresh_WhenDisabled_ThenDoesNothing() {
+    urlSnapshotProperties.setEnabled(false);
+
+    urlSnapshots.refresh();
+
+    assertThat(urlSnapshots.getSnapshotUrls()).isZero();
+  }
+
+  @SafeVarargs
+  private void givenLiveUrls(List<Url>... pages) {
+    long afterId = -1;
+    for (List<Url> page : pages) {
+      when(urlRepository.findLiveUrlsAfter(eq(afterId), any(), any(Pageable.class)))
+          .thenReturn(page);
+      afterId = page.get(page.size() - 1).getId();
+    }
+  }
+
+  private UrlStoreIdentity unreachableStoreIdentity() {
+    when(urlRepository.getStoreId()).thenThrow(new DataAccessResourceFailureException("down"));
+    UrlStoreIdentity urlStoreIdentity = new UrlStoreIdentity(urlRepository);
+    urlStoreIdentity.identify();
+    return urlStoreIdentity;
+  }
+
+  private static Url url(long id) {
+    return Url.builder()
+        .id(id)
+        .url("https://stackoverflow.com/" + id)
+        .build();
+  }
+}
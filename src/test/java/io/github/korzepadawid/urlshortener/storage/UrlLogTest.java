@@ -0,0 +1,163 @@
+package io.github.korzepadawid.urlshortener.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.korzepadawid.urlshortener.models.Url;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UrlLogTest {
+
+  private static final long SEGMENT_SIZE = 1024;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void put_WhenSegmentIsFull_ThenStartsNewSegment() throws IOException {
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      for (int i = 0; i < 20; i++) {
+        urlLog.put(newUrl(i, null));
+      }
+
+      assertThat(urlLog.getSegmentCount()).isGreaterThan(1);
+      assertThat(urlLog.get(20)).hasValueSatisfying(url ->
+          assertThat(url.getUrl()).isEqualTo("https://www.example.org/19"));
+    }
+  }
+
+  @Test
+  void open_WhenReopened_ThenKeepsTheStoreId() throws IOException {
+    UUID storeId;
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      storeId = urlLog.getStoreId();
+    }
+
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      assertThat(urlLog.getStoreId()).isEqualTo(storeId);
+    }
+  }
+
+  @Test
+  void open_WhenRecordIsTorn_ThenTruncatesItAndKeepsEarlierUrls() throws IOException {
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      urlLog.put(newUrl(1, null));
+      urlLog.put(newUrl(2, null));
+    }
+    Path segment = segments().get(0);
+    long size = Files.size(segment);
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.truncate(size - 3);
+    }
+
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      assertThat(urlLog.get(1)).isPresent();
+      assertThat(urlLog.get(2)).isEmpty();
+      urlLog.put(newUrl(3, null));
+    }
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      assertThat(urlLog.size()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void open_WhenRecordIsCorrupt_ThenDropsTheRestOfTheNewestSegment() throws IOException {
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      urlLog.put(newUrl(1, null));
+    }
+    Path segment = segments().get(0);
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {42}), Files.size(segment) - 1);
+    }
+
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      assertThat(urlLog.size()).isZero();
+    }
+  }
+
+  @Test
+  void compact_WhenOverwrittenDeletedAndExpiredUrls_ThenKeepsOnlyLiveOnes() throws IOException {
+    LocalDateTime now = LocalDateTime.now();
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      for (int i = 0; i < 20; i++) {
+        urlLog.put(newUrl(i, i % 2 == 0 ? null : now.minusDays(1)));
+      }
+      urlLog.delete(1);
+      urlLog.delete(20);
+
+      assertThat(urlLog.compact(now)).isPositive();
+
+      assertThat(urlLog.size()).isEqualTo(9);
+      assertThat(urlLog.getSegmentCount()).isEqualTo(2);
+      assertThat(urlLog.get(3)).hasValueSatisfying(url ->
+          assertThat(url.getUrl()).isEqualTo("https://www.example.org/2"));
+      assertThat(urlLog.compact(now)).isZero();
+    }
+
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      assertThat(urlLog.size()).isEqualTo(9);
+      assertThat(urlLog.get(1)).isEmpty();
+      assertThat(urlLog.get(2)).isEmpty();
+      Url url = newUrl(20, null);
+      urlLog.put(url);
+      assertThat(url.getId()).isEqualTo(21);
+    }
+  }
+
+  @Test
+  void compact_WhenWritesFollow_ThenReplayKeepsLatestVersion() throws IOException {
+    LocalDateTime now = LocalDateTime.now();
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      urlLog.put(newUrl(1, null));
+      urlLog.put(newUrl(2, null));
+      urlLog.compact(now);
+      urlLog.delete(1);
+      Url changed = urlLog.get(2).orElseThrow();
+      changed.setUrl("https://www.example.org/changed");
+      urlLog.put(changed);
+    }
+
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      assertThat(urlLog.get(1)).isEmpty();
+      assertThat(urlLog.get(2)).hasValueSatisfying(url ->
+          assertThat(url.getUrl()).isEqualTo("https://www.example.org/changed"));
+    }
+  }
+
+  @Test
+  void put_WhenDedupKeyTaken_ThenReturnsFalse() throws IOException {
+    try (UrlLog urlLog = UrlLog.open(directory, SEGMENT_SIZE, false)) {
+      assertThat(urlLog.put(newUrl(1, null))).isTrue();
+      assertThat(urlLog.put(newUrl(1, null))).isFalse();
+      assertThat(urlLog.idOf(Url.dedupKeyOf("https://www.example.org/1", null, null)))
+          .contains(1L);
+    }
+  }
+
+  private List<Path> segments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.sorted().collect(Collectors.toList());
+    }
+  }
+
+  private static Url newUrl(int index, LocalDateTime expiringAt) {
+    String url = "https://www.example.org/" + index;
+    return Url.builder()
+        .url(url)
+        .createdAt(LocalDateTime.now())
+        .expiringAt(expiringAt)
+        .dedupKey(Url.dedupKeyOf(url, expiringAt, null))
+        .build();
+  }
+}
@@ -0,0 +1,41 @@
+package io.github.korzepadawid.urlshortener.writebehind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlReadDto;
+import io.github.korzepadawid.urlshortener.api.v1.models.UrlWriteDto;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import io.github.korzepadawid.urlshortener.services.UrlService;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "url-shortener.write-behind.enabled=true")
+class UrlWriteBehindIntegrationTest {
+
+  @Autowired
+  private UrlService urlService;
+
+  @Autowired
+  private UrlRepository urlRepository;
+
+  @Test
+  void createUrl_WhenWriteBehindEnabled_ThenCommitsUrlWithPreallocatedId() {
+    UrlReadDto created = urlService.createUrl(UrlWriteDto.builder()
+        .url("https://www.write-behind.org/")
+        .build());
+    UrlReadDto createdAgain = urlService.createUrl(UrlWriteDto.builder()
+        .url("https://www.write-behind.org/")
+        .build());
+
+    Optional<Url> url = urlRepository.findByDedupKey(
+        Url.dedupKeyOf("https://www.write-behind.org/", null, null));
+    assertThat(url).isPresent();
+    assertThat(created.getShortUrl()).isEqualTo(createdAgain.getShortUrl());
+    assertThat(urlService.findRedirectUrl(created.getShortUrl().substring(1)))
+        .hasValueSatisfying(redirectUrl -> assertThat(redirectUrl.getId())
+            .isEqualTo(url.get().getId()));
+  }
+}
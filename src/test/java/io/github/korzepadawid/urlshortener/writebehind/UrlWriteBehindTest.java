@@ -0,0 +1,243 @@
+package io.github.korzepadawid.urlshortener.writebehind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.korzepadawid.urlshortener.caches.LinkIndex;
+import io.github.korzepadawid.urlshortener.caches.LiveUrlFilter;
+import io.github.korzepadawid.urlshortener.config.WriteBehindProperties;
+import io.github.korzepadawid.urlshortener.config.WriteBehindProperties.Durability;
+import io.github.korzepadawid.urlshortener.models.Url;
+import io.github.korzepadawid.urlshortener.repositories.UrlRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+@ExtendWith(MockitoExtension.class)
+class UrlWriteBehindTest {
+
+  @Mock
+  private UrlIdAllocator urlIdAllocator;
+
+  @Mock
+  private UrlInsertWriter urlInsertWriter;
+
+  @Mock
+  private UrlRepository urlRepository;
+
+  @Mock
+  private LiveUrlFilter liveUrlFilter;
+
+  @Mock
+  private LinkIndex linkIndex;
+
+  private WriteBehindProperties writeBehindProperties;
+
+  @BeforeEach
+  void setUp() {
+    AtomicLong ids = new AtomicLong();
+    when(urlIdAllocator.nextId()).thenAnswer(invocation -> ids.incrementAndGet());
+    writeBehindProperties = new WriteBehindProperties();
+    writeBehindProperties.setEnabled(true);
+    writeBehindProperties.setMaxDelay(Duration.ofMillis(5));
+  }
+
+  @Test
+  void enqueue_WhenBuffered_ThenUrlIsReadableUntilGroupCommitted() throws InterruptedException {
+    writeBehindProperties.setDurability(Durability.BUFFERED);
+    List<List<Url>> batches = recordBatches();
+    UrlWriteBehind urlWriteBehind = newUrlWriteBehind();
+
+    Url first = urlWriteBehind.enqueue(newUrl("https://spring.io/"));
+    Url second = urlWriteBehind.enqueue(newUrl("https://www.tensorflow.org/"));
+
+    assertThat(first.getId()).isEqualTo(1);
+    assertThat(second.getId()).isEqualTo(2);
+    assertThat(urlWriteBehind.findQueued(1)).containsSame(first);
+    assertThat(urlWriteBehind.findQueued(second.getDedupKey())).containsSame(second);
+
+    urlWriteBehind.start();
+    urlWriteBehind.stop();
+
+    assertThat(batches).containsExactly(List.of(first, second));
+    assertThat(urlWriteBehind.findQueued(1)).isEmpty();
+    assertThat(urlWriteBehind.getQueuedUrls()).isZero();
+    assertThat(urlWriteBehind.getCommittedUrls()).isEqualTo(2);
+    verify(liveUrlFilter).add(1L);
+    verify(linkIndex).add(second);
+  }
+
+  @Test
+  void enqueue_WhenSameUrlAlreadyQueued_ThenReturnsQueuedUrl() {
+    writeBehindProperties.setDurability(Durability.BUFFERED);
+    UrlWriteBehind urlWriteBehind = newUrlWriteBehind();
+
+    Url first = urlWriteBehind.enqueue(newUrl("https://spring.io/"));
+    Url second = urlWriteBehind.enqueue(newUrl("https://spring.io/"));
+
+    assertThat(second).isSameAs(first);
+    assertThat(urlWriteBehind.getQueuedUrls()).isEqualTo(1);
+  }
+
+  @Test
+  void enqueue_WhenCommitted_ThenReturnsAfterGroupCommit() throws InterruptedException {
+    List<List<Url>> batches = recordBatches();
+    UrlWriteBehind urlWriteBehind = newUrlWriteBehind();
+    urlWriteBehind.start();
+
+    Url url = urlWriteBehind.enqueue(newUrl("https://spring.io/"));
+    urlWriteBehind.stop();
+
+    assertThat(batches).containsExactly(List.of(url));
+    assertThat(urlWriteBehind.findQueued(url.getId())).isEmpty();
+  }
+
+  @Test
+  void enqueue_WhenEqualUrlCommittedElsewhere_ThenReturnsWinner() throws InterruptedException {
+    Url winner = newUrl("https://spring.io/");
+    winner.setId(42L);
+    doThrow(new DataIntegrityViolationException(Url.DEDUP_KEY_CONSTRAINT))
+        .when(urlInsertWriter).insert(anyList());
+    when(urlRepository.findByDedupKey(winner.getDedupKey())).thenReturn(Optional.of(winner));
+    UrlWriteBehind urlWriteBehind = newUrlWriteBehind();
+    urlWriteBehind.start();
+
+    Url url = urlWriteBehind.enqueue(newUrl("https://spring.io/"));
+    urlWriteBehind.stop();
+
+    assertThat(url).isSameAs(winner);
+    assertThat(urlWriteBehind.getConflictingUrls()).isEqualTo(1);
+    assertThat(urlWriteBehind.getCommittedUrls()).isZero();
+    verify(liveUrlFilter, never()).add(anyLong());
+  }
+
+  @Test
+  void stop_WhenDatabaseUnavailable_ThenFailsQueuedUrls() throws InterruptedException {
+    writeBehindProperties.setDurability(Durability.BUFFERED);
+    doThrow(new DataAccessResourceFailureException("Connection refused"))
+        .when(urlInsertWriter).insert(anyList());
+    UrlWriteBehind urlWriteBehind = newUrlWriteBehind();
+
+    urlWriteBehind.enqueue(newUrl("https://spring.io/"));
+    urlWriteBehind.start();
+    urlWriteBehind.stop();
+
+    assertThat(urlWriteBehind.getQueuedUrls()).isZero();
+    assertThat(urlWriteBehind.getCommittedUrls()).isZero();
+  }
+
+  @Test
+  void enqueue_WhenCommitFailsWhileStopping_ThenThrowsCause() throws InterruptedException {
+    doThrow(new DataAccessResourceFailureException("Connection refused"))
+        .when(urlInsertWriter).insert(anyList());
+    writeBehindProperties.setRetryBackoff(Duration.ofMillis(5));
+    UrlWriteBehind urlWriteBehind = newUrlWriteBehind();
+    urlWriteBehind.start();
+    Thread stopper = new Thread(() -> {
+      try {
+        Thread.sleep(50);
+        urlWriteBehind.stop();
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    stopper.start();
+
+    Url url = newUrl("https://spring.io/");
+    Throwable throwable = catchThrowable(() -> urlWriteBehind.enqueue(url));
+    stopper.join();
+
+    assertThat(throwable).isInstanceOf(DataAccessResourceFailureException.class);
+  }
+
+  @Test
+  void enqueue_WhenTransactionCannotBeCreated_ThenRetriesAndKeepsWriting()
+      throws InterruptedException {
+    List<List<Url>> batches = new ArrayList<>();
+    doThrow(new CannotCreateTransactionException("Pool exhausted"))
+        .doAnswer(invocation -> batches.add(new ArrayList<>(invocation.<List<Url>>getArgument(0))))
+        .when(urlInsertWriter).insert(anyList());
+    writeBehindProperties.setRetryBackoff(Duration.ofMillis(5));
+    UrlWriteBehind urlWriteBehind = newUrlWriteBehind();
+    urlWriteBehind.start();
+
+    Url first = urlWriteBehind.enqueue(newUrl("https://spring.io/"));
+    Url second = urlWriteBehind.enqueue(newUrl("https://www.tensorflow.org/"));
+    urlWriteBehind.stop();
+
+    assertThat(batches).containsExactly(List.of(first), List.of(second));
+    assertThat(urlWriteBehind.getCommittedUrls()).isEqualTo(2);
+  }
+
+  @Test
+  void enqueue_WhenCommitFailsUnexpectedly_ThenFailsBatchAndKeepsWriting()
+      throws InterruptedException {
+    doThrow(new IllegalStateException("Bug"))
+        .doNothing()
+        .when(urlInsertWriter).insert(anyList());
+    UrlWriteBehind urlWriteBehind = newUrlWriteBehind();
+    urlWriteBehind.start();
+
+    Throwable throwable = catchThrowable(
+        () -> urlWriteBehind.enqueue(newUrl("https://spring.io/")));
+    Url url = urlWriteBehind.enqueue(newUrl("https://www.tensorflow.org/"));
+    urlWriteBehind.stop();
+
+    assertThat(throwable).isInstanceOf(IllegalStateException.class);
+    assertThat(urlWriteBehind.getCommittedUrls()).isEqualTo(1);
+    verify(liveUrlFilter).add(url.getId());
+  }
+
+  @Test
+  void enqueue_WhenQueueStaysFull_ThenThrowsTransientDataAccessResourceException() {
+    writeBehindProperties.setDurability(Durability.BUFFERED);
+    writeBehindProperties.setQueueCapacity(1);
+    writeBehindProperties.setQueueTimeout(Duration.ofMillis(10));
+    UrlWriteBehind urlWriteBehind = newUrlWriteBehind();
+    urlWriteBehind.enqueue(newUrl("https://spring.io/"));
+    Url url = newUrl("https://www.tensorflow.org/");
+
+    Throwable throwable = catchThrowable(() -> urlWriteBehind.enqueue(url));
+
+    assertThat(throwable).isInstanceOf(TransientDataAccessResourceException.class);
+    assertThat(urlWriteBehind.findQueued(url.getDedupKey())).isEmpty();
+    assertThat(urlWriteBehind.getQueuedUrls()).isEqualTo(1);
+  }
+
+  private List<List<Url>> recordBatches() {
+    List<List<Url>> batches = new ArrayList<>();
+    doAnswer(invocation -> batches.add(new ArrayList<>(invocation.<List<Url>>getArgument(0))))
+        .when(urlInsertWriter).insert(anyList());
+    return batches;
+  }
+
+  private UrlWriteBehind newUrlWriteBehind() {
+    return new UrlWriteBehind(urlIdAllocator, urlInsertWriter, urlRepository, liveUrlFilter,
+        linkIndex, writeBehindProperties);
+  }
+
+  private static Url newUrl(String url) {
+    return Url.builder()
+        .url(url)
+        .dedupKey(Url.dedupKeyOf(url, null, null))
+        .build();
+  }
+}